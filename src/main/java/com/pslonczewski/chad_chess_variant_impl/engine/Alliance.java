@@ -19,17 +19,22 @@ public enum Alliance {
 
         @Override
         public boolean isCastleTile(int coordinate) {
-            return BoardUtils.WHITE_CASTLE[coordinate];
+            return BoardUtils.WHITE_CASTLE_MASK.isSet(coordinate);
         }
 
         @Override
         public boolean isWallTile(int coordinate) {
-            return BoardUtils.WHITE_WALL[coordinate];
+            return BoardUtils.WHITE_WALL_MASK.isSet(coordinate);
         }
 
         @Override
         public boolean isPromotionTile(int coordinate) {
-            return BoardUtils.BLACK_CASTLE[coordinate];
+            return BoardUtils.BLACK_CASTLE_MASK.isSet(coordinate);
+        }
+
+        @Override
+        public Alliance getOpponent() {
+            return BLACK;
         }
 
         @Override
@@ -50,17 +55,22 @@ public enum Alliance {
 
         @Override
         public boolean isCastleTile(int coordinate) {
-            return BoardUtils.BLACK_CASTLE[coordinate];
+            return BoardUtils.BLACK_CASTLE_MASK.isSet(coordinate);
         }
 
         @Override
         public boolean isWallTile(int coordinate) {
-            return BoardUtils.BLACK_WALL[coordinate];
+            return BoardUtils.BLACK_WALL_MASK.isSet(coordinate);
         }
 
         @Override
         public boolean isPromotionTile(int coordinate) {
-            return BoardUtils.WHITE_CASTLE[coordinate];
+            return BoardUtils.WHITE_CASTLE_MASK.isSet(coordinate);
+        }
+
+        @Override
+        public Alliance getOpponent() {
+            return WHITE;
         }
 
         @Override
@@ -74,6 +84,7 @@ public enum Alliance {
     public abstract boolean isCastleTile(int coordinate);
     public abstract boolean isWallTile(int coordinate);
     public abstract boolean isPromotionTile(int coordinate);
+    public abstract Alliance getOpponent();
 
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
 }
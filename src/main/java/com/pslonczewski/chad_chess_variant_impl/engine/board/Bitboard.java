@@ -0,0 +1,167 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+/**
+ * Immutable set of the 144 tiles of the Chad board packed into three longs.
+ * Tile {@code n} lives in bit {@code n & 63} of word {@code n >>> 6}, so the last word uses only 16 bits.
+ * The static helpers work on the same layout stored in plain {@code long[]} arrays, which is how
+ * {@link BitboardPosition} keeps its occupancy sets.
+ */
+public final class Bitboard {
+
+    public static final int NUM_WORDS = 3;
+
+    public static final Bitboard EMPTY = new Bitboard(0L, 0L, 0L);
+    public static final Bitboard FULL = new Bitboard(-1L, -1L, 0xFFFFL);
+
+    private final long low;
+    private final long middle;
+    private final long high;
+
+    private Bitboard(final long low, final long middle, final long high) {
+        this.low = low;
+        this.middle = middle;
+        this.high = high;
+    }
+
+    public static Bitboard of(final boolean[] tiles) {
+        long[] words = new long[NUM_WORDS];
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i]) {
+                set(words, 0, i);
+            }
+        }
+        return new Bitboard(words[0], words[1], words[2]);
+    }
+
+    static Bitboard of(final long[] words, final int offset) {
+        return new Bitboard(words[offset], words[offset + 1], words[offset + 2]);
+    }
+
+    public boolean isSet(final int tileCoordinate) {
+        return (word(tileCoordinate >>> 6) & (1L << tileCoordinate)) != 0;
+    }
+
+    public Bitboard with(final int tileCoordinate) {
+        final long bit = 1L << tileCoordinate;
+        return switch (tileCoordinate >>> 6) {
+            case 0 -> new Bitboard(this.low | bit, this.middle, this.high);
+            case 1 -> new Bitboard(this.low, this.middle | bit, this.high);
+            default -> new Bitboard(this.low, this.middle, this.high | bit);
+        };
+    }
+
+    public Bitboard without(final int tileCoordinate) {
+        final long bit = 1L << tileCoordinate;
+        return switch (tileCoordinate >>> 6) {
+            case 0 -> new Bitboard(this.low & ~bit, this.middle, this.high);
+            case 1 -> new Bitboard(this.low, this.middle & ~bit, this.high);
+            default -> new Bitboard(this.low, this.middle, this.high & ~bit);
+        };
+    }
+
+    public Bitboard and(final Bitboard other) {
+        return new Bitboard(this.low & other.low, this.middle & other.middle, this.high & other.high);
+    }
+
+    public Bitboard or(final Bitboard other) {
+        return new Bitboard(this.low | other.low, this.middle | other.middle, this.high | other.high);
+    }
+
+    public Bitboard andNot(final Bitboard other) {
+        return new Bitboard(this.low & ~other.low, this.middle & ~other.middle, this.high & ~other.high);
+    }
+
+    public boolean isEmpty() {
+        return (this.low | this.middle | this.high) == 0L;
+    }
+
+    public int count() {
+        return Long.bitCount(this.low) + Long.bitCount(this.middle) + Long.bitCount(this.high);
+    }
+
+    /**
+     * @return the lowest set tile that is {@code >= fromCoordinate}, or -1 if there is none
+     */
+    public int nextSetBit(final int fromCoordinate) {
+        if (fromCoordinate >= BoardUtils.NUM_TILES) {
+            return -1;
+        }
+        int i = fromCoordinate >>> 6;
+        long word = word(i) & (-1L << fromCoordinate);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == NUM_WORDS) {
+                return -1;
+            }
+            word = word(i);
+        }
+    }
+
+    long word(final int index) {
+        return index == 0 ? this.low : index == 1 ? this.middle : this.high;
+    }
+
+    static boolean isSet(final long[] words, final int offset, final int tileCoordinate) {
+        return (words[offset + (tileCoordinate >>> 6)] & (1L << tileCoordinate)) != 0;
+    }
+
+    static void set(final long[] words, final int offset, final int tileCoordinate) {
+        words[offset + (tileCoordinate >>> 6)] |= 1L << tileCoordinate;
+    }
+
+    static void clear(final long[] words, final int offset, final int tileCoordinate) {
+        words[offset + (tileCoordinate >>> 6)] &= ~(1L << tileCoordinate);
+    }
+
+    static int count(final long[] words, final int offset) {
+        return Long.bitCount(words[offset]) + Long.bitCount(words[offset + 1]) + Long.bitCount(words[offset + 2]);
+    }
+
+    static int nextSetBit(final long[] words, final int offset, final int fromCoordinate) {
+        if (fromCoordinate >= BoardUtils.NUM_TILES) {
+            return -1;
+        }
+        int i = fromCoordinate >>> 6;
+        long word = words[offset + i] & (-1L << fromCoordinate);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == NUM_WORDS) {
+                return -1;
+            }
+            word = words[offset + i];
+        }
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Bitboard)) {
+            return false;
+        }
+        final Bitboard otherBitboard = (Bitboard) other;
+        return this.low == otherBitboard.low && this.middle == otherBitboard.middle && this.high == otherBitboard.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.low) * 961 + Long.hashCode(this.middle) * 31 + Long.hashCode(this.high);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            builder.append(isSet(i) ? '1' : '.');
+            if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
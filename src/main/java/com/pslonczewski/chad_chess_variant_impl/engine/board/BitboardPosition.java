@@ -0,0 +1,237 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+
+/**
+ * Bitboard representation of a Chad position: one 144-bit occupancy set per piece type and alliance,
+ * one per alliance, and a mailbox that maps every occupied tile back to its {@link Piece}.
+ */
+public final class BitboardPosition {
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    private static final int NUM_ALLIANCES = Alliance.values().length;
+
+    // Bits per piece count in the material signature; a side never has more than 18 pieces.
+    private static final int MATERIAL_SIGNATURE_BITS = 5;
+
+    private final long[] pieceBoards;
+    private final long[] allianceBoards;
+    private final Piece[] pieces;
+    private final int[] pieceCounts;
+    private final int[] material;
+    private int pieceCount;
+    private int materialSignature;
+
+    BitboardPosition() {
+        this.pieceBoards = new long[NUM_ALLIANCES * NUM_PIECE_TYPES * Bitboard.NUM_WORDS];
+        this.allianceBoards = new long[NUM_ALLIANCES * Bitboard.NUM_WORDS];
+        this.pieces = new Piece[BoardUtils.NUM_TILES];
+        this.pieceCounts = new int[NUM_ALLIANCES * NUM_PIECE_TYPES];
+        this.material = new int[NUM_ALLIANCES];
+    }
+
+    BitboardPosition(final BitboardPosition other) {
+        this.pieceBoards = other.pieceBoards.clone();
+        this.allianceBoards = other.allianceBoards.clone();
+        this.pieces = other.pieces.clone();
+        this.pieceCounts = other.pieceCounts.clone();
+        this.material = other.material.clone();
+        this.pieceCount = other.pieceCount;
+        this.materialSignature = other.materialSignature;
+    }
+
+    private static int pieceCountIndex(final Alliance alliance, final PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    /**
+     * @return the amount a piece of the given type and alliance adds to {@link #getMaterialSignature()}
+     */
+    public static int materialSignatureOf(final Alliance alliance, final PieceType pieceType) {
+        return 1 << (pieceCountIndex(alliance, pieceType) * MATERIAL_SIGNATURE_BITS);
+    }
+
+    private void count(final Piece piece, final int delta) {
+        final Alliance alliance = piece.getPieceAlliance();
+        final PieceType pieceType = piece.getPieceType();
+        this.pieceCounts[pieceCountIndex(alliance, pieceType)] += delta;
+        this.material[alliance.ordinal()] += delta * pieceType.getPieceValue();
+        this.pieceCount += delta;
+        this.materialSignature += delta * materialSignatureOf(alliance, pieceType);
+    }
+
+    private static int pieceBoardOffset(final Alliance alliance, final PieceType pieceType) {
+        return pieceCountIndex(alliance, pieceType) * Bitboard.NUM_WORDS;
+    }
+
+    private static int allianceBoardOffset(final Alliance alliance) {
+        return alliance.ordinal() * Bitboard.NUM_WORDS;
+    }
+
+    void put(final Piece piece) {
+        final int coordinate = piece.getPiecePosition();
+        if (this.pieces[coordinate] != null) {
+            remove(coordinate);
+        }
+        this.pieces[coordinate] = piece;
+        count(piece, 1);
+        Bitboard.set(this.pieceBoards, pieceBoardOffset(piece.getPieceAlliance(), piece.getPieceType()), coordinate);
+        Bitboard.set(this.allianceBoards, allianceBoardOffset(piece.getPieceAlliance()), coordinate);
+    }
+
+    void remove(final int coordinate) {
+        final Piece piece = this.pieces[coordinate];
+        this.pieces[coordinate] = null;
+        count(piece, -1);
+        Bitboard.clear(this.pieceBoards, pieceBoardOffset(piece.getPieceAlliance(), piece.getPieceType()), coordinate);
+        Bitboard.clear(this.allianceBoards, allianceBoardOffset(piece.getPieceAlliance()), coordinate);
+    }
+
+    public boolean isTileOccupied(final int coordinate) {
+        return Bitboard.isSet(this.allianceBoards, 0, coordinate)
+                || Bitboard.isSet(this.allianceBoards, Bitboard.NUM_WORDS, coordinate);
+    }
+
+    public boolean isTileOccupiedBy(final int coordinate, final Alliance alliance) {
+        return Bitboard.isSet(this.allianceBoards, allianceBoardOffset(alliance), coordinate);
+    }
+
+    public boolean isPieceAt(final int coordinate, final Alliance alliance, final PieceType pieceType) {
+        return Bitboard.isSet(this.pieceBoards, pieceBoardOffset(alliance, pieceType), coordinate);
+    }
+
+    public Piece getPiece(final int coordinate) {
+        return this.pieces[coordinate];
+    }
+
+    public Bitboard getPieces(final Alliance alliance, final PieceType pieceType) {
+        return Bitboard.of(this.pieceBoards, pieceBoardOffset(alliance, pieceType));
+    }
+
+    public Bitboard getOccupancy(final Alliance alliance) {
+        return Bitboard.of(this.allianceBoards, allianceBoardOffset(alliance));
+    }
+
+    public Bitboard getOccupancy() {
+        return getOccupancy(Alliance.WHITE).or(getOccupancy(Alliance.BLACK));
+    }
+
+    public int getPieceCount() {
+        return this.pieceCount;
+    }
+
+    public int getPieceCount(final Alliance alliance) {
+        int pieceCount = 0;
+        for (int i = alliance.ordinal() * NUM_PIECE_TYPES; i < (alliance.ordinal() + 1) * NUM_PIECE_TYPES; i++) {
+            pieceCount += this.pieceCounts[i];
+        }
+        return pieceCount;
+    }
+
+    public int getPieceCount(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceCounts[pieceCountIndex(alliance, pieceType)];
+    }
+
+    /**
+     * @return the summed {@link PieceType#getPieceValue() values} of the pieces of {@code alliance}
+     */
+    public int getMaterial(final Alliance alliance) {
+        return this.material[alliance.ordinal()];
+    }
+
+    /**
+     * Piece counts per alliance and type packed into one int, equal for two positions exactly when they
+     * have the same material. See {@link #materialSignatureOf}.
+     */
+    public int getMaterialSignature() {
+        return this.materialSignature;
+    }
+
+    /**
+     * @return the first tile {@code >= fromCoordinate} holding a piece of the given alliance, or -1
+     */
+    public int nextPiecePosition(final Alliance alliance, final int fromCoordinate) {
+        return Bitboard.nextSetBit(this.allianceBoards, allianceBoardOffset(alliance), fromCoordinate);
+    }
+
+    public int getKingPosition(final Alliance alliance) {
+        return Bitboard.nextSetBit(this.pieceBoards, pieceBoardOffset(alliance, PieceType.KING), 0);
+    }
+
+    /**
+     * Whether a piece of {@code byAlliance} can capture on {@code square}, following the capture rules of
+     * {@link com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook Rook},
+     * {@link com.pslonczewski.chad_chess_variant_impl.engine.pieces.Queen Queen} and
+     * {@link com.pslonczewski.chad_chess_variant_impl.engine.pieces.King King}. An empty square is treated
+     * as holding a piece of the other alliance that is not a king. No moves are generated.
+     */
+    public boolean isSquareAttacked(final int square, final Alliance byAlliance) {
+        return findAttacker(square, byAlliance) != -1;
+    }
+
+    /**
+     * Whether a king of the other alliance would be attacked by {@code byAlliance} on {@code square} once
+     * {@code vacatedCoordinate} is empty, i.e. after that king moved there from {@code vacatedCoordinate}.
+     */
+    public boolean isKingSquareAttacked(final int square, final Alliance byAlliance, final int vacatedCoordinate) {
+        return findAttacker(square, byAlliance, true, vacatedCoordinate) != -1;
+    }
+
+    /**
+     * A tile holding a piece of {@code byAlliance} that can capture on {@code square}, or -1. Scans outward
+     * from the square: the first piece along each line may capture, if it is a rook (orthogonal lines) or
+     * a queen, and then a king may capture if the square is inside a castle.
+     */
+    public int findAttacker(final int square, final Alliance byAlliance) {
+        return findAttacker(square, byAlliance, isPieceAt(square, byAlliance.getOpponent(), PieceType.KING), -1);
+    }
+
+    private int findAttacker(final int square, final Alliance byAlliance, final boolean isKingAttacked,
+                             final int vacatedCoordinate) {
+        for (final int[] ray : MoveTables.ROOK_RAYS[square]) {
+            final int attackerCoordinate = firstOccupiedTile(ray, vacatedCoordinate);
+            if (attackerCoordinate != -1
+                    && (isPieceAt(attackerCoordinate, byAlliance, PieceType.ROOK)
+                        || isPieceAt(attackerCoordinate, byAlliance, PieceType.QUEEN))
+                    && canCaptureAlongLine(attackerCoordinate, square, byAlliance, isKingAttacked)) {
+                return attackerCoordinate;
+            }
+        }
+        for (final int[] ray : MoveTables.DIAGONAL_RAYS[square]) {
+            final int attackerCoordinate = firstOccupiedTile(ray, vacatedCoordinate);
+            if (attackerCoordinate != -1 && isPieceAt(attackerCoordinate, byAlliance, PieceType.QUEEN)
+                    && canCaptureAlongLine(attackerCoordinate, square, byAlliance, isKingAttacked)) {
+                return attackerCoordinate;
+            }
+        }
+        for (final int attackerCoordinate : MoveTables.KING_ATTACKERS[square]) {
+            if (isPieceAt(attackerCoordinate, byAlliance, PieceType.KING)) {
+                return attackerCoordinate;
+            }
+        }
+        return -1;
+    }
+
+    private int firstOccupiedTile(final int[] ray, final int vacatedCoordinate) {
+        for (final int coordinate : ray) {
+            if (coordinate != vacatedCoordinate && isTileOccupied(coordinate)) {
+                return coordinate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Kings can be captured from anywhere along a line, other pieces only from the defender's wall into its
+     * castle or from the attacker's castle onto its wall.
+     */
+    private static boolean canCaptureAlongLine(final int attackerCoordinate, final int square,
+                                               final Alliance attacker, final boolean isKingAttacked) {
+        final Alliance defender = attacker.getOpponent();
+        return isKingAttacked
+                || (defender.isWallTile(attackerCoordinate) && defender.isCastleTile(square))
+                || (attacker.isCastleTile(attackerCoordinate) && attacker.isWallTile(square));
+    }
+}
@@ -1,64 +1,55 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.board;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.*;
-import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
 import com.pslonczewski.chad_chess_variant_impl.engine.player.BlackPlayer;
 import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
 import com.pslonczewski.chad_chess_variant_impl.engine.player.WhitePlayer;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class Board {
 
-    private final List<Tile> gameBoard;
-    private final Collection<Piece> whitePieces;
-    private final Collection<Piece> blackPieces;
-
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    private final BitboardPosition position;
+    // Piece lists are built on first use; counts, material and draws come from the position directly.
+    private final Supplier<Collection<Piece>> whitePieces;
+    private final Supplier<Collection<Piece>> blackPieces;
+    private final Supplier<Collection<Piece>> allPieces;
+
+    // Players, and through them the move lists, are only built when first asked for: most boards
+    // are only hashed, drawn or looked up tile by tile.
+    private final Supplier<WhitePlayer> whitePlayer;
+    private final Supplier<BlackPlayer> blackPlayer;
+    private final Alliance nextMoveMaker;
     private final long zobristHashCode;
 
     private Board(final Builder builder) {
-        this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
-
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-
-        this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
-
-        this.zobristHashCode = calculateZobristHashCode(this.whitePieces, this.blackPieces, this.currentPlayer);
-//        System.out.println("[FROM CONSTRUCTOR] Hash code for this board: " + this.zobristHashCode);
-    }
-
-    private long calculateZobristHashCode(Collection<Piece> whitePieces, Collection<Piece> blackPieces, Player currentPlayer) {
-        long hash = 0L;
-        for (final Piece piece : Iterables.concat(whitePieces, blackPieces)) {
-            int tileCoordinate = piece.getPiecePosition() * PieceType.values().length * 2;
-            int pieceAlliance = piece.getPieceAlliance() == Alliance.WHITE ? 0 : 3;
-            int pieceType = piece.getPieceType() == PieceType.ROOK ? 0
-                            : piece.getPieceType() == PieceType.QUEEN ? 1 : 2;
-            hash ^= BoardUtils.ZOBRIST_TABLE[tileCoordinate + pieceAlliance + pieceType];
-        }
-
-        return (hash ^ (currentPlayer.getAlliance().isWhite() ? 0 : 1)) /* & 0x7FFFFFFFFFFFFFFFL */;
+        this.position = builder.buildPosition();
+        this.whitePieces = Suppliers.memoize(() -> calculateActivePieces(this.position, Alliance.WHITE));
+        this.blackPieces = Suppliers.memoize(() -> calculateActivePieces(this.position, Alliance.BLACK));
+        this.allPieces = Suppliers.memoize(() -> ImmutableList.<Piece>builder()
+                .addAll(getWhitePieces()).addAll(getBlackPieces()).build());
+
+        this.whitePlayer = Suppliers.memoize(() -> new WhitePlayer(this));
+        this.blackPlayer = Suppliers.memoize(() -> new BlackPlayer(this));
+        this.nextMoveMaker = builder.nextMoveMaker;
+
+        this.zobristHashCode = builder.zobristHashCode != null
+                ? builder.zobristHashCode
+                : BoardUtils.calculateZobristHashCode(this.position, builder.nextMoveMaker);
+        assert this.zobristHashCode == BoardUtils.calculateZobristHashCode(this.position, builder.nextMoveMaker)
+                : "Incremental Zobrist hash diverged from the position";
     }
 
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
                 builder.append("\n");
@@ -68,103 +59,98 @@ public class Board {
     }
 
     public Player getWhitePlayer() {
-        return this.whitePlayer;
+        return this.whitePlayer.get();
     }
 
     public Player getBlackPlayer() {
-        return this.blackPlayer;
+        return this.blackPlayer.get();
     }
 
     public Player getCurrentPlayer() {
-        return this.currentPlayer;
+        return this.nextMoveMaker.choosePlayer(this.whitePlayer.get(), this.blackPlayer.get());
     }
 
     public Piece getPiece(final int coordinate) {
-        return this.gameBoard.get(coordinate).getPiece();
+        return this.position.getPiece(coordinate);
+    }
+
+    public boolean isTileOccupied(final int coordinate) {
+        return this.position.isTileOccupied(coordinate);
+    }
+
+    public BitboardPosition getPosition() {
+        return this.position;
     }
 
     public Collection<Piece> getBlackPieces() {
-        return this.blackPieces;
+        return this.blackPieces.get();
     }
 
     public Collection<Piece> getWhitePieces() {
-        return this.whitePieces;
+        return this.whitePieces.get();
     }
 
     public Collection<Piece> getAllPieces() {
-        return Stream.concat(this.whitePieces.stream(),
-                this.blackPieces.stream()).collect(Collectors.toList());
+        return this.allPieces.get();
     }
 
-    public boolean isADraw() {
-        return this.getAllPieces().size() == 2;
+    public int getPieceCount() {
+        return this.position.getPieceCount();
     }
 
-    private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
-
-        final List<Move> legalMoves = new ArrayList<>();
+    public int getMaterial(final Alliance alliance) {
+        return this.position.getMaterial(alliance);
+    }
 
-        for (final Piece piece : pieces) {
-            legalMoves.addAll(piece.calculateLegalMoves(this));
-        }
+    public int getMaterialSignature() {
+        return this.position.getMaterialSignature();
+    }
 
-        return ImmutableList.copyOf(legalMoves);
+    public boolean isADraw() {
+        return this.position.getPieceCount() == 2;
     }
 
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
+    private static Collection<Piece> calculateActivePieces(final BitboardPosition position, final Alliance alliance) {
 
-        final List<Piece> activePieces = new ArrayList<>();
+        final Piece[] activePieces = new Piece[position.getPieceCount(alliance)];
 
-        for (final Tile tile : gameBoard) {
-            if (tile.isTileOccupied()) {
-                final Piece piece = tile.getPiece();
-                if (piece.getPieceAlliance() == alliance) {
-                    activePieces.add(piece);
-                }
-            }
+        int i = 0;
+        for (int coordinate = position.nextPiecePosition(alliance, 0); coordinate != -1;
+             coordinate = position.nextPiecePosition(alliance, coordinate + 1)) {
+            activePieces[i++] = position.getPiece(coordinate);
         }
 
         return ImmutableList.copyOf(activePieces);
     }
 
     public Tile getTile(final int tileCoordinate) {
-        return this.gameBoard.get(tileCoordinate);
-    }
-
-    private static List<Tile> createGameBoard(final Builder boardBuilder) {
-        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
-
-        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            tiles[i] = Tile.createTile(i, boardBuilder.boardConfig.get(i));
-        }
-
-        return ImmutableList.copyOf(tiles);
+        return Tile.createTile(tileCoordinate, this.position.getPiece(tileCoordinate));
     }
 
     public static Board createStandardBoard() {
         final Builder builder = new Builder();
         // Black Layout
-        builder.setPiece(new Rook(Alliance.BLACK, 31));
-        builder.setPiece(new Rook(Alliance.BLACK, 32));
-        builder.setPiece(new Rook(Alliance.BLACK, 33));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.BLACK, 45));
-        builder.setPiece(new Rook(Alliance.BLACK, 55));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.BLACK, 57));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 32));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 43));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 45));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 55));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 56));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 57));
 
 
         //White Layout
-        builder.setPiece(new Rook(Alliance.WHITE, 86));
-        builder.setPiece(new Rook(Alliance.WHITE, 87));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new Rook(Alliance.WHITE, 98));
-        builder.setPiece(new King(Alliance.WHITE, 99));
-        builder.setPiece(new Rook(Alliance.WHITE, 100));
-        builder.setPiece(new Rook(Alliance.WHITE, 110));
-        builder.setPiece(new Rook(Alliance.WHITE, 111));
-        builder.setPiece(new Rook(Alliance.WHITE, 112));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 86));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 87));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 88));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 98));
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 100));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 110));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 111));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 112));
 
         builder.setMoveMaker(Alliance.WHITE);
 
@@ -174,22 +160,22 @@ public class Board {
     public static Board createProblem1Board() {
         final Builder builder = new Builder();
 
-        builder.setPiece(new Rook(Alliance.BLACK, 26));
-        builder.setPiece(new Rook(Alliance.BLACK, 28));
-        builder.setPiece(new Rook(Alliance.BLACK, 33));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.BLACK, 57));
-        builder.setPiece(new Rook(Alliance.WHITE, 63));
-        builder.setPiece(new Rook(Alliance.WHITE, 86));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new King(Alliance.WHITE, 98));
-        builder.setPiece(new Rook(Alliance.WHITE, 100));
-        builder.setPiece(new Rook(Alliance.BLACK, 105));
-        builder.setPiece(new Rook(Alliance.WHITE, 110));
-        builder.setPiece(new Rook(Alliance.WHITE, 114));
-        builder.setPiece(new Rook(Alliance.WHITE, 115));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 26));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 28));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 43));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 56));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 57));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 63));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 86));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 88));
+        builder.setPiece(King.createKing(Alliance.WHITE, 98));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 100));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 105));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 110));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 114));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 115));
 
         builder.setMoveMaker(Alliance.WHITE);
 
@@ -199,24 +185,24 @@ public class Board {
     public static Board createProblem2Board() {
         Board.Builder builder = new Board.Builder();
 
-        builder.setPiece(new Rook(Alliance.WHITE, 7));
-        builder.setPiece(new Rook(Alliance.BLACK, 8));
-        builder.setPiece(new Rook(Alliance.BLACK, 31));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.WHITE, 50));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.WHITE, 62));
-        builder.setPiece(new Rook(Alliance.BLACK, 77));
-        builder.setPiece(new Rook(Alliance.WHITE, 87));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new Rook(Alliance.BLACK, 93));
-        builder.setPiece(new Rook(Alliance.WHITE, 102));
-        builder.setPiece(new King(Alliance.WHITE, 111));
-        builder.setPiece(new Rook(Alliance.WHITE, 112));
-        builder.setPiece(new Rook(Alliance.BLACK, 114));
-        builder.setPiece(new Rook(Alliance.WHITE, 123));
-        builder.setPiece(new Rook(Alliance.BLACK, 129));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 7));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 8));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 43));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 50));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 56));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 62));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 77));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 87));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 88));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 93));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 102));
+        builder.setPiece(King.createKing(Alliance.WHITE, 111));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 112));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 114));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 123));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 129));
 
         builder.setMoveMaker(Alliance.WHITE);
 
@@ -226,20 +212,20 @@ public class Board {
     public static Board createProblem3Board() {
         Board.Builder builder = new Board.Builder();
 
-        builder.setPiece(new Rook(Alliance.BLACK, 26));
-        builder.setPiece(new Rook(Alliance.BLACK, 32));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.WHITE, 50));
-        builder.setPiece(new Rook(Alliance.BLACK, 55));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.WHITE, 75));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new Rook(Alliance.BLACK, 92));
-        builder.setPiece(new King(Alliance.WHITE, 99));
-        builder.setPiece(new Rook(Alliance.WHITE, 100));
-        builder.setPiece(new Rook(Alliance.WHITE, 115));
-        builder.setPiece(new Rook(Alliance.WHITE, 117));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 26));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 32));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 43));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 50));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 55));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 56));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 75));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 88));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 92));
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 100));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 115));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 117));
 
         builder.setMoveMaker(Alliance.WHITE);
 
@@ -248,7 +234,7 @@ public class Board {
 
     public Iterable<Move> getAllLegalMoves() {
         return Iterables.unmodifiableIterable(
-                Iterables.concat(this.whitePlayer.getLegalMoves(), this.blackPlayer.getLegalMoves())
+                Iterables.concat(getWhitePlayer().getLegalMoves(), getBlackPlayer().getLegalMoves())
         );
     }
 
@@ -258,15 +244,43 @@ public class Board {
 
     public static class Builder {
 
-        Map<Integer, Piece> boardConfig;
+        // The position is handed to the board on build() without a copy; a builder that is changed
+        // afterwards, or that starts from a board, copies it on its first change.
+        BitboardPosition boardConfig;
+        boolean isBoardConfigShared;
         Alliance nextMoveMaker;
+        Long zobristHashCode;
 
         public Builder() {
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new BitboardPosition();
+        }
+
+        /**
+         * Starts from the pieces of {@code board}, so a move only has to change the tiles it touches.
+         */
+        Builder(final Board board) {
+            this.boardConfig = board.position;
+            this.isBoardConfigShared = true;
+            this.nextMoveMaker = board.nextMoveMaker;
+        }
+
+        private BitboardPosition getBoardConfigForChange() {
+            if (this.isBoardConfigShared) {
+                this.boardConfig = new BitboardPosition(this.boardConfig);
+                this.isBoardConfigShared = false;
+            }
+            return this.boardConfig;
         }
 
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            getBoardConfigForChange().put(piece);
+            return this;
+        }
+
+        Builder removePiece(final int coordinate) {
+            if (this.boardConfig.getPiece(coordinate) != null) {
+                getBoardConfigForChange().remove(coordinate);
+            }
             return this;
         }
 
@@ -275,6 +289,20 @@ public class Board {
             return this;
         }
 
+        /**
+         * Hash of the position being built, derived from the previous board by the move that produced it.
+         * Boards built without one hash all their pieces instead.
+         */
+        Builder setZobristHashCode(final long zobristHashCode) {
+            this.zobristHashCode = zobristHashCode;
+            return this;
+        }
+
+        private BitboardPosition buildPosition() {
+            this.isBoardConfigShared = true;
+            return this.boardConfig;
+        }
+
         public Board build() {
             return new Board(this);
         }
@@ -1,7 +1,15 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.board;
 
 
-public record BoardState(int depth, int score, NodeType nodeType) {
+/**
+ * A transposition table entry. {@code bestMove} is the {@link EncodedMove encoded} move that produced the
+ * score, or {@link EncodedMove#NULL_MOVE} when no move did (leaves and fail-low nodes).
+ */
+public record BoardState(int depth, int score, NodeType nodeType, int bestMove) {
+
+    public BoardState(int depth, int score, NodeType nodeType) {
+        this(depth, score, nodeType, EncodedMove.NULL_MOVE);
+    }
 
     public enum NodeType {
         LOWER,
@@ -10,6 +18,19 @@ public record BoardState(int depth, int score, NodeType nodeType) {
         NONE
     }
 
+    /**
+     * Whether the remembered score decides the position within the window: an exact score always does,
+     * a lower bound only at or above beta and an upper bound only at or below alpha.
+     */
+    public boolean isScoreUsable(final int alpha, final int beta) {
+        return switch (this.nodeType) {
+            case EXACT -> true;
+            case LOWER -> this.score >= beta;
+            case UPPER -> this.score <= alpha;
+            case NONE -> false;
+        };
+    }
+
     public static NodeType getNodeType(int alpha, int beta, int score) {
         if (score <= alpha) return NodeType.UPPER;
         if (score >= beta) return NodeType.LOWER;
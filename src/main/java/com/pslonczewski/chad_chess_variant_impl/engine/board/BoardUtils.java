@@ -1,6 +1,8 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.board;
 
 import com.google.common.collect.ImmutableMap;
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
 
 import java.util.*;
@@ -32,13 +34,34 @@ public class BoardUtils {
     public static final boolean[] WHITE_WALL = initWall(-1);
     public static final boolean[] BLACK_WALL = initWall(1);
 
+    public static final Bitboard FIRST_COLUMN_MASK = Bitboard.of(FIRST_COLUMN);
+    public static final Bitboard SECOND_COLUMN_MASK = Bitboard.of(SECOND_COLUMN);
+    public static final Bitboard SEVENTH_COLUMN_MASK = Bitboard.of(SEVENTH_COLUMN);
+    public static final Bitboard EIGHTH_COLUMN_MASK = Bitboard.of(EIGHTH_COLUMN);
+    public static final Bitboard TWELFTH_COLUMN_MASK = Bitboard.of(TWELFTH_COLUMN);
+
+    public static final Bitboard WHITE_CASTLE_MASK = Bitboard.of(WHITE_CASTLE);
+    public static final Bitboard BLACK_CASTLE_MASK = Bitboard.of(BLACK_CASTLE);
+    public static final Bitboard CASTLES_MASK = WHITE_CASTLE_MASK.or(BLACK_CASTLE_MASK);
+
+    public static final Bitboard WHITE_WALL_MASK = Bitboard.of(WHITE_WALL);
+    public static final Bitboard BLACK_WALL_MASK = Bitboard.of(BLACK_WALL);
+
     public static final String[] ALGEBRAIC_NOTATION = initializeAlgebraicNotation();
     public static final Map<String, Integer> POSITION_TO_COORDINATE = initializePositionToCoordinateMap();
 
     public static final int NUM_TILES = 144;
     public static final int NUM_TILES_PER_ROW = 12;
 
-    public static long[] ZOBRIST_TABLE = initZobristTable(PieceType.values().length * 2 * NUM_TILES);
+    /** Seed of the random Zobrist keys; persisted transposition tables are only valid for the same keys. */
+    public static final long ZOBRIST_SEED = 31;
+
+    private static final int NUM_ZOBRIST_PIECE_KEYS = PieceType.values().length * 2 * NUM_TILES;
+    private static final long[] ZOBRIST_KEYS = initZobristTable(NUM_ZOBRIST_PIECE_KEYS + 1);
+
+    public static final long[] ZOBRIST_TABLE = Arrays.copyOf(ZOBRIST_KEYS, NUM_ZOBRIST_PIECE_KEYS);
+    /** XORed into the hash of every position with black to move. */
+    public static final long ZOBRIST_BLACK_TO_MOVE = ZOBRIST_KEYS[NUM_ZOBRIST_PIECE_KEYS];
 
     private BoardUtils() {
         throw new RuntimeException("BoardUtils class cannot be instantiated!");
@@ -46,7 +69,7 @@ public class BoardUtils {
 
     private static long[] initZobristTable(final int size) {
         Set<Long> uniqueValues = new HashSet<>();
-        Random random = new Random(31);
+        Random random = new Random(ZOBRIST_SEED);
 
         int min = 2;
 
@@ -176,6 +199,34 @@ public class BoardUtils {
         return ALGEBRAIC_NOTATION[coordinate];
     }
 
+    public static long zobristKey(final Piece piece) {
+        return zobristKey(piece.getPiecePosition(), piece.getPieceAlliance(), piece.getPieceType());
+    }
+
+    public static long zobristKey(final int coordinate, final Alliance alliance, final PieceType pieceType) {
+        return ZOBRIST_TABLE[coordinate * PieceType.values().length * 2
+                + alliance.ordinal() * PieceType.values().length + pieceType.ordinal()];
+    }
+
+    public static long zobristSideKey(final Alliance sideToMove) {
+        return sideToMove.isWhite() ? 0L : ZOBRIST_BLACK_TO_MOVE;
+    }
+
+    /**
+     * Full recomputation of the Zobrist hash. Boards and search positions keep their hash up to date
+     * move by move; this is the reference they are checked against when assertions are enabled.
+     */
+    public static long calculateZobristHashCode(final BitboardPosition position, final Alliance sideToMove) {
+        long hash = 0L;
+        for (final Alliance alliance : Alliance.values()) {
+            for (int coordinate = position.nextPiecePosition(alliance, 0); coordinate != -1;
+                 coordinate = position.nextPiecePosition(alliance, coordinate + 1)) {
+                hash ^= zobristKey(position.getPiece(coordinate));
+            }
+        }
+        return hash ^ zobristSideKey(sideToMove);
+    }
+
     public static boolean isEndGameScenario(final Board board) {
         return board.getCurrentPlayer().isInCheckMate()
                 || board.getCurrentPlayer().isInStaleMate()
@@ -0,0 +1,113 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+
+/**
+ * A move packed into one {@code int}, used by the search instead of {@link Move} objects:
+ * <pre>
+ *  bits  0-7   current coordinate
+ *  bits  8-15  destination coordinate
+ *  bits 16-17  moved piece type (ordinal)
+ *  bits 18-19  captured piece type (ordinal + 1, 0 when the move is not an attack)
+ *  bit  20     rook promotion
+ *  bit  21     moved piece alliance (set for black)
+ * </pre>
+ * No move starts and ends on the same tile, so {@link #NULL_MOVE} (0) never collides with a real move.
+ * Conversion to and from {@link Move} happens only where a search hands its result back to the caller.
+ */
+public final class EncodedMove {
+
+    public static final int NULL_MOVE = 0;
+
+    private static final int COORDINATE_MASK = 0xFF;
+    private static final int DESTINATION_SHIFT = 8;
+    private static final int MOVED_TYPE_SHIFT = 16;
+    private static final int CAPTURED_TYPE_SHIFT = 18;
+    private static final int TYPE_MASK = 0x3;
+    private static final int PROMOTION_FLAG = 1 << 20;
+    private static final int BLACK_FLAG = 1 << 21;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private EncodedMove() {
+        throw new RuntimeException("EncodedMove class cannot be instantiated!");
+    }
+
+    public static int encode(final int currentCoordinate, final int destinationCoordinate,
+                             final Piece movedPiece, final Piece attackedPiece, final boolean isPromotion) {
+        int move = currentCoordinate
+                | destinationCoordinate << DESTINATION_SHIFT
+                | movedPiece.getPieceType().ordinal() << MOVED_TYPE_SHIFT;
+        if (attackedPiece != null) {
+            move |= (attackedPiece.getPieceType().ordinal() + 1) << CAPTURED_TYPE_SHIFT;
+        }
+        if (isPromotion) {
+            move |= PROMOTION_FLAG;
+        }
+        if (movedPiece.getPieceAlliance().isBlack()) {
+            move |= BLACK_FLAG;
+        }
+        return move;
+    }
+
+    public static int getCurrentCoordinate(final int move) {
+        return move & COORDINATE_MASK;
+    }
+
+    public static int getDestinationCoordinate(final int move) {
+        return (move >>> DESTINATION_SHIFT) & COORDINATE_MASK;
+    }
+
+    public static PieceType getMovedPieceType(final int move) {
+        return PIECE_TYPES[(move >>> MOVED_TYPE_SHIFT) & TYPE_MASK];
+    }
+
+    public static Alliance getMovedPieceAlliance(final int move) {
+        return (move & BLACK_FLAG) != 0 ? Alliance.BLACK : Alliance.WHITE;
+    }
+
+    public static boolean isAttack(final int move) {
+        return ((move >>> CAPTURED_TYPE_SHIFT) & TYPE_MASK) != 0;
+    }
+
+    /**
+     * @return the type of the captured piece, or null when the move is not an attack
+     */
+    public static PieceType getAttackedPieceType(final int move) {
+        final int capturedType = (move >>> CAPTURED_TYPE_SHIFT) & TYPE_MASK;
+        return capturedType == 0 ? null : PIECE_TYPES[capturedType - 1];
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (move & PROMOTION_FLAG) != 0;
+    }
+
+    public static int fromMove(final Move move) {
+        return encode(move.getCurrentCoordinate(), move.getDestinationCoordinate(), move.getMovedPiece(),
+                move.getAttackedPiece(), move.isPromotion());
+    }
+
+    /**
+     * The {@link Move} object for an encoded move of a piece standing on {@code board}.
+     */
+    public static Move toMove(final Board board, final int move) {
+        final Piece movedPiece = board.getPiece(getCurrentCoordinate(move));
+        final int destinationCoordinate = getDestinationCoordinate(move);
+        final Move decodedMove = isAttack(move)
+                ? new MajorAttackMove(board, movedPiece, destinationCoordinate, board.getPiece(destinationCoordinate))
+                : new MajorMove(board, movedPiece, destinationCoordinate);
+        return isPromotion(move) ? new RookPromotion(decodedMove) : decodedMove;
+    }
+
+    public static String toString(final int move) {
+        if (move == NULL_MOVE) {
+            return "NULL_MOVE";
+        }
+        return BoardUtils.getPositionAtCoordinate(getCurrentCoordinate(move)).toUpperCase()
+                + (isAttack(move) ? "x" : "-")
+                + BoardUtils.getPositionAtCoordinate(getDestinationCoordinate(move)).toUpperCase()
+                + (isPromotion(move) ? " Q" + (isAttack(move) ? "+" : "") : "");
+    }
+}
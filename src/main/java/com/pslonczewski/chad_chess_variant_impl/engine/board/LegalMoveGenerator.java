@@ -0,0 +1,187 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * Tells which moves of one side do not leave its king attacked, without executing them. {@link #reset}
+ * scans the lines through the king once, finding the pieces that give check and the pieces pinned to the
+ * king by an enemy rook or queen. After that a move is legal when:
+ * <ul>
+ *     <li>it is a king move to a tile no enemy piece attacks once the king has left its tile,</li>
+ *     <li>otherwise, with at most one checker, a pinned piece stays on its pin line and, in check, the move
+ *     captures the checker or blocks the line between the checker and the king.</li>
+ * </ul>
+ * Chad has no en passant or castling, so a move other than the king's can only expose the king by leaving
+ * a pin line. The generator keeps scratch state and is meant to be reused, one per searcher.
+ */
+public final class LegalMoveGenerator {
+
+    private static final int NO_DIRECTION = -1;
+
+    private final MoveList pieceMoves;
+    private final int[] pinDirections;
+    private final int[] pinnedPieces;
+    private int pinnedPieceCount;
+
+    private BitboardPosition position;
+    private Alliance alliance;
+    private int kingPosition;
+    private int checkerCount;
+    private int checker;
+    private int checkDirection;
+
+    public LegalMoveGenerator() {
+        this.pieceMoves = new MoveList();
+        this.pinDirections = new int[BoardUtils.NUM_TILES];
+        this.pinnedPieces = new int[MoveTables.QUEEN_DIRECTIONS.length];
+        Arrays.fill(this.pinDirections, NO_DIRECTION);
+    }
+
+    /**
+     * Finds checkers and pinned pieces of {@code alliance} on {@code position}. Has to be called again
+     * whenever the position changes.
+     */
+    public void reset(final BitboardPosition position, final Alliance alliance) {
+        for (int i = 0; i < this.pinnedPieceCount; i++) {
+            this.pinDirections[this.pinnedPieces[i]] = NO_DIRECTION;
+        }
+        this.pinnedPieceCount = 0;
+        this.checkerCount = 0;
+        this.checker = -1;
+        this.checkDirection = NO_DIRECTION;
+        this.position = position;
+        this.alliance = alliance;
+        this.kingPosition = position.getKingPosition(alliance);
+        if (this.kingPosition == -1) {
+            return;
+        }
+
+        final Alliance opponent = alliance.getOpponent();
+        for (int direction = 0; direction < MoveTables.QUEEN_DIRECTIONS.length; direction++) {
+            final boolean isOrthogonal = MoveTables.isOrthogonalQueenDirection(direction);
+            int shieldCoordinate = -1;
+            for (final int coordinate : MoveTables.QUEEN_RAYS[this.kingPosition][direction]) {
+                if (!position.isTileOccupied(coordinate)) {
+                    continue;
+                }
+                if (position.isTileOccupiedBy(coordinate, alliance)) {
+                    if (shieldCoordinate != -1) {
+                        break;
+                    }
+                    shieldCoordinate = coordinate;
+                    continue;
+                }
+                if (position.isPieceAt(coordinate, opponent, PieceType.QUEEN)
+                        || (isOrthogonal && position.isPieceAt(coordinate, opponent, PieceType.ROOK))) {
+                    if (shieldCoordinate == -1) {
+                        addChecker(coordinate, direction);
+                    } else {
+                        this.pinDirections[shieldCoordinate] = direction;
+                        this.pinnedPieces[this.pinnedPieceCount++] = shieldCoordinate;
+                    }
+                }
+                break;
+            }
+        }
+        for (final int coordinate : MoveTables.KING_ATTACKERS[this.kingPosition]) {
+            if (position.isPieceAt(coordinate, opponent, PieceType.KING)) {
+                addChecker(coordinate, NO_DIRECTION);
+            }
+        }
+    }
+
+    private void addChecker(final int coordinate, final int direction) {
+        this.checkerCount++;
+        this.checker = coordinate;
+        this.checkDirection = direction;
+    }
+
+    public boolean isInCheck() {
+        return this.checkerCount > 0;
+    }
+
+    /**
+     * Whether a pseudo-legal move of the side given to {@link #reset} keeps its king safe.
+     */
+    public boolean isLegal(final int move) {
+        if (this.kingPosition == -1) {
+            return true;
+        }
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        if (currentCoordinate == this.kingPosition) {
+            return !this.position.isKingSquareAttacked(destinationCoordinate, this.alliance.getOpponent(),
+                    this.kingPosition);
+        }
+        if (this.checkerCount > 1) {
+            return false;
+        }
+        final byte[] directionsFromKing = MoveTables.QUEEN_DIRECTION_INDEX[this.kingPosition];
+        final int pinDirection = this.pinDirections[currentCoordinate];
+        if (pinDirection != NO_DIRECTION && directionsFromKing[destinationCoordinate] != pinDirection) {
+            return false;
+        }
+        if (this.checkerCount == 1) {
+            return destinationCoordinate == this.checker
+                    || (this.checkDirection != NO_DIRECTION
+                        && directionsFromKing[destinationCoordinate] == this.checkDirection
+                        && MoveTables.QUEEN_DIRECTION_INDEX[destinationCoordinate][this.checker] == this.checkDirection);
+        }
+        return true;
+    }
+
+    /**
+     * Appends the legal moves of the side given to {@link #reset}, in the order of
+     * {@link SearchBoard#generateMoves()} with the illegal ones left out.
+     */
+    public void generateLegalMoves(final MoveList moves) {
+        for (int coordinate = this.position.nextPiecePosition(this.alliance, 0); coordinate != -1;
+             coordinate = this.position.nextPiecePosition(this.alliance, coordinate + 1)) {
+            if (this.checkerCount > 1 && coordinate != this.kingPosition) {
+                continue;
+            }
+            this.pieceMoves.clear();
+            this.position.getPiece(coordinate).generateMoves(this.position, this.pieceMoves);
+            for (int i = 0; i < this.pieceMoves.size(); i++) {
+                final int move = this.pieceMoves.get(i);
+                if (isLegal(move)) {
+                    moves.add(move);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the side given to {@link #reset} has any legal move. Stops at the first one, looking at the
+     * king's moves first.
+     */
+    public boolean hasLegalMove() {
+        if (this.kingPosition != -1 && hasLegalMove(this.kingPosition)) {
+            return true;
+        }
+        if (this.checkerCount > 1) {
+            return false;
+        }
+        for (int coordinate = this.position.nextPiecePosition(this.alliance, 0); coordinate != -1;
+             coordinate = this.position.nextPiecePosition(this.alliance, coordinate + 1)) {
+            if (coordinate != this.kingPosition && hasLegalMove(coordinate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasLegalMove(final int coordinate) {
+        this.pieceMoves.clear();
+        this.position.getPiece(coordinate).generateMoves(this.position, this.pieceMoves);
+        for (int i = 0; i < this.pieceMoves.size(); i++) {
+            if (isLegal(this.pieceMoves.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.board;
 
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
 
 public abstract class Move {
 
@@ -70,21 +71,30 @@ public abstract class Move {
         return null;
     }
 
+    public boolean isPromotion() {
+        return false;
+    }
+
     public Board execute() {
-        final Board.Builder builder = new Board.Builder();
+        return execute(this.movedPiece.movePiece(this));
+    }
 
-        for (final Piece piece : this.board.getCurrentPlayer().getActivePieces()) {
-            if (!this.movedPiece.equals(piece)) {
-                builder.setPiece(piece);
-            }
-        }
+    /**
+     * Builds the board after this move from the current one, changing only the tiles the move touches:
+     * the moved piece leaves its tile and {@code placedPiece} replaces whatever stood on the destination.
+     */
+    protected Board execute(final Piece placedPiece) {
+        final Board.Builder builder = new Board.Builder(this.board);
+        builder.removePiece(getCurrentCoordinate());
+        builder.setPiece(placedPiece);
+        builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
 
-        for (final Piece piece : this.board.getCurrentPlayer().getOpponent().getActivePieces()) {
-            builder.setPiece(piece);
+        long zobristHashCode = this.board.getZobristHashCode() ^ BoardUtils.ZOBRIST_BLACK_TO_MOVE
+                ^ BoardUtils.zobristKey(this.movedPiece) ^ BoardUtils.zobristKey(placedPiece);
+        if (isAttack()) {
+            zobristHashCode ^= BoardUtils.zobristKey(getAttackedPiece());
         }
-        // move the moved piece
-        builder.setPiece(this.movedPiece.movePiece(this));
-        builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+        builder.setZobristHashCode(zobristHashCode);
 
         return builder.build();
     }
@@ -102,13 +112,22 @@ public abstract class Move {
         public static Move createMove(final Board board, final int currentCoordinate,
                                       final int destinationCoordinate) {
 
-            for (final Move move : board.getAllLegalMoves()) {
-                if (move.getCurrentCoordinate() == currentCoordinate
-                        && move.getDestinationCoordinate() == destinationCoordinate) {
-                    return move;
-                }
+            final Piece movedPiece = board.getPiece(currentCoordinate);
+            if (movedPiece == null) {
+                return NULL_MOVE;
             }
-            return NULL_MOVE;
+            final Player player = movedPiece.getPieceAlliance().isWhite()
+                    ? board.getWhitePlayer() : board.getBlackPlayer();
+            final Move move = player.getLegalMove(currentCoordinate, destinationCoordinate);
+            return move != null ? move : NULL_MOVE;
+        }
+
+        /**
+         * The move on {@code board} matching an {@link EncodedMove encoded move}, e.g. the result of a search.
+         */
+        public static Move createMove(final Board board, final int encodedMove) {
+            return createMove(board, EncodedMove.getCurrentCoordinate(encodedMove),
+                    EncodedMove.getDestinationCoordinate(encodedMove));
         }
     }
 
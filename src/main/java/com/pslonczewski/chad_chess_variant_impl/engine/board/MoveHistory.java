@@ -0,0 +1,284 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+
+import java.util.Arrays;
+
+/**
+ * What a search has learned about the quiet moves that caused beta cutoffs, used by {@link MovePicker} to
+ * order the quiet moves of a node:
+ * <ul>
+ *     <li>two killer moves per ply from the root, the last quiet moves that cut off a node at that ply;</li>
+ *     <li>a butterfly history table indexed by alliance, origin and destination, raised by the remaining
+ *     depth squared on every quiet cutoff, lowered as much for the quiet moves searched before it in vain,
+ *     and halved by {@link #age()} between iterations;</li>
+ *     <li>a countermove per last move of the opponent, the quiet move that cut off the node it led to.</li>
+ * </ul>
+ * Entries only order moves and are checked against the position before they are played, so searchers on
+ * other threads may share one history: a racing update costs ordering, not correctness.
+ * <p>
+ * A search that should not depend on thread timing gives each parallel subtree a {@link #fork()} instead:
+ * it reads the history as it was when forked, keeps its own changes, and hands them back with
+ * {@link #merge(MoveHistory)} once the subtree is searched.
+ */
+public final class MoveHistory {
+
+    public static final int MAX_PLY = 128;
+
+    // History scores are halved once one of them gets this far from 0, so that they never overflow
+    private static final int MAX_HISTORY_SCORE = 1 << 24;
+
+    private final MoveHistory parent;
+    private final int[] killerMoves;
+    // Plies whose killer moves were stored to since the fork
+    private final boolean[] isKillerStored;
+    // The tables of a history that was not forked
+    private final int[] historyScores;
+    private final int[] counterMoves;
+    // What a fork changed in the tables of its parent: history score bonuses and countermoves by index
+    private final ChangeMap historyScoreChanges;
+    private final ChangeMap counterMoveChanges;
+
+    public MoveHistory() {
+        this.parent = null;
+        this.killerMoves = new int[MAX_PLY * 2];
+        this.isKillerStored = new boolean[MAX_PLY];
+        this.historyScores = new int[2 * BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+        this.counterMoves = new int[2 * BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+        this.historyScoreChanges = null;
+        this.counterMoveChanges = null;
+    }
+
+    private MoveHistory(final MoveHistory parent) {
+        this.parent = parent;
+        this.killerMoves = parent.killerMoves.clone();
+        this.isKillerStored = new boolean[MAX_PLY];
+        this.historyScores = null;
+        this.counterMoves = null;
+        this.historyScoreChanges = new ChangeMap();
+        this.counterMoveChanges = new ChangeMap();
+    }
+
+    /**
+     * A history that starts out as this one and keeps its changes to itself until they are
+     * {@link #merge(MoveHistory) merged} back. Only the killer moves are copied, so forking is cheap; this
+     * history must not change while the fork is in use.
+     */
+    public MoveHistory fork() {
+        return new MoveHistory(this);
+    }
+
+    /**
+     * Applies the changes of a {@link #fork()} of this history, as if its cutoffs had been stored here.
+     */
+    public void merge(final MoveHistory fork) {
+        if (fork.parent != this) {
+            throw new RuntimeException("Only a fork of this history can be merged into it!");
+        }
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            if (fork.isKillerStored[ply]) {
+                storeKiller(ply, fork.killerMoves[ply * 2 + 1]);
+                storeKiller(ply, fork.killerMoves[ply * 2]);
+            }
+        }
+        for (int i = 0; i < fork.historyScoreChanges.size; i++) {
+            addHistoryScore(fork.historyScoreChanges.getKey(i), fork.historyScoreChanges.getValue(i));
+        }
+        for (int i = 0; i < fork.counterMoveChanges.size; i++) {
+            setCounterMove(fork.counterMoveChanges.getKey(i), fork.counterMoveChanges.getValue(i));
+        }
+    }
+
+    public int getFirstKiller(final int ply) {
+        return ply < MAX_PLY ? this.killerMoves[ply * 2] : EncodedMove.NULL_MOVE;
+    }
+
+    public int getSecondKiller(final int ply) {
+        return ply < MAX_PLY ? this.killerMoves[ply * 2 + 1] : EncodedMove.NULL_MOVE;
+    }
+
+    public int getHistoryScore(final Alliance alliance, final int move) {
+        return getHistoryScore(getIndex(alliance, move));
+    }
+
+    private int getHistoryScore(final int index) {
+        return this.parent == null
+                ? this.historyScores[index]
+                : this.parent.getHistoryScore(index) + this.historyScoreChanges.get(index);
+    }
+
+    /**
+     * @param lastMove the move of the opponent that led to the node, or {@link EncodedMove#NULL_MOVE}
+     * @return the quiet move that last refuted {@code lastMove}, or {@link EncodedMove#NULL_MOVE}
+     */
+    public int getCounterMove(final Alliance alliance, final int lastMove) {
+        return lastMove != EncodedMove.NULL_MOVE
+                ? getCounterMove(getIndex(alliance.getOpponent(), lastMove))
+                : EncodedMove.NULL_MOVE;
+    }
+
+    private int getCounterMove(final int index) {
+        if (this.parent == null) {
+            return this.counterMoves[index];
+        }
+        // Countermoves are quiet moves, never NULL_MOVE, so NULL_MOVE means the fork did not set one
+        final int counterMove = this.counterMoveChanges.get(index);
+        return counterMove != EncodedMove.NULL_MOVE ? counterMove : this.parent.getCounterMove(index);
+    }
+
+    /**
+     * Remembers a move that caused a beta cutoff. Attacks are ordered by the pieces they take, so only
+     * quiet moves are stored.
+     *
+     * @param alliance the side that played the move
+     * @param ply distance of the node from the root
+     * @param depth remaining depth of the node
+     * @param lastMove the move of the opponent that led to the node, or {@link EncodedMove#NULL_MOVE}
+     */
+    public void storeCutoff(final Alliance alliance, final int move, final int ply, final int depth,
+                            final int lastMove) {
+        if (EncodedMove.isAttack(move)) {
+            return;
+        }
+
+        if (ply < MAX_PLY) {
+            storeKiller(ply, move);
+        }
+
+        addHistoryScore(getIndex(alliance, move), depth * depth);
+
+        if (lastMove != EncodedMove.NULL_MOVE) {
+            setCounterMove(getIndex(alliance.getOpponent(), lastMove), move);
+        }
+    }
+
+    private void storeKiller(final int ply, final int move) {
+        this.isKillerStored[ply] = true;
+        if (move != this.killerMoves[ply * 2]) {
+            this.killerMoves[ply * 2 + 1] = this.killerMoves[ply * 2];
+            this.killerMoves[ply * 2] = move;
+        }
+    }
+
+    private void setCounterMove(final int index, final int move) {
+        if (this.parent == null) {
+            this.counterMoves[index] = move;
+        } else {
+            this.counterMoveChanges.put(index, move);
+        }
+    }
+
+    /**
+     * Lowers the history score of a quiet move that was searched before the move causing a cutoff.
+     */
+    public void storeFailure(final Alliance alliance, final int move, final int depth) {
+        addHistoryScore(getIndex(alliance, move), -depth * depth);
+    }
+
+    /**
+     * A fork only adds up its bonuses; they are checked against {@link #MAX_HISTORY_SCORE} once merged.
+     */
+    private void addHistoryScore(final int index, final int bonus) {
+        if (this.parent != null) {
+            this.historyScoreChanges.put(index, this.historyScoreChanges.get(index) + bonus);
+            return;
+        }
+        this.historyScores[index] += bonus;
+        if (Math.abs(this.historyScores[index]) >= MAX_HISTORY_SCORE) {
+            age();
+        }
+    }
+
+    /**
+     * Halves every history score, so that cutoffs of the iterations to come outweigh the older ones.
+     * Only a history that was not forked is aged.
+     */
+    public void age() {
+        if (this.parent != null) {
+            throw new RuntimeException("A forked history cannot be aged!");
+        }
+        for (int i = 0; i < this.historyScores.length; i++) {
+            this.historyScores[i] >>= 1;
+        }
+    }
+
+    private static int getIndex(final Alliance alliance, final int move) {
+        return ((alliance.isWhite() ? 0 : BoardUtils.NUM_TILES) + EncodedMove.getCurrentCoordinate(move))
+                * BoardUtils.NUM_TILES + EncodedMove.getDestinationCoordinate(move);
+    }
+
+    /**
+     * Values by table index, 0 for an index not put yet. Open addressing over a table that doubles when
+     * half full; the entries are also kept in the order they were first put, to be merged in that order.
+     */
+    private static final class ChangeMap {
+
+        private static final int INITIAL_CAPACITY = 32;
+
+        // Slot -> entry + 1, 0 for an empty slot
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int[] keys = new int[INITIAL_CAPACITY / 2];
+        private int[] values = new int[INITIAL_CAPACITY / 2];
+        private int size;
+
+        private int get(final int key) {
+            final int entry = findEntry(key);
+            return entry != -1 ? this.values[entry] : 0;
+        }
+
+        private void put(final int key, final int value) {
+            final int entry = findEntry(key);
+            if (entry != -1) {
+                this.values[entry] = value;
+                return;
+            }
+            if (this.size == this.keys.length) {
+                grow();
+            }
+            this.keys[this.size] = key;
+            this.values[this.size] = value;
+            this.size++;
+            insertSlot(this.size - 1);
+        }
+
+        private int getKey(final int entry) {
+            return this.keys[entry];
+        }
+
+        private int getValue(final int entry) {
+            return this.values[entry];
+        }
+
+        private int findEntry(final int key) {
+            final int mask = this.slots.length - 1;
+            for (int slot = hash(key) & mask; this.slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.keys[this.slots[slot] - 1] == key) {
+                    return this.slots[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        private void insertSlot(final int entry) {
+            final int mask = this.slots.length - 1;
+            int slot = hash(this.keys[entry]) & mask;
+            while (this.slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.slots[slot] = entry + 1;
+        }
+
+        private void grow() {
+            this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+            this.slots = new int[this.slots.length * 2];
+            for (int entry = 0; entry < this.size; entry++) {
+                insertSlot(entry);
+            }
+        }
+
+        private static int hash(final int key) {
+            return key * 0x9E3779B1 >>> 16;
+        }
+    }
+}
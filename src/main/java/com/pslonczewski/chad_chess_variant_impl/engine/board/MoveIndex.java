@@ -0,0 +1,61 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import java.util.Collection;
+
+/**
+ * The moves of one player keyed by current and destination coordinate, in a small open-addressed table.
+ * A tile holds at most one piece and a piece has at most one move to a given tile, so the two
+ * coordinates identify a move of one player.
+ */
+public final class MoveIndex {
+
+    private final int[] keys;
+    private final Move[] moves;
+    private final int mask;
+
+    public MoveIndex(final Collection<Move> moves) {
+        int capacity = 16;
+        while (capacity < moves.size() * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.moves = new Move[capacity];
+        this.mask = capacity - 1;
+        for (final Move move : moves) {
+            final int key = key(move.getCurrentCoordinate(), move.getDestinationCoordinate());
+            int slot = slot(key);
+            while (this.keys[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.keys[slot] = key;
+            this.moves[slot] = move;
+        }
+    }
+
+    // 0 marks an empty slot, so keys start at 1
+    private static int key(final int currentCoordinate, final int destinationCoordinate) {
+        return currentCoordinate * BoardUtils.NUM_TILES + destinationCoordinate + 1;
+    }
+
+    private int slot(final int key) {
+        return (key * 0x9E3779B1 >>> 16) & this.mask;
+    }
+
+    /**
+     * @return the move from {@code currentCoordinate} to {@code destinationCoordinate}, or null if there is none
+     */
+    public Move get(final int currentCoordinate, final int destinationCoordinate) {
+        final int key = key(currentCoordinate, destinationCoordinate);
+        for (int slot = slot(key); this.keys[slot] != 0; slot = (slot + 1) & this.mask) {
+            if (this.keys[slot] == key) {
+                return this.moves[slot];
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(final Move move) {
+        final Move indexedMove = get(move.getCurrentCoordinate(), move.getDestinationCoordinate());
+        return indexedMove != null && indexedMove.equals(move);
+    }
+}
@@ -0,0 +1,113 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of {@link EncodedMove encoded moves} with an ordering score per move. Meant to be
+ * cleared and refilled rather than reallocated; {@link SearchBoard} keeps one per ply.
+ */
+public final class MoveList {
+
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private int[] moves;
+    private int[] scores;
+    private int size;
+
+    public MoveList() {
+        this.moves = new int[DEFAULT_CAPACITY];
+        this.scores = new int[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    public MoveList(final MoveList other) {
+        this.moves = Arrays.copyOf(other.moves, Math.max(other.size, 1));
+        this.scores = Arrays.copyOf(other.scores, Math.max(other.size, 1));
+        this.size = other.size;
+    }
+
+    public void add(final int move) {
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.size * 2);
+            this.scores = Arrays.copyOf(this.scores, this.size * 2);
+        }
+        this.moves[this.size] = move;
+        this.scores[this.size] = 0;
+        this.size++;
+    }
+
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    public int getScore(final int index) {
+        return this.scores[index];
+    }
+
+    public void setScore(final int index, final int score) {
+        this.scores[index] = score;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Removes and returns the move at {@code index}, keeping the order of the others.
+     */
+    public int remove(final int index) {
+        final int move = this.moves[index];
+        System.arraycopy(this.moves, index + 1, this.moves, index, this.size - index - 1);
+        System.arraycopy(this.scores, index + 1, this.scores, index, this.size - index - 1);
+        this.size--;
+        return move;
+    }
+
+    public boolean contains(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders the moves by descending score. Moves with equal scores keep their generation order.
+     */
+    public void sortByScore() {
+        for (int i = 1; i < this.size; i++) {
+            final int move = this.moves[i];
+            final int score = this.scores[i];
+            int j = i - 1;
+            while (j >= 0 && this.scores[j] < score) {
+                this.moves[j + 1] = this.moves[j];
+                this.scores[j + 1] = this.scores[j];
+                j--;
+            }
+            this.moves[j + 1] = move;
+            this.scores[j + 1] = score;
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(this.moves, this.size);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            builder.append(i == 0 ? "" : ", ").append(EncodedMove.toString(this.moves[i]));
+        }
+        return builder.append("]").toString();
+    }
+}
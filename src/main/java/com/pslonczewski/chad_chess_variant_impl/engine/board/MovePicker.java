@@ -0,0 +1,190 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+
+/**
+ * Hands out the moves of one node in stages: the transposition table move, then attacks ordered by victim
+ * value minus attacker value, then the killer moves and the countermove, then the remaining quiet moves,
+ * ordered by their {@link MoveHistory} score when there is one. A stage is generated only when the previous
+ * one is used up, so a cutoff on the table move or on an attack never pays for generating the quiet moves.
+ * Moves are pseudo-legal, like {@link SearchBoard#generateMoves()}; the table move, the killers and the
+ * countermove are checked against the position before they are returned.
+ * {@link SearchBoard} keeps one picker per ply, see {@link SearchBoard#getMovePicker(int, int, int)}.
+ */
+public final class MovePicker {
+
+    private static final int TT_MOVE = 0;
+    private static final int GENERATE_ATTACKS = 1;
+    private static final int ATTACKS = 2;
+    private static final int KILLERS = 3;
+    private static final int COUNTER_MOVE = 4;
+    private static final int GENERATE_QUIET_MOVES = 5;
+    private static final int QUIET_MOVES = 6;
+    private static final int DONE = 7;
+
+    private final SearchBoard board;
+    private final MoveList moves;
+    private int stage;
+    private int index;
+    private int ttMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int counterMove;
+    private MoveHistory moveHistory;
+    private int historyPly;
+
+    MovePicker(final SearchBoard board) {
+        this.board = board;
+        this.moves = new MoveList();
+    }
+
+    /**
+     * @param moveHistory history to order the quiet moves by, or null to leave them in generation order
+     * @param historyPly distance of the node from the root of the search
+     */
+    void reset(final int ttMove, final int firstKiller, final int secondKiller, final int counterMove,
+               final MoveHistory moveHistory, final int historyPly) {
+        this.stage = TT_MOVE;
+        this.index = 0;
+        this.ttMove = ttMove;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller != firstKiller ? secondKiller : EncodedMove.NULL_MOVE;
+        this.counterMove = counterMove != firstKiller && counterMove != secondKiller
+                ? counterMove : EncodedMove.NULL_MOVE;
+        this.moveHistory = moveHistory;
+        this.historyPly = historyPly;
+    }
+
+    /**
+     * @return the next move to search, or {@link EncodedMove#NULL_MOVE} when every move has been handed out
+     */
+    public int nextMove() {
+        while (true) {
+            switch (this.stage) {
+                case TT_MOVE:
+                    this.stage = GENERATE_ATTACKS;
+                    if (this.ttMove != EncodedMove.NULL_MOVE && this.board.isPseudoLegalMove(this.ttMove)) {
+                        return this.ttMove;
+                    }
+                    break;
+                case GENERATE_ATTACKS:
+                    this.moves.clear();
+                    this.board.generateMoves(this.board.getSideToMove(), this.moves, true, false);
+                    sortAttacks(this.moves);
+                    this.index = 0;
+                    this.stage = ATTACKS;
+                    break;
+                case ATTACKS:
+                    while (this.index < this.moves.size()) {
+                        final int move = this.moves.get(this.index++);
+                        if (move != this.ttMove) {
+                            return move;
+                        }
+                    }
+                    this.index = 0;
+                    this.stage = KILLERS;
+                    break;
+                case KILLERS:
+                    while (this.index < 2) {
+                        final int killer = this.index++ == 0 ? this.firstKiller : this.secondKiller;
+                        if (isRefutationToSearch(killer)) {
+                            return killer;
+                        }
+                    }
+                    this.stage = COUNTER_MOVE;
+                    break;
+                case COUNTER_MOVE:
+                    this.stage = GENERATE_QUIET_MOVES;
+                    if (isRefutationToSearch(this.counterMove)) {
+                        return this.counterMove;
+                    }
+                    break;
+                case GENERATE_QUIET_MOVES:
+                    this.moves.clear();
+                    this.board.generateMoves(this.board.getSideToMove(), this.moves, false, true);
+                    if (this.moveHistory != null) {
+                        sortQuietMoves();
+                    }
+                    this.index = 0;
+                    this.stage = QUIET_MOVES;
+                    break;
+                case QUIET_MOVES:
+                    while (this.index < this.moves.size()) {
+                        final int move = this.moves.get(this.index++);
+                        if (move != this.ttMove && move != this.firstKiller && move != this.secondKiller
+                                && move != this.counterMove) {
+                            return move;
+                        }
+                    }
+                    this.stage = DONE;
+                    break;
+                default:
+                    return EncodedMove.NULL_MOVE;
+            }
+        }
+    }
+
+    /**
+     * Whether the move last handed out is one of the remaining quiet moves: not the table move, an attack,
+     * a killer move or the countermove.
+     */
+    public boolean isQuietMove() {
+        return this.stage == QUIET_MOVES;
+    }
+
+    /**
+     * Feeds a beta cutoff on a move of this node back into the {@link MoveHistory}, if the picker has one.
+     * The quiet moves handed out before a quiet cutoff move failed to cut off, so they are scored down; moves
+     * handed out ahead of the cutoff move but searched alongside it at a split point are not.
+     */
+    public void storeCutoff(final int move, final int depth) {
+        if (this.moveHistory == null || EncodedMove.isAttack(move)) {
+            return;
+        }
+
+        final Alliance sideToMove = this.board.getSideToMove();
+        this.moveHistory.storeCutoff(sideToMove, move, this.historyPly, depth, this.board.getLastMove());
+        if (this.stage < QUIET_MOVES) {
+            return;
+        }
+        int cutoffIndex = 0;
+        while (cutoffIndex < this.index && this.moves.get(cutoffIndex) != move) {
+            cutoffIndex++;
+        }
+        if (cutoffIndex == this.index) {
+            return;
+        }
+        for (int i = 0; i < cutoffIndex; i++) {
+            final int quietMove = this.moves.get(i);
+            if (quietMove != this.ttMove && quietMove != this.firstKiller && quietMove != this.secondKiller
+                    && quietMove != this.counterMove) {
+                this.moveHistory.storeFailure(sideToMove, quietMove, depth);
+            }
+        }
+    }
+
+    private boolean isRefutationToSearch(final int move) {
+        return move != EncodedMove.NULL_MOVE && move != this.ttMove && !EncodedMove.isAttack(move)
+                && this.board.isPseudoLegalMove(move);
+    }
+
+    private void sortQuietMoves() {
+        final Alliance sideToMove = this.board.getSideToMove();
+        for (int i = 0; i < this.moves.size(); i++) {
+            this.moves.setScore(i, this.moveHistory.getHistoryScore(sideToMove, this.moves.get(i)));
+        }
+        this.moves.sortByScore();
+    }
+
+    /**
+     * Orders attacks by victim value minus attacker value, most valuable victim first.
+     */
+    public static void sortAttacks(final MoveList attackMoves) {
+        for (int i = 0; i < attackMoves.size(); i++) {
+            final int move = attackMoves.get(i);
+            attackMoves.setScore(i, EncodedMove.getAttackedPieceType(move).getPieceValue()
+                    - EncodedMove.getMovedPieceType(move).getPieceValue());
+        }
+        attackMoves.sortByScore();
+    }
+}
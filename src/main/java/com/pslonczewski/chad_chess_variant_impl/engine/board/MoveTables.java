@@ -0,0 +1,120 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import java.util.Arrays;
+
+/**
+ * Target tiles of every piece type from every tile, computed once. A ray lists the tiles a sliding piece
+ * passes over in one direction, nearest first, stopping at the edge of the board; king targets are the
+ * jumps that land inside one of the castles. Edge wrapping is removed here, so generators only have to
+ * walk the arrays and look at occupancy.
+ */
+public final class MoveTables {
+
+    public static final int[] ROOK_DIRECTIONS = { -12, -1, 1, 12 };
+    public static final int[] QUEEN_DIRECTIONS = { -13, -12, -11, -1, 1, 11, 12, 13 };
+    public static final int[] DIAGONAL_DIRECTIONS = { -13, -11, 11, 13 };
+    public static final int[] KING_OFFSETS = { -25, -23, -14, -13, -12, -11, -10, -1, 1, 10, 11, 12, 13, 14, 23, 25 };
+
+    /** [tile][direction index in {@link #ROOK_DIRECTIONS}] -> tiles along the ray. */
+    public static final int[][][] ROOK_RAYS = initRays(ROOK_DIRECTIONS);
+    /** [tile][direction index in {@link #QUEEN_DIRECTIONS}] -> tiles along the ray. */
+    public static final int[][][] QUEEN_RAYS = initRays(QUEEN_DIRECTIONS);
+    /** [tile][direction index in {@link #DIAGONAL_DIRECTIONS}] -> tiles along the ray. */
+    public static final int[][][] DIAGONAL_RAYS = initRays(DIAGONAL_DIRECTIONS);
+    /** [tile] -> castle tiles a king standing there can jump to, in {@link #KING_OFFSETS} order. */
+    public static final int[][] KING_TARGETS = initKingTargets();
+    /** [tile] -> tiles a king can jump to this tile from; empty for tiles outside the castles. */
+    public static final int[][] KING_ATTACKERS = initKingAttackers();
+    /** [from][to] -> index in {@link #QUEEN_DIRECTIONS} of the ray from {@code from} passing over {@code to}, or -1. */
+    public static final byte[][] QUEEN_DIRECTION_INDEX = initQueenDirectionIndex();
+
+    private MoveTables() {
+        throw new RuntimeException("MoveTables class cannot be instantiated!");
+    }
+
+    private static int[][][] initRays(final int[] directions) {
+        final int[][][] rays = new int[BoardUtils.NUM_TILES][directions.length][];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            for (int i = 0; i < directions.length; i++) {
+                rays[tile][i] = initRay(tile, directions[i]);
+            }
+        }
+        return rays;
+    }
+
+    private static int[] initRay(final int tile, final int direction) {
+        final int[] ray = new int[BoardUtils.NUM_TILES_PER_ROW];
+        int length = 0;
+        int coordinate = tile;
+        while (!isColumnExclusion(coordinate, direction)) {
+            coordinate += direction;
+            if (!BoardUtils.isMoveWithinBoardBounds(coordinate)) {
+                break;
+            }
+            ray[length++] = coordinate;
+        }
+        return Arrays.copyOf(ray, length);
+    }
+
+    private static int[][] initKingTargets() {
+        final int[][] targets = new int[BoardUtils.NUM_TILES][];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int[] tileTargets = new int[KING_OFFSETS.length];
+            int length = 0;
+            for (final int offset : KING_OFFSETS) {
+                final int coordinate = tile + offset;
+                if (!isColumnExclusion(tile, offset) && BoardUtils.isMoveWithinBoardBounds(coordinate)
+                        && BoardUtils.CASTLES_MASK.isSet(coordinate)) {
+                    tileTargets[length++] = coordinate;
+                }
+            }
+            targets[tile] = Arrays.copyOf(tileTargets, length);
+        }
+        return targets;
+    }
+
+    private static int[][] initKingAttackers() {
+        final int[][] attackers = new int[BoardUtils.NUM_TILES][];
+        final int[] counts = new int[BoardUtils.NUM_TILES];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            attackers[tile] = new int[KING_OFFSETS.length];
+        }
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            for (final int target : KING_TARGETS[tile]) {
+                attackers[target][counts[target]++] = tile;
+            }
+        }
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            attackers[tile] = Arrays.copyOf(attackers[tile], counts[tile]);
+        }
+        return attackers;
+    }
+
+    private static byte[][] initQueenDirectionIndex() {
+        final byte[][] directionIndex = new byte[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            Arrays.fill(directionIndex[tile], (byte) -1);
+            for (int i = 0; i < QUEEN_DIRECTIONS.length; i++) {
+                for (final int coordinate : QUEEN_RAYS[tile][i]) {
+                    directionIndex[tile][coordinate] = (byte) i;
+                }
+            }
+        }
+        return directionIndex;
+    }
+
+    public static boolean isOrthogonalQueenDirection(final int directionIndex) {
+        final int direction = Math.abs(QUEEN_DIRECTIONS[directionIndex]);
+        return direction == 1 || direction == BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**
+     * Whether stepping by {@code offset} from the first or the twelfth column would wrap around to the
+     * other side of the board.
+     */
+    private static boolean isColumnExclusion(final int coordinate, final int offset) {
+        final int columnShift = Math.floorMod(offset + 6, BoardUtils.NUM_TILES_PER_ROW) - 6;
+        return (BoardUtils.FIRST_COLUMN[coordinate] && columnShift < 0)
+                || (BoardUtils.TWELFTH_COLUMN[coordinate] && columnShift > 0);
+    }
+}
@@ -0,0 +1,279 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree down to a fixed depth ("perft"), to check move generation
+ * against known counts and to measure its speed. "Divide" gives the same count split by root move.
+ * <p>
+ * The static {@code ...WithMakeMove} methods walk the tree through {@link Player#makeMove(Move)} and
+ * {@link Move#execute()}, the way the game does. An instance walks it on a {@link SearchBoard} instead and
+ * can count the moves at the last ply without making them (bulk counting), remember subtree counts in a
+ * hash table keyed by Zobrist hash and depth, and split the root moves over a {@link ForkJoinPool}.
+ */
+public final class Perft {
+
+    private final boolean isBulkCounting;
+    private final PerftTable perftTable;
+
+    /**
+     * @param isBulkCounting whether the legal moves at the last ply are counted instead of made
+     * @param perftTableSizeBits the hash table holds {@code 2^perftTableSizeBits} entries, 0 for no table
+     */
+    public Perft(final boolean isBulkCounting, final int perftTableSizeBits) {
+        this.isBulkCounting = isBulkCounting;
+        this.perftTable = perftTableSizeBits > 0 ? new PerftTable(perftTableSizeBits) : null;
+    }
+
+    public static long countWithMakeMove(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        final Player player = board.getCurrentPlayer();
+        long nodes = 0;
+        for (final Move move : player.getLegalMoves()) {
+            final MoveTransition transition = player.makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += countWithMakeMove(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    public static Map<Move, Long> divideWithMakeMove(final Board board, final int depth) {
+        final Player player = board.getCurrentPlayer();
+        final Map<Move, Long> nodesPerMove = new LinkedHashMap<>();
+        for (final Move move : player.getLegalMoves()) {
+            final MoveTransition transition = player.makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodesPerMove.put(move, countWithMakeMove(transition.getTransitionBoard(), depth - 1));
+            }
+        }
+        return nodesPerMove;
+    }
+
+    /**
+     * Counts the leaf nodes on the calling thread.
+     */
+    public long count(final Board board, final int depth) {
+        return new Counter(new SearchBoard(board)).count(depth);
+    }
+
+    /**
+     * Counts the leaf nodes below every legal root move, one fork-join task per root move, in the order
+     * the moves are generated.
+     */
+    public Map<Move, Long> divide(final Board board, final int depth, final ForkJoinPool pool) {
+        if (depth < 1) {
+            throw new RuntimeException("Divide needs a depth of at least 1!");
+        }
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final MoveList rootMoves = new MoveList();
+        searchBoard.generateLegalMoves(searchBoard.getSideToMove(), rootMoves);
+
+        final List<RootMoveTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            tasks.add(new RootMoveTask(board, rootMoves.get(i), depth));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tasks);
+                return null;
+            }
+        });
+
+        final Map<Move, Long> nodesPerMove = new LinkedHashMap<>();
+        for (final RootMoveTask task : tasks) {
+            nodesPerMove.put(EncodedMove.toMove(board, task.rootMove), task.join());
+        }
+        return nodesPerMove;
+    }
+
+    /**
+     * Same count as {@link #count(Board, int)}, with the root moves split over {@code pool}.
+     */
+    public long countParallel(final Board board, final int depth, final ForkJoinPool pool) {
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (final long moveNodes : divide(board, depth, pool).values()) {
+            nodes += moveNodes;
+        }
+        return nodes;
+    }
+
+    private final class RootMoveTask extends RecursiveTask<Long> {
+
+        private final Board board;
+        private final int rootMove;
+        private final int depth;
+
+        private RootMoveTask(final Board board, final int rootMove, final int depth) {
+            this.board = board;
+            this.rootMove = rootMove;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            final SearchBoard searchBoard = new SearchBoard(this.board);
+            searchBoard.make(this.rootMove);
+            return new Counter(searchBoard).count(this.depth - 1);
+        }
+    }
+
+    /**
+     * Walks the tree on one search board, with a move list per ply. Not shared between threads.
+     */
+    private final class Counter {
+
+        private final SearchBoard board;
+        private final List<MoveList> moveLists;
+
+        private Counter(final SearchBoard board) {
+            this.board = board;
+            this.moveLists = new ArrayList<>();
+        }
+
+        private long count(final int depth) {
+            if (depth == 0) {
+                return 1;
+            }
+            if (depth >= 2 && Perft.this.perftTable != null) {
+                final long nodes = Perft.this.perftTable.get(this.board.getZobristHashCode(), depth);
+                if (nodes != PerftTable.NOT_FOUND) {
+                    return nodes;
+                }
+            }
+
+            final MoveList moves = getMoveList(depth);
+            this.board.generateLegalMoves(this.board.getSideToMove(), moves);
+            if (depth == 1 && Perft.this.isBulkCounting) {
+                return moves.size();
+            }
+
+            long nodes = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                final int move = moves.get(i);
+                this.board.make(move);
+                nodes += count(depth - 1);
+                this.board.unmake(move);
+            }
+
+            if (depth >= 2 && Perft.this.perftTable != null) {
+                Perft.this.perftTable.put(this.board.getZobristHashCode(), depth, nodes);
+            }
+            return nodes;
+        }
+
+        private MoveList getMoveList(final int depth) {
+            while (this.moveLists.size() < depth) {
+                this.moveLists.add(new MoveList());
+            }
+            final MoveList moves = this.moveLists.get(depth - 1);
+            moves.clear();
+            return moves;
+        }
+    }
+
+    /**
+     * Subtree counts by Zobrist hash and depth, always replacing. Threads share it without locks: an entry
+     * stores its key XOR-ed with its count, so an entry torn by two concurrent writes fails the key check
+     * instead of returning a wrong count.
+     */
+    private static final class PerftTable {
+
+        private static final long NOT_FOUND = -1;
+        private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
+
+        private final long[] keys;
+        private final long[] nodes;
+        private final int mask;
+
+        private PerftTable(final int sizeBits) {
+            this.keys = new long[1 << sizeBits];
+            this.nodes = new long[1 << sizeBits];
+            this.mask = (1 << sizeBits) - 1;
+        }
+
+        private static long key(final long zobristHashCode, final int depth) {
+            return zobristHashCode ^ (depth * DEPTH_KEY);
+        }
+
+        private long get(final long zobristHashCode, final int depth) {
+            final long key = key(zobristHashCode, depth);
+            final int index = (int) key & this.mask;
+            final long storedNodes = this.nodes[index];
+            return (this.keys[index] ^ storedNodes) == key && storedNodes != 0 ? storedNodes : NOT_FOUND;
+        }
+
+        private void put(final long zobristHashCode, final int depth, final long nodes) {
+            final long key = key(zobristHashCode, depth);
+            final int index = (int) key & this.mask;
+            this.keys[index] = key ^ nodes;
+            this.nodes[index] = nodes;
+        }
+    }
+
+    /**
+     * Prints the count and speed for every depth up to the given one.
+     * <p>
+     * Usage: {@code Perft <depth> [standard|problem1|problem2|problem3] [divide]}
+     */
+    public static void main(final String[] args) {
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        final Board board = switch (args.length > 1 ? args[1] : "standard") {
+            case "problem1" -> Board.createProblem1Board();
+            case "problem2" -> Board.createProblem2Board();
+            case "problem3" -> Board.createProblem3Board();
+            default -> Board.createStandardBoard();
+        };
+        final boolean isDivide = args.length > 2 && args[2].equals("divide");
+
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final String[] modeNames = { "make every move", "bulk counting", "bulk counting with table" };
+        final boolean[] isBulkCounting = { false, true, true };
+        final int[] perftTableSizeBits = { 0, 0, 20 };
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            final long start = System.nanoTime();
+            final long nodes = countWithMakeMove(board, depth);
+            System.out.printf("depth %d, Board and makeMove: %d nodes, %s%n", depth, nodes,
+                    formatSpeed(nodes, System.nanoTime() - start));
+
+            for (int i = 0; i < modeNames.length; i++) {
+                final long serialStart = System.nanoTime();
+                final long serialNodes = new Perft(isBulkCounting[i], perftTableSizeBits[i]).count(board, depth);
+                final long serialNanos = System.nanoTime() - serialStart;
+
+                final long parallelStart = System.nanoTime();
+                final long parallelNodes = new Perft(isBulkCounting[i], perftTableSizeBits[i])
+                        .countParallel(board, depth, pool);
+                final long parallelNanos = System.nanoTime() - parallelStart;
+
+                System.out.printf("depth %d, %s: %d nodes, %s serial, %s on %d threads%n", depth, modeNames[i],
+                        serialNodes, formatSpeed(serialNodes, serialNanos), formatSpeed(parallelNodes, parallelNanos),
+                        pool.getParallelism());
+            }
+        }
+
+        if (isDivide) {
+            for (final Map.Entry<Move, Long> entry : new Perft(true, 20).divide(board, maxDepth, pool).entrySet()) {
+                System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static String formatSpeed(final long nodes, final long nanos) {
+        return String.format("%.3f s (%.0f nps)", nanos / 1e9, nodes * 1e9 / Math.max(nanos, 1));
+    }
+}
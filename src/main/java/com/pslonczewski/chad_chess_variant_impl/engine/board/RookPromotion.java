@@ -1,6 +1,5 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.board;
 
-import com.pslonczewski.chad_chess_variant_impl.engine.board.Board.Builder;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
 
@@ -28,27 +27,13 @@ public class RookPromotion extends Move {
 
     @Override
     public boolean equals(final Object other) {
-        return this == other || other instanceof RookPromotion && this.decoratedMove.equals(other);
+        return this == other || other instanceof RookPromotion
+                && this.decoratedMove.equals(((RookPromotion) other).decoratedMove);
     }
 
     @Override
     public Board execute() {
-        final Board rookMovedBoard = this.decoratedMove.execute();
-        final Builder builder = new Builder();
-
-        for (final Piece piece : rookMovedBoard.getCurrentPlayer().getActivePieces()) {
-            if (!this.promotedRook.equals(piece)) {
-                builder.setPiece(piece);
-            }
-        }
-
-        for (final Piece piece : rookMovedBoard.getCurrentPlayer().getOpponent().getActivePieces()) {
-            builder.setPiece(piece);
-        }
-        builder.setPiece(this.promotedRook.getPromotionPiece().movePiece(this));
-        builder.setMoveMaker(rookMovedBoard.getCurrentPlayer().getAlliance());
-
-        return builder.build();
+        return execute(this.promotedRook.getPromotionPiece().movePiece(this));
     }
 
     @Override
@@ -61,6 +46,11 @@ public class RookPromotion extends Move {
         return this.decoratedMove.isAttack();
     }
 
+    @Override
+    public boolean isPromotion() {
+        return true;
+    }
+
     @Override
     public Piece getAttackedPiece() {
         return this.decoratedMove.getAttackedPiece();
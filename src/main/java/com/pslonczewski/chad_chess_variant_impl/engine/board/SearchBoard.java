@@ -0,0 +1,361 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Queen;
+
+import java.util.Arrays;
+
+/**
+ * Mutable position for the search. Moves are applied in place with {@link #make(int)} and taken back
+ * with {@link #unmake(int)}, so walking the tree no longer builds a new {@link Board} (tiles, piece lists
+ * and both players' moves) per node. {@link Board} stays the API for the GUI and for the root of a search.
+ * Moves are {@link EncodedMove encoded moves}, generated into a {@link MoveList} that is reused per ply.
+ */
+public final class SearchBoard {
+
+    private static final int INITIAL_STACK_SIZE = 64;
+
+    // Per-ply status flags, four per alliance: whether check / escape have been computed and their value.
+    private static final int CHECK_KNOWN = 1;
+    private static final int IN_CHECK = 2;
+    private static final int ESCAPE_KNOWN = 4;
+    private static final int HAS_ESCAPE = 8;
+    private static final int FLAGS_PER_ALLIANCE = 4;
+
+    private final BitboardPosition position;
+    private Alliance sideToMove;
+    private long zobristHashCode;
+
+    private Piece[] movedPieces;
+    private Piece[] capturedPieces;
+    private int[] moves;
+    private long[] zobristHashCodes;
+    private byte[] statusFlags;
+    private int ply;
+
+    private MoveList[] moveLists;
+    private MovePicker[] movePickers;
+    private final MoveList countedMoves;
+    private final MoveList pieceMoves;
+    private final LegalMoveGenerator legalMoveGenerator;
+
+    public SearchBoard(final Board board) {
+        this(new BitboardPosition(board.getPosition()), board.getCurrentPlayer().getAlliance(),
+                board.getZobristHashCode());
+    }
+
+    /**
+     * Copies the current position of another search board, for another thread to search it. The moves made
+     * to reach it are not copied: the copy starts at ply 0.
+     */
+    public SearchBoard(final SearchBoard other) {
+        this(new BitboardPosition(other.position), other.sideToMove, other.zobristHashCode);
+    }
+
+    private SearchBoard(final BitboardPosition position, final Alliance sideToMove, final long zobristHashCode) {
+        this.position = position;
+        this.sideToMove = sideToMove;
+        this.zobristHashCode = zobristHashCode;
+        this.movedPieces = new Piece[INITIAL_STACK_SIZE];
+        this.capturedPieces = new Piece[INITIAL_STACK_SIZE];
+        this.moves = new int[INITIAL_STACK_SIZE];
+        this.zobristHashCodes = new long[INITIAL_STACK_SIZE + 1];
+        this.statusFlags = new byte[INITIAL_STACK_SIZE + 1];
+        this.ply = 0;
+        this.moveLists = new MoveList[INITIAL_STACK_SIZE + 1];
+        this.movePickers = new MovePicker[INITIAL_STACK_SIZE + 1];
+        this.countedMoves = new MoveList();
+        this.pieceMoves = new MoveList();
+        this.legalMoveGenerator = new LegalMoveGenerator();
+    }
+
+    public BitboardPosition getPosition() {
+        return this.position;
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    public Piece getPiece(final int coordinate) {
+        return this.position.getPiece(coordinate);
+    }
+
+    /**
+     * Applies the move in place. The move is applied even when it leaves the mover's king attacked,
+     * in which case false is returned; either way it has to be taken back with {@link #unmake(int)}.
+     */
+    public boolean make(final int move) {
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        final Piece movedPiece = this.position.getPiece(currentCoordinate);
+        final Piece capturedPiece = this.position.getPiece(destinationCoordinate);
+
+        if (this.ply == this.movedPieces.length) {
+            growStacks();
+        }
+        this.movedPieces[this.ply] = movedPiece;
+        this.capturedPieces[this.ply] = capturedPiece;
+        this.moves[this.ply] = move;
+        this.zobristHashCodes[this.ply] = this.zobristHashCode;
+        this.ply++;
+        this.statusFlags[this.ply] = 0;
+
+        final Piece placedPiece = EncodedMove.isPromotion(move)
+                ? Queen.createQueen(movedPiece.getPieceAlliance(), destinationCoordinate)
+                : movedPiece.movePiece(destinationCoordinate);
+        this.position.remove(currentCoordinate);
+        this.zobristHashCode ^= BoardUtils.zobristKey(movedPiece);
+        if (capturedPiece != null) {
+            this.position.remove(destinationCoordinate);
+            this.zobristHashCode ^= BoardUtils.zobristKey(capturedPiece);
+        }
+        this.position.put(placedPiece);
+        this.zobristHashCode ^= BoardUtils.zobristKey(placedPiece) ^ BoardUtils.ZOBRIST_BLACK_TO_MOVE;
+        this.sideToMove = this.sideToMove.getOpponent();
+        assert this.zobristHashCode == BoardUtils.calculateZobristHashCode(this.position, this.sideToMove)
+                : "Incremental Zobrist hash diverged from the position";
+
+        return !isInCheck(movedPiece.getPieceAlliance());
+    }
+
+    public void unmake(final int move) {
+        this.ply--;
+        final Piece movedPiece = this.movedPieces[this.ply];
+        final Piece capturedPiece = this.capturedPieces[this.ply];
+        this.movedPieces[this.ply] = null;
+        this.capturedPieces[this.ply] = null;
+        this.zobristHashCode = this.zobristHashCodes[this.ply];
+
+        this.position.remove(EncodedMove.getDestinationCoordinate(move));
+        this.position.put(movedPiece);
+        if (capturedPiece != null) {
+            this.position.put(capturedPiece);
+        }
+        this.sideToMove = this.sideToMove.getOpponent();
+    }
+
+    private void growStacks() {
+        this.movedPieces = Arrays.copyOf(this.movedPieces, this.ply * 2);
+        this.capturedPieces = Arrays.copyOf(this.capturedPieces, this.ply * 2);
+        this.moves = Arrays.copyOf(this.moves, this.ply * 2);
+        this.zobristHashCodes = Arrays.copyOf(this.zobristHashCodes, this.ply * 2 + 1);
+        this.statusFlags = Arrays.copyOf(this.statusFlags, this.ply * 2 + 1);
+        this.moveLists = Arrays.copyOf(this.moveLists, this.ply * 2 + 1);
+        this.movePickers = Arrays.copyOf(this.movePickers, this.ply * 2 + 1);
+    }
+
+    /**
+     * Passes the turn: only the side to move and its Zobrist key change. Taken back with
+     * {@link #unmakeNullMove()}. Used by null-move pruning, never played.
+     */
+    public void makeNullMove() {
+        if (this.ply == this.movedPieces.length) {
+            growStacks();
+        }
+        this.moves[this.ply] = EncodedMove.NULL_MOVE;
+        this.zobristHashCodes[this.ply] = this.zobristHashCode;
+        this.ply++;
+        this.statusFlags[this.ply] = 0;
+
+        this.zobristHashCode ^= BoardUtils.ZOBRIST_BLACK_TO_MOVE;
+        this.sideToMove = this.sideToMove.getOpponent();
+    }
+
+    public void unmakeNullMove() {
+        this.ply--;
+        this.zobristHashCode = this.zobristHashCodes[this.ply];
+        this.sideToMove = this.sideToMove.getOpponent();
+    }
+
+    /**
+     * Whether the last move made was a {@link #makeNullMove() null move}.
+     */
+    public boolean isAfterNullMove() {
+        return this.ply > 0 && this.movedPieces[this.ply - 1] == null;
+    }
+
+    /**
+     * @return the move that led to the current position, or {@link EncodedMove#NULL_MOVE} at ply 0 and
+     * after a null move
+     */
+    public int getLastMove() {
+        return this.ply > 0 ? this.moves[this.ply - 1] : EncodedMove.NULL_MOVE;
+    }
+
+    /**
+     * Same moves, in the same order, as {@code Player.getLegalMoves()} on the equivalent {@link Board}:
+     * pseudo-legal moves that may still leave the king attacked. The list belongs to the current ply and
+     * is overwritten the next time moves are generated at this ply.
+     */
+    public MoveList generateMoves() {
+        final MoveList moves = getMoveList();
+        generateMoves(this.sideToMove, moves);
+        return moves;
+    }
+
+    /**
+     * The attacks among {@link #generateMoves()}, in the same list. Quiet moves are not generated at all.
+     */
+    public MoveList generateAttackMoves() {
+        final MoveList moves = getMoveList();
+        generateMoves(this.sideToMove, moves, true, false);
+        return moves;
+    }
+
+    public void generateMoves(final Alliance alliance, final MoveList moves) {
+        generateMoves(alliance, moves, true, true);
+    }
+
+    public void generateMoves(final Alliance alliance, final MoveList moves, final boolean attacks,
+                              final boolean quietMoves) {
+        for (int coordinate = this.position.nextPiecePosition(alliance, 0); coordinate != -1;
+             coordinate = this.position.nextPiecePosition(alliance, coordinate + 1)) {
+            this.position.getPiece(coordinate).generateMoves(this.position, moves, attacks, quietMoves);
+        }
+    }
+
+    /**
+     * The staged move picker of the current ply, reset for a new node. Like the list returned by
+     * {@link #generateMoves()} it is reused the next time a node at this ply is searched.
+     *
+     * @param ttMove move remembered for this position, or {@link EncodedMove#NULL_MOVE}
+     * @param firstKiller killer move for this node, or {@link EncodedMove#NULL_MOVE}
+     * @param secondKiller second killer move for this node, or {@link EncodedMove#NULL_MOVE}
+     */
+    public MovePicker getMovePicker(final int ttMove, final int firstKiller, final int secondKiller) {
+        final MovePicker movePicker = getMovePicker();
+        movePicker.reset(ttMove, firstKiller, secondKiller, EncodedMove.NULL_MOVE, null, this.ply);
+        return movePicker;
+    }
+
+    /**
+     * The staged move picker of the current ply, reset for a new node, with the killer moves, the countermove
+     * and the history scores of the search's {@link MoveHistory}.
+     *
+     * @param ttMove move remembered for this position, or {@link EncodedMove#NULL_MOVE}
+     * @param rootPly distance from the root of the search to ply 0 of this board
+     */
+    public MovePicker getMovePicker(final int ttMove, final MoveHistory moveHistory, final int rootPly) {
+        final int historyPly = rootPly + this.ply;
+        final MovePicker movePicker = getMovePicker();
+        movePicker.reset(ttMove, moveHistory.getFirstKiller(historyPly), moveHistory.getSecondKiller(historyPly),
+                moveHistory.getCounterMove(this.sideToMove, getLastMove()), moveHistory, historyPly);
+        return movePicker;
+    }
+
+    private MovePicker getMovePicker() {
+        MovePicker movePicker = this.movePickers[this.ply];
+        if (movePicker == null) {
+            movePicker = new MovePicker(this);
+            this.movePickers[this.ply] = movePicker;
+        }
+        return movePicker;
+    }
+
+    /**
+     * Whether the side to move has this exact move among its generated moves. Used to check moves that
+     * did not come from the generator, such as transposition table moves and killer moves.
+     */
+    public boolean isPseudoLegalMove(final int move) {
+        final Piece movedPiece = this.position.getPiece(EncodedMove.getCurrentCoordinate(move));
+        if (movedPiece == null || movedPiece.getPieceAlliance() != this.sideToMove
+                || movedPiece.getPieceType() != EncodedMove.getMovedPieceType(move)) {
+            return false;
+        }
+        final boolean isAttack = EncodedMove.isAttack(move);
+        this.pieceMoves.clear();
+        movedPiece.generateMoves(this.position, this.pieceMoves, isAttack, !isAttack);
+        return this.pieceMoves.contains(move);
+    }
+
+    /**
+     * Only the moves of {@code alliance} that do not leave its king attacked, found without making them;
+     * see {@link LegalMoveGenerator}.
+     */
+    public void generateLegalMoves(final Alliance alliance, final MoveList moves) {
+        this.legalMoveGenerator.reset(this.position, alliance);
+        this.legalMoveGenerator.generateLegalMoves(moves);
+    }
+
+    public int countLegalMoves(final Alliance alliance) {
+        this.countedMoves.clear();
+        generateMoves(alliance, this.countedMoves);
+        return this.countedMoves.size();
+    }
+
+    private MoveList getMoveList() {
+        MoveList moves = this.moveLists[this.ply];
+        if (moves == null) {
+            moves = new MoveList();
+            this.moveLists[this.ply] = moves;
+        }
+        moves.clear();
+        return moves;
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        final int shift = alliance.ordinal() * FLAGS_PER_ALLIANCE;
+        final int flags = this.statusFlags[this.ply] >> shift;
+        if ((flags & CHECK_KNOWN) != 0) {
+            return (flags & IN_CHECK) != 0;
+        }
+        final boolean inCheck = this.position.isSquareAttacked(this.position.getKingPosition(alliance),
+                alliance.getOpponent());
+        this.statusFlags[this.ply] |= (byte) ((CHECK_KNOWN | (inCheck ? IN_CHECK : 0)) << shift);
+        return inCheck;
+    }
+
+    public boolean isInCheckMate(final Alliance alliance) {
+        return isInCheck(alliance) && !hasEscapeMoves(alliance);
+    }
+
+    public boolean isInStaleMate(final Alliance alliance) {
+        return !isInCheck(alliance) && !hasEscapeMoves(alliance);
+    }
+
+    public boolean isADraw() {
+        return this.position.getPieceCount() == 2;
+    }
+
+    public boolean isEndGameScenario() {
+        return isInCheckMate(this.sideToMove) || isInStaleMate(this.sideToMove) || isADraw();
+    }
+
+    private boolean hasEscapeMoves(final Alliance alliance) {
+        final int shift = alliance.ordinal() * FLAGS_PER_ALLIANCE;
+        final int flags = this.statusFlags[this.ply] >> shift;
+        if ((flags & ESCAPE_KNOWN) != 0) {
+            return (flags & HAS_ESCAPE) != 0;
+        }
+        final boolean hasEscape = findEscapeMove(alliance);
+        this.statusFlags[this.ply] |= (byte) ((ESCAPE_KNOWN | (hasEscape ? HAS_ESCAPE : 0)) << shift);
+        return hasEscape;
+    }
+
+    private boolean findEscapeMove(final Alliance alliance) {
+        this.legalMoveGenerator.reset(this.position, alliance);
+        return this.legalMoveGenerator.hasLegalMove();
+    }
+
+    public long getZobristHashCode() {
+        return this.zobristHashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            builder.append(String.format("%3s", Tile.createTile(i, this.position.getPiece(i))));
+            if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -1,7 +1,9 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.board;
 
 import com.google.common.collect.ImmutableMap;
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,6 +13,7 @@ public abstract class Tile {
     protected final int tileCoordinate;
 
     private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    private static final OccupiedTile[][][] OCCUPIED_TILES_CACHE = createAllPossibleOccupiedTiles();
 
     private static Map<Integer, EmptyTile> createAllPossibleEmptyTiles() {
 
@@ -23,8 +26,30 @@ public abstract class Tile {
         return ImmutableMap.copyOf(emptyTileMap);
     }
 
+    private static OccupiedTile[][][] createAllPossibleOccupiedTiles() {
+
+        final OccupiedTile[][][] occupiedTiles =
+                new OccupiedTile[PieceType.values().length][Alliance.values().length][BoardUtils.NUM_TILES];
+
+        for (final PieceType pieceType : PieceType.values()) {
+            for (final Alliance alliance : Alliance.values()) {
+                for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                    occupiedTiles[pieceType.ordinal()][alliance.ordinal()][i] =
+                            new OccupiedTile(i, Piece.createPiece(pieceType, alliance, i));
+                }
+            }
+        }
+
+        return occupiedTiles;
+    }
+
+    /**
+     * Tiles are cached like pieces, so {@code piece} is expected to stand on {@code tileCoordinate}.
+     */
     public static Tile createTile(final int tileCoordinate, final Piece piece) {
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES_CACHE.get(tileCoordinate);
+        return piece != null
+                ? OCCUPIED_TILES_CACHE[piece.getPieceType().ordinal()][piece.getPieceAlliance().ordinal()][tileCoordinate]
+                : EMPTY_TILES_CACHE.get(tileCoordinate);
     }
 
     public int getTileCoordinate() {
@@ -0,0 +1,416 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardState.NodeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table keyed by {@link Board#getZobristHashCode() Zobrist hash}, kept in
+ * preallocated primitive arrays, in off-heap memory or in a memory-mapped file.
+ * <p>
+ * The table has {@code 2^sizeBits} buckets of two entries each. The first entry of a bucket keeps the
+ * deepest search of the current {@link #newSearch() search}; the second takes whatever the first does
+ * not, replacing its previous content. Entries left over from earlier searches can be replaced at any
+ * depth.
+ * <p>
+ * An entry is two longs: its data (score, best move, depth and node type) and the key XOR-ed with that
+ * data. A probe only accepts an entry whose two words give back the probed key. Threads can therefore
+ * read and write the table without locks: an entry torn by concurrent writes fails the check and reads
+ * as a miss instead of returning another position's data.
+ * <p>
+ * A table {@link #openMapped(Path, int) mapped to a file} keeps its entries across sessions. The file
+ * starts with a header holding the table size and the {@link BoardUtils#ZOBRIST_SEED Zobrist seed}; a file
+ * written for another size or other Zobrist keys is cleared on opening instead of being read.
+ */
+public final class TranspositionTable implements AutoCloseable {
+
+    public static final int DEFAULT_SIZE_BITS = 20;
+    /** Largest size of the heap table, whose words have to fit in one array: 8 GiB of entries. */
+    public static final int MAX_HEAP_SIZE_BITS = 28;
+    /** Largest size of the off-heap and mapped tables, 8 GiB of entries. */
+    public static final int MAX_OFF_HEAP_SIZE_BITS = 28;
+
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int WORDS_PER_ENTRY = 2;
+
+    // Data word: bits 0-31 score, 32-53 best move, 54-61 depth, 62-63 node type
+    private static final int MOVE_SHIFT = 32;
+    private static final long MOVE_MASK = (1L << 22) - 1;
+    private static final int DEPTH_SHIFT = 54;
+    private static final int DEPTH_MASK = 0xFF;
+    private static final int NODE_TYPE_SHIFT = 62;
+
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+
+    private final Storage storage;
+    private final int bucketMask;
+    private byte generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_BITS);
+    }
+
+    /**
+     * @param sizeBits the table holds {@code 2^sizeBits} buckets of two entries, 17 bytes per entry, at most
+     *                 {@code 2^MAX_HEAP_SIZE_BITS}
+     */
+    public TranspositionTable(final int sizeBits) {
+        this(new HeapStorage(sizeBits), sizeBits);
+    }
+
+    private TranspositionTable(final Storage storage, final int sizeBits) {
+        this.storage = storage;
+        this.bucketMask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * Creates a table outside the Java heap, so that a large table neither counts against the heap size
+     * nor gets scanned by the garbage collector. Its memory is freed once the table is unreachable.
+     *
+     * @param sizeBits the table holds {@code 2^sizeBits} buckets of two entries, at most
+     *                 {@code 2^MAX_OFF_HEAP_SIZE_BITS}
+     */
+    public static TranspositionTable createOffHeap(final int sizeBits) {
+        checkOffHeapSizeBits(sizeBits);
+        return new TranspositionTable(BufferStorage.allocateDirect(sizeBits), sizeBits);
+    }
+
+    /**
+     * Opens a table mapped to {@code file}, creating the file if needed. The entries of an earlier session
+     * are kept if the file was written with the same size and Zobrist keys, and cleared otherwise.
+     * {@link #close()} writes the table back to the file.
+     *
+     * @param sizeBits the table holds {@code 2^sizeBits} buckets of two entries, at most
+     *                 {@code 2^MAX_OFF_HEAP_SIZE_BITS}
+     */
+    public static TranspositionTable openMapped(final Path file, final int sizeBits) throws IOException {
+        checkOffHeapSizeBits(sizeBits);
+        final BufferStorage storage = BufferStorage.map(file, sizeBits);
+        final TranspositionTable table = new TranspositionTable(storage, sizeBits);
+        table.generation = storage.getSavedGeneration();
+        return table;
+    }
+
+    private static void checkHeapSizeBits(final int sizeBits) {
+        if (sizeBits < 0 || sizeBits > MAX_HEAP_SIZE_BITS) {
+            throw new RuntimeException("Heap transposition table size bits out of range: " + sizeBits + "!");
+        }
+    }
+
+    private static void checkOffHeapSizeBits(final int sizeBits) {
+        if (sizeBits < 0 || sizeBits > MAX_OFF_HEAP_SIZE_BITS) {
+            throw new RuntimeException("Off-heap transposition table size bits out of range: " + sizeBits + "!");
+        }
+    }
+
+    /**
+     * Starts a new search: entries written before are replaced first from now on.
+     */
+    public void newSearch() {
+        this.generation++;
+    }
+
+    public void clear() {
+        this.storage.clear();
+        this.generation = 0;
+    }
+
+    /**
+     * Writes a mapped table back to its file; does nothing for the other tables.
+     */
+    public void force() {
+        this.storage.force(this.generation);
+    }
+
+    /**
+     * Same as {@link #force()}. The table can still be used afterwards.
+     */
+    @Override
+    public void close() {
+        force();
+    }
+
+    /**
+     * @return the entry stored for the position, or null if there is none
+     */
+    public BoardState get(final long zobristHashCode) {
+        final int firstEntry = firstEntry(zobristHashCode);
+        for (int entry = firstEntry; entry < firstEntry + ENTRIES_PER_BUCKET; entry++) {
+            final long data = this.storage.getWord(entry * WORDS_PER_ENTRY + 1);
+            if ((this.storage.getWord(entry * WORDS_PER_ENTRY) ^ data) == zobristHashCode) {
+                return new BoardState(getDepth(data), (int) data, NODE_TYPES[(int) (data >>> NODE_TYPE_SHIFT)],
+                        (int) ((data >>> MOVE_SHIFT) & MOVE_MASK));
+            }
+        }
+        return null;
+    }
+
+    public void put(final long zobristHashCode, final BoardState boardState) {
+        put(zobristHashCode, boardState.depth(), boardState.score(), boardState.nodeType(), boardState.bestMove());
+    }
+
+    /**
+     * Stores a search result. {@code depth} has to be between 0 and 255 and {@code bestMove} an
+     * {@link EncodedMove encoded move} or {@link EncodedMove#NULL_MOVE}.
+     */
+    public void put(final long zobristHashCode, final int depth, final int score, final NodeType nodeType,
+                    final int bestMove) {
+        final long data = (score & 0xFFFFFFFFL)
+                | (bestMove & MOVE_MASK) << MOVE_SHIFT
+                | (long) (depth & DEPTH_MASK) << DEPTH_SHIFT
+                | (long) nodeType.ordinal() << NODE_TYPE_SHIFT;
+
+        final int depthPreferredEntry = firstEntry(zobristHashCode);
+        final int alwaysReplaceEntry = depthPreferredEntry + 1;
+        final long depthPreferredData = this.storage.getWord(depthPreferredEntry * WORDS_PER_ENTRY + 1);
+        final boolean isSamePosition =
+                (this.storage.getWord(depthPreferredEntry * WORDS_PER_ENTRY) ^ depthPreferredData) == zobristHashCode;
+        if (isSamePosition || depth >= getDepth(depthPreferredData)
+                || this.storage.getGeneration(depthPreferredEntry) != this.generation) {
+            write(depthPreferredEntry, zobristHashCode, data);
+        } else {
+            write(alwaysReplaceEntry, zobristHashCode, data);
+        }
+    }
+
+    private void write(final int entry, final long zobristHashCode, final long data) {
+        this.storage.setWord(entry * WORDS_PER_ENTRY, zobristHashCode ^ data);
+        this.storage.setWord(entry * WORDS_PER_ENTRY + 1, data);
+        this.storage.setGeneration(entry, this.generation);
+    }
+
+    private int firstEntry(final long zobristHashCode) {
+        return ((int) zobristHashCode & this.bucketMask) * ENTRIES_PER_BUCKET;
+    }
+
+    private static int getDepth(final long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    /**
+     * The entry words of a table, and the search that wrote each entry. The generations only steer
+     * replacement, so a torn value does no harm.
+     */
+    private interface Storage {
+
+        long getWord(int index);
+
+        void setWord(int index, long word);
+
+        byte getGeneration(int entry);
+
+        void setGeneration(int entry, byte generation);
+
+        void clear();
+
+        void force(byte generation);
+    }
+
+    private static final class HeapStorage implements Storage {
+
+        private final long[] words;
+        private final byte[] generations;
+
+        private HeapStorage(final int sizeBits) {
+            checkHeapSizeBits(sizeBits);
+            this.words = new long[(1 << sizeBits) * ENTRIES_PER_BUCKET * WORDS_PER_ENTRY];
+            this.generations = new byte[(1 << sizeBits) * ENTRIES_PER_BUCKET];
+        }
+
+        @Override
+        public long getWord(final int index) {
+            return this.words[index];
+        }
+
+        @Override
+        public void setWord(final int index, final long word) {
+            this.words[index] = word;
+        }
+
+        @Override
+        public byte getGeneration(final int entry) {
+            return this.generations[entry];
+        }
+
+        @Override
+        public void setGeneration(final int entry, final byte generation) {
+            this.generations[entry] = generation;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(this.words, 0L);
+            Arrays.fill(this.generations, (byte) 0);
+        }
+
+        @Override
+        public void force(final byte generation) {
+        }
+    }
+
+    /**
+     * Entry words and generations in direct byte buffers, either allocated or mapped to a file. The words
+     * are split over buffers of 1 GiB since a single buffer cannot go past 2 GiB.
+     * <p>
+     * Layout of a mapped file: a header of {@value #HEADER_SIZE} bytes, the words, then the generations.
+     * The header holds the magic number, format version, size bits, Zobrist seed, one Zobrist key (so that
+     * a change to how the keys are drawn from the seed is noticed too) and the generation at the last
+     * {@link #force(byte)}.
+     */
+    private static final class BufferStorage implements Storage {
+
+        private static final int WORD_CHUNK_BITS = 27;
+        private static final int WORD_CHUNK_MASK = (1 << WORD_CHUNK_BITS) - 1;
+
+        private static final long MAGIC = 0x4348414454544142L;
+        private static final int VERSION = 1;
+        private static final int HEADER_SIZE = 64;
+        private static final int MAGIC_OFFSET = 0;
+        private static final int VERSION_OFFSET = 8;
+        private static final int SIZE_BITS_OFFSET = 12;
+        private static final int ZOBRIST_SEED_OFFSET = 16;
+        private static final int ZOBRIST_KEY_OFFSET = 24;
+        private static final int GENERATION_OFFSET = 32;
+
+        private final ByteBuffer[] wordChunks;
+        private final ByteBuffer generations;
+        private final MappedByteBuffer header;
+
+        private BufferStorage(final ByteBuffer[] wordChunks, final ByteBuffer generations,
+                              final MappedByteBuffer header) {
+            this.wordChunks = wordChunks;
+            this.generations = generations;
+            this.header = header;
+        }
+
+        private static BufferStorage allocateDirect(final int sizeBits) {
+            final ByteBuffer[] wordChunks = new ByteBuffer[numWordChunks(sizeBits)];
+            for (int i = 0; i < wordChunks.length; i++) {
+                wordChunks[i] = ByteBuffer.allocateDirect(wordChunkSize(sizeBits, i)).order(ByteOrder.nativeOrder());
+            }
+            return new BufferStorage(wordChunks, ByteBuffer.allocateDirect(numEntries(sizeBits)), null);
+        }
+
+        private static BufferStorage map(final Path file, final int sizeBits) throws IOException {
+            try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final long wordsSize = (long) numWords(sizeBits) * Long.BYTES;
+                final long fileSize = HEADER_SIZE + wordsSize + numEntries(sizeBits);
+                final boolean isReusable = channel.size() == fileSize
+                        && isHeaderValid(channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE), sizeBits);
+                if (!isReusable) {
+                    // Dropping the old content zero-fills the file again as it is mapped
+                    channel.truncate(0);
+                }
+
+                final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                final ByteBuffer[] wordChunks = new ByteBuffer[numWordChunks(sizeBits)];
+                long position = HEADER_SIZE;
+                for (int i = 0; i < wordChunks.length; i++) {
+                    wordChunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, wordChunkSize(sizeBits, i))
+                            .order(ByteOrder.nativeOrder());
+                    position += wordChunks[i].capacity();
+                }
+                final ByteBuffer generations = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        numEntries(sizeBits));
+
+                if (!isReusable) {
+                    writeHeader(header, sizeBits);
+                }
+                return new BufferStorage(wordChunks, generations, header);
+            }
+        }
+
+        private static boolean isHeaderValid(final ByteBuffer header, final int sizeBits) {
+            return header.getLong(MAGIC_OFFSET) == MAGIC
+                    && header.getInt(VERSION_OFFSET) == VERSION
+                    && header.getInt(SIZE_BITS_OFFSET) == sizeBits
+                    && header.getLong(ZOBRIST_SEED_OFFSET) == BoardUtils.ZOBRIST_SEED
+                    && header.getLong(ZOBRIST_KEY_OFFSET) == BoardUtils.ZOBRIST_BLACK_TO_MOVE;
+        }
+
+        private static void writeHeader(final MappedByteBuffer header, final int sizeBits) {
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(SIZE_BITS_OFFSET, sizeBits);
+            header.putLong(ZOBRIST_SEED_OFFSET, BoardUtils.ZOBRIST_SEED);
+            header.putLong(ZOBRIST_KEY_OFFSET, BoardUtils.ZOBRIST_BLACK_TO_MOVE);
+            header.put(GENERATION_OFFSET, (byte) 0);
+            // The magic number goes last, so that a file left half written is not taken as valid
+            header.force();
+            header.putLong(MAGIC_OFFSET, MAGIC);
+            header.force();
+        }
+
+        private static int numEntries(final int sizeBits) {
+            return (1 << sizeBits) * ENTRIES_PER_BUCKET;
+        }
+
+        private static int numWords(final int sizeBits) {
+            return numEntries(sizeBits) * WORDS_PER_ENTRY;
+        }
+
+        private static int numWordChunks(final int sizeBits) {
+            return ((numWords(sizeBits) - 1) >>> WORD_CHUNK_BITS) + 1;
+        }
+
+        private static int wordChunkSize(final int sizeBits, final int chunk) {
+            return Math.min(numWords(sizeBits) - (chunk << WORD_CHUNK_BITS), 1 << WORD_CHUNK_BITS) * Long.BYTES;
+        }
+
+        private byte getSavedGeneration() {
+            return this.header.get(GENERATION_OFFSET);
+        }
+
+        @Override
+        public long getWord(final int index) {
+            return this.wordChunks[index >>> WORD_CHUNK_BITS].getLong((index & WORD_CHUNK_MASK) << 3);
+        }
+
+        @Override
+        public void setWord(final int index, final long word) {
+            this.wordChunks[index >>> WORD_CHUNK_BITS].putLong((index & WORD_CHUNK_MASK) << 3, word);
+        }
+
+        @Override
+        public byte getGeneration(final int entry) {
+            return this.generations.get(entry);
+        }
+
+        @Override
+        public void setGeneration(final int entry, final byte generation) {
+            this.generations.put(entry, generation);
+        }
+
+        @Override
+        public void clear() {
+            for (final ByteBuffer wordChunk : this.wordChunks) {
+                for (int i = 0; i < wordChunk.capacity(); i += Long.BYTES) {
+                    wordChunk.putLong(i, 0L);
+                }
+            }
+            for (int i = 0; i < this.generations.capacity(); i++) {
+                this.generations.put(i, (byte) 0);
+            }
+        }
+
+        @Override
+        public void force(final byte generation) {
+            if (this.header == null) {
+                return;
+            }
+            for (final ByteBuffer wordChunk : this.wordChunks) {
+                ((MappedByteBuffer) wordChunk).force();
+            }
+            ((MappedByteBuffer) this.generations).force();
+            this.header.put(GENERATION_OFFSET, generation);
+            this.header.force();
+        }
+    }
+}
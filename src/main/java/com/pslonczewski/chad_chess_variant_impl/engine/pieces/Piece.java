@@ -1,10 +1,16 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.pieces;
 
+import com.google.common.collect.ImmutableList;
 import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.BitboardPosition;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.EncodedMove;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Move;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public abstract class Piece {
 
@@ -27,6 +33,18 @@ public abstract class Piece {
         return result;
     }
 
+    /**
+     * @return the one piece of the given type and alliance standing on {@code piecePosition}
+     */
+    public static Piece createPiece(final PieceType pieceType, final Alliance pieceAlliance,
+                                    final int piecePosition) {
+        return switch (pieceType) {
+            case ROOK -> Rook.createRook(pieceAlliance, piecePosition);
+            case QUEEN -> Queen.createQueen(pieceAlliance, piecePosition);
+            case KING -> King.createKing(pieceAlliance, piecePosition);
+        };
+    }
+
     public PieceType getPieceType() {
         return this.pieceType;
     }
@@ -43,19 +61,13 @@ public abstract class Piece {
         return this.piecePosition;
     }
 
+    /**
+     * Pieces are interned, one instance per type, alliance and position (see {@link #createPiece}), so two
+     * pieces are equal only when they are the same object.
+     */
     @Override
     public boolean equals(final Object other) {
-        if (this == other) {
-            return true;
-        }
-
-        if (!(other instanceof Piece)) {
-            return false;
-        }
-        final Piece otherPiece = (Piece) other;
-
-        return this.piecePosition == otherPiece.piecePosition && this.pieceType == otherPiece.pieceType
-                && this.pieceAlliance == otherPiece.pieceAlliance;
+        return this == other;
     }
 
     @Override
@@ -63,8 +75,32 @@ public abstract class Piece {
         return this.cachedHashCode;
     }
 
-    public abstract Collection<Move> calculateLegalMoves(final Board board);
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        final MoveList moves = new MoveList();
+        generateMoves(board.getPosition(), moves);
+        final List<Move> legalMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            legalMoves.add(EncodedMove.toMove(board, moves.get(i)));
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
+    /**
+     * Appends this piece's moves on the given position to {@code moves} as {@link EncodedMove encoded moves}.
+     */
+    public void generateMoves(final BitboardPosition position, final MoveList moves) {
+        generateMoves(position, moves, true, true);
+    }
+
+    /**
+     * Same as {@link #generateMoves(BitboardPosition, MoveList)}, but only the attacks and/or only the quiet
+     * moves, so a search can generate them in separate stages.
+     */
+    public abstract void generateMoves(BitboardPosition position, MoveList moves, boolean attacks,
+                                       boolean quietMoves);
+
     public abstract Piece movePiece(Move move);
+    public abstract Piece movePiece(int destinationCoordinate);
 
     public enum PieceType {
 
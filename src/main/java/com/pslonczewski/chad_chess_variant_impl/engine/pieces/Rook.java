@@ -1,89 +1,86 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.pieces;
 
-import com.google.common.collect.ImmutableList;
 import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 public class Rook extends Piece{
 
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = { -12, -1, 1, 12 };
+    private static final Rook[][] ROOKS = createAllPossibleRooks();
 
-    public Rook(final Alliance pieceAlliance, final int piecePosition) {
+    private Rook(final Alliance pieceAlliance, final int piecePosition) {
         super(PieceType.ROOK, piecePosition, pieceAlliance);
     }
 
-    public Collection<Move> calculateLegalMoves(final Board board) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isMoveWithinBoardBounds(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)
-                        || isTwelfthColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
+    private static Rook[][] createAllPossibleRooks() {
+        final Rook[][] rooks = new Rook[Alliance.values().length][BoardUtils.NUM_TILES];
+        for (final Alliance alliance : Alliance.values()) {
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                rooks[alliance.ordinal()][i] = new Rook(alliance, i);
+            }
+        }
+        return rooks;
+    }
 
-                candidateDestinationCoordinate += candidateCoordinateOffset;
+    /**
+     * @return the one rook of {@code pieceAlliance} standing on {@code piecePosition}
+     */
+    public static Rook createRook(final Alliance pieceAlliance, final int piecePosition) {
+        return ROOKS[pieceAlliance.ordinal()][piecePosition];
+    }
 
-                if (BoardUtils.isMoveWithinBoardBounds(candidateDestinationCoordinate)) {
+    @Override
+    public void generateMoves(final BitboardPosition position, final MoveList moves, final boolean attacks,
+                              final boolean quietMoves) {
 
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+        for (final int[] ray : MoveTables.ROOK_RAYS[this.piecePosition]) {
+            for (final int candidateDestinationCoordinate : ray) {
 
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        if (this.pieceAlliance.isPromotionTile(candidateDestinationCoordinate)) {
-                            legalMoves.add(new RookPromotion(new MajorMove(board, this, candidateDestinationCoordinate)));
-                        } else {
-                            legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                        }
+                if (!position.isTileOccupied(candidateDestinationCoordinate)) {
+                    if (!quietMoves) {
+                        continue;
+                    }
+                    if (this.pieceAlliance.isPromotionTile(candidateDestinationCoordinate)) {
+                        moves.add(EncodedMove.encode(this.piecePosition, candidateDestinationCoordinate, this,
+                                null, true));
                     } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAtDestinationAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAtDestinationAlliance) {
-                            // can attack only when rook is in castle and enemy stands on my wall
-                            // or when I stand on wall and enemy is inside castle
-                            // rook attack king from outside the castle
-                            if (pieceAtDestination.getPieceType().isKing()) {
-                                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                                        pieceAtDestination));
-                            } else if (pieceAtDestinationAlliance.isWallTile(this.piecePosition)
-                                    && pieceAtDestinationAlliance.isCastleTile(candidateDestinationCoordinate)) {
-                                // attack move from wall
-                                legalMoves.add(new RookPromotion(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                                        pieceAtDestination)));
-                            } else if (this.pieceAlliance.isCastleTile(this.piecePosition)
-                                    && this.pieceAlliance.isWallTile(candidateDestinationCoordinate)) {
-                                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                                        pieceAtDestination));
-                            }
+                        moves.add(EncodedMove.encode(this.piecePosition, candidateDestinationCoordinate, this,
+                                null, false));
+                    }
+                } else {
+                    final Piece pieceAtDestination = position.getPiece(candidateDestinationCoordinate);
+                    final Alliance pieceAtDestinationAlliance = pieceAtDestination.getPieceAlliance();
+                    if (attacks && this.pieceAlliance != pieceAtDestinationAlliance) {
+                        // can attack only when rook is in castle and enemy stands on my wall
+                        // or when I stand on wall and enemy is inside castle
+                        // rook attack king from outside the castle
+                        if (pieceAtDestination.getPieceType().isKing()) {
+                            moves.add(EncodedMove.encode(this.piecePosition, candidateDestinationCoordinate, this,
+                                    pieceAtDestination, false));
+                        } else if (pieceAtDestinationAlliance.isWallTile(this.piecePosition)
+                                && pieceAtDestinationAlliance.isCastleTile(candidateDestinationCoordinate)) {
+                            // attack move from wall
+                            moves.add(EncodedMove.encode(this.piecePosition, candidateDestinationCoordinate, this,
+                                    pieceAtDestination, true));
+                        } else if (this.pieceAlliance.isCastleTile(this.piecePosition)
+                                && this.pieceAlliance.isWallTile(candidateDestinationCoordinate)) {
+                            moves.add(EncodedMove.encode(this.piecePosition, candidateDestinationCoordinate, this,
+                                    pieceAtDestination, false));
                         }
-                        break;
                     }
+                    break;
                 }
             }
-
         }
-
-        return ImmutableList.copyOf(legalMoves);
     }
 
     @Override
     public Rook movePiece(final Move move) {
-        return new Rook(move.getMovedPiece().pieceAlliance, move.getDestinationCoordinate());
+        return createRook(move.getMovedPiece().pieceAlliance, move.getDestinationCoordinate());
     }
 
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -1);
-    }
-
-    private static boolean isTwelfthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.TWELFTH_COLUMN[currentPosition] && (candidateOffset == 1);
+    @Override
+    public Rook movePiece(final int destinationCoordinate) {
+        return createRook(this.pieceAlliance, destinationCoordinate);
     }
 
     @Override
@@ -92,6 +89,6 @@ public class Rook extends Piece{
     }
 
     public Piece getPromotionPiece() {
-        return new Queen(this.pieceAlliance, this.piecePosition);
+        return Queen.createQueen(this.pieceAlliance, this.piecePosition);
     }
 }
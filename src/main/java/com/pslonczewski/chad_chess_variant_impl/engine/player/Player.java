@@ -1,9 +1,14 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.EncodedMove;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.LegalMoveGenerator;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Move;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveIndex;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveStatus;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveTransition;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
@@ -17,83 +22,105 @@ public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    private final Supplier<Collection<Move>> legalMoves;
+    private final Supplier<MoveIndex> legalMoveIndex;
+    private final Supplier<Boolean> isInCheck;
+    private final Supplier<Boolean> hasEscapeMoves;
+    private final Supplier<LegalMoveGenerator> legalMoveGenerator;
 
-    Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentsMoves) {
+    Player(final Board board) {
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(legalMoves);
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentsMoves).isEmpty();
+        this.legalMoves = Suppliers.memoize(this::calculateLegalMoves);
+        this.legalMoveIndex = Suppliers.memoize(() -> new MoveIndex(getLegalMoves()));
+        this.isInCheck = Suppliers.memoize(() -> this.board.getPosition().isSquareAttacked(
+                this.playerKing.getPiecePosition(), getAlliance().getOpponent()));
+        this.hasEscapeMoves = Suppliers.memoize(this::calculateHasEscapeMoves);
+        this.legalMoveGenerator = Suppliers.memoize(this::createLegalMoveGenerator);
     }
 
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
+    private Collection<Move> calculateLegalMoves() {
+        final List<Move> legalMoves = new ArrayList<>();
 
-        for (final Move move : moves) {
-            if (piecePosition == move.getDestinationCoordinate()) {
-                attackMoves.add(move);
-            }
+        for (final Piece piece : getActivePieces()) {
+            legalMoves.addAll(piece.calculateLegalMoves(this.board));
         }
 
-        return ImmutableList.copyOf(attackMoves);
+        return ImmutableList.copyOf(legalMoves);
     }
 
     private King establishKing() {
-        for (final Piece piece : getActivePieces()) {
-            if (piece.getPieceType().isKing()) {
-                return (King) piece;
-            }
+        final int kingPosition = this.board.getPosition().getKingPosition(getAlliance());
+        if (kingPosition != -1) {
+            return (King) this.board.getPiece(kingPosition);
         }
         throw new RuntimeException("Should not reach here! Not a valid board!");
     }
 
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return this.legalMoveIndex.get().contains(move);
+    }
+
+    /**
+     * @return the move of this player from {@code currentCoordinate} to {@code destinationCoordinate},
+     * or null if there is none
+     */
+    public Move getLegalMove(final int currentCoordinate, final int destinationCoordinate) {
+        return this.legalMoveIndex.get().get(currentCoordinate, destinationCoordinate);
     }
 
     public boolean isInCheck() {
-        return this.isInCheck;
+        return this.isInCheck.get();
     }
 
     public boolean isInCheckMate() {
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     public boolean isInStaleMate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     protected boolean hasEscapeMoves() {
-        for (final Move move : this.legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()) {
-                return true;
-            }
-        }
-        return false;
+        return this.hasEscapeMoves.get();
+    }
+
+    /**
+     * Walks the pieces on the position, king first, and stops at the first move that keeps the king safe,
+     * without building the {@link Move} objects of {@link #getLegalMoves()}.
+     */
+    private boolean calculateHasEscapeMoves() {
+        return this.legalMoveGenerator.get().hasLegalMove();
     }
 
+    private LegalMoveGenerator createLegalMoveGenerator() {
+        final LegalMoveGenerator generator = new LegalMoveGenerator();
+        generator.reset(this.board.getPosition(), getAlliance());
+        return generator;
+    }
+
+    private boolean leavesKingSafe(final Move move) {
+        return this.legalMoveGenerator.get().isLegal(EncodedMove.fromMove(move));
+    }
+
+    /**
+     * Moves that would leave the king attacked are rejected from the checkers and pins of this position,
+     * so only a move that is actually played gets executed.
+     */
     public MoveTransition makeMove(final Move move) {
         if (!isMoveLegal(move)) {
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
 
-        final Board transitionBoard = move.execute();
-
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.getCurrentPlayer()
-              .getOpponent().getPlayerKing().getPiecePosition(),
-              transitionBoard.getCurrentPlayer().getLegalMoves());
-
-        if (!kingAttacks.isEmpty()) {
+        if (!leavesKingSafe(move)) {
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
 
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     public Collection<Move> getLegalMoves() {
-        return this.legalMoves;
+        return this.legalMoves.get();
     }
 
     public King getPlayerKing() {
@@ -1,12 +1,8 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
-import com.google.common.collect.Ordering;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
 import lombok.extern.log4j.Log4j2;
 
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.List;
 import java.util.stream.Collectors;
 
 @Log4j2
@@ -15,66 +11,40 @@ public class AlphaBetaPruningWithMoveSorter implements MoveStrategy {
     private long boardsEvaluated = 0;
     private BoardEvaluator evaluator;
     private MoveSorter moveSorter;
-    private Move[][] killerMoves;
+    private int[][] killerMoves;
     private int depth;
 
     private enum MoveSorter {
 
         SORT {
             @Override
-            Collection<Move> sort(final Collection<Move> moves, final int depth, final Move[][] killerMoves) {
-                return Ordering.from(new Comparator<Move>() {
-
-                    @Override
-                    public int compare(Move move1, Move move2) {
-                        if (move1.isAttack() && !move2.isAttack()) {
-                            return -1;
-                        }
-                        if (!move1.isAttack() && move2.isAttack()) {
-                            return 1;
-                        }
-
-                        if (move1.isAttack()) {
-                            int attackingPieceMove1 = move1.getMovedPiece().getPieceValue();
-                            int attackedPieceMove1 = move1.getAttackedPiece().getPieceValue();
-                            int attackingPieceMove2 = move2.getMovedPiece().getPieceValue();
-                            int attackedPieceMove2 = move2.getAttackedPiece().getPieceValue();
-
-                            return (attackedPieceMove2 - attackingPieceMove2)
-                                    - (attackedPieceMove1 - attackingPieceMove1);
-                        }
-
-                        boolean m1Killer = isKiller(move1, depth, killerMoves);
-                        boolean m2Killer = isKiller(move2, depth, killerMoves);
-
-                        if (m1Killer) {
-                            log.info("");
-                        }
-                        if (m2Killer) {
-                            log.info("Killer move found!");
-                        }
-
-                        if (m1Killer && !m2Killer) return -1;
-                        if (!m1Killer && m2Killer) return 1;
-                        return 0;
+            void sort(final MoveList moves, final int depth, final int[][] killerMoves) {
+                for (int i = 0; i < moves.size(); i++) {
+                    final int move = moves.get(i);
+                    if (EncodedMove.isAttack(move)) {
+                        moves.setScore(i, ATTACK_SCORE + EncodedMove.getAttackedPieceType(move).getPieceValue()
+                                - EncodedMove.getMovedPieceType(move).getPieceValue());
+                    } else {
+                        moves.setScore(i, move == killerMoves[depth - 1][0] || move == killerMoves[depth - 1][1]
+                                ? 1 : 0);
                     }
-
-                    private boolean isKiller(final Move move, final int depth, final Move[][] killerMoves) {
-                        return move.equals(killerMoves[depth - 1][0]) || move.equals(killerMoves[depth - 1][1]);
-                    }
-                }).immutableSortedCopy(moves);
+                }
+                moves.sortByScore();
             }
 
         };
 
-        abstract Collection<Move> sort(Collection<Move> moves, final int depth, final Move[][] killerMoves);
+        // attacks first, by victim value minus attacker value, then killer moves
+        private static final int ATTACK_SCORE = 100_000;
+
+        abstract void sort(MoveList moves, final int depth, final int[][] killerMoves);
     }
 
     public AlphaBetaPruningWithMoveSorter(final int depth) {
         this.evaluator = new StandardBoardEvaluator();
         this.moveSorter = MoveSorter.SORT;
         this.depth = depth;
-        this.killerMoves = new Move[this.depth][2];
+        this.killerMoves = new int[this.depth][2];
     }
 
     @Override
@@ -85,21 +55,24 @@ public class AlphaBetaPruningWithMoveSorter implements MoveStrategy {
     @Override
     public Move execute(final Board board, final int depth) {
         long startTime = System.currentTimeMillis();
-        Move bestMove = null;
+        int bestMove = EncodedMove.NULL_MOVE;
         int currentValue;
         int alpha = Integer.MIN_VALUE;
         int beta = Integer.MAX_VALUE;
 
         System.out.println(board.getCurrentPlayer() + " THINKING with depth = " + depth);
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, this.killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final MoveList moves = searchBoard.generateMoves();
+        this.moveSorter.sort(moves, depth, this.killerMoves);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (searchBoard.make(move)) {
 
                 currentValue = board.getCurrentPlayer().getAlliance().isWhite()
-                                   ? min(moveTransition.getTransitionBoard(), depth - 1,
+                                   ? min(searchBoard, depth - 1,
                                            alpha, beta)
-                                   : max(moveTransition.getTransitionBoard(), depth - 1,
+                                   : max(searchBoard, depth - 1,
                                            alpha, beta);
 
                 if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > alpha) {
@@ -110,104 +83,112 @@ public class AlphaBetaPruningWithMoveSorter implements MoveStrategy {
                     bestMove = move;
                 }
             }
+            searchBoard.unmake(move);
         }
         long endTime = System.currentTimeMillis() - startTime;
         System.out.println("Time elapsed: " + endTime / 1000 + " s");
 
-        return bestMove;
+        return bestMove != EncodedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
     }
 
-    private int min(final Board board, final int depth, final int alpha, int beta) {
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+    private int min(final SearchBoard board, final int depth, final int alpha, int beta) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             return this.evaluator.evaluate(board, depth);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, this.killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
-                    beta = Math.min(beta,
-                                    quietMax(moveTransition.getTransitionBoard(), alpha, beta));
-                } else {
-                    beta = Math.min(beta,
-                                    max(moveTransition.getTransitionBoard(), depth - 1,
-                                        alpha, beta));
-                }
+        final MoveList moves = board.generateMoves();
+        this.moveSorter.sort(moves, depth, this.killerMoves);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (!board.make(move)) {
+                board.unmake(move);
+                continue;
+            }
+            if (depth == 1 && EncodedMove.isAttack(move)) {
+                beta = Math.min(beta,
+                                quietMax(board, alpha, beta));
+            } else {
+                beta = Math.min(beta,
+                                max(board, depth - 1,
+                                    alpha, beta));
+            }
+            board.unmake(move);
 
-                if (beta <= alpha) {
-                    this.storeKillerMove(move, depth);
-                    break;
-                }
+            if (beta <= alpha) {
+                this.storeKillerMove(move, depth);
+                break;
             }
         }
         return beta;
     }
 
-    private int max(final Board board, final int depth, int alpha, final int beta) {
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+    private int max(final SearchBoard board, final int depth, int alpha, final int beta) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             return this.evaluator.evaluate(board, depth);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, this.killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
-                    alpha = Math.max(alpha,
-                                     quietMin(moveTransition.getTransitionBoard(), alpha, beta));
-                } else {
-                    alpha = Math.max(alpha,
-                            min(moveTransition.getTransitionBoard(), depth - 1,
-                                    alpha, beta));
-                }
-                if (beta <= alpha) {
-                    this.storeKillerMove(move, depth);
-                    break;
-                }
+        final MoveList moves = board.generateMoves();
+        this.moveSorter.sort(moves, depth, this.killerMoves);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (!board.make(move)) {
+                board.unmake(move);
+                continue;
+            }
+            if (depth == 1 && EncodedMove.isAttack(move)) {
+                alpha = Math.max(alpha,
+                                 quietMin(board, alpha, beta));
+            } else {
+                alpha = Math.max(alpha,
+                        min(board, depth - 1,
+                                alpha, beta));
+            }
+            board.unmake(move);
+
+            if (beta <= alpha) {
+                this.storeKillerMove(move, depth);
+                break;
             }
         }
         return alpha;
     }
 
-    private int quietMin(final Board board, final int alpha, int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                                                      .stream()
-                                                      .filter(Move::isAttack)
-                                                      .toList(), -1, this.killerMoves)
-                                                .stream().toList();
+    private int quietMin(final SearchBoard board, final int alpha, int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        this.moveSorter.sort(attackMoves, -1, this.killerMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
+                if (board.make(move)) {
                     beta = Math.min(beta,
-                                    quietMax(moveTransition.getTransitionBoard(),
+                                    quietMax(board,
                                              alpha, beta));
-                    if (beta <= alpha) {
-                        break;
-                    }
+                }
+                board.unmake(move);
+                if (beta <= alpha) {
+                    break;
                 }
             }
         }
         return beta;
     }
 
-    private int quietMax(final Board board, int alpha, final int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                                                      .stream()
-                                                      .filter(Move::isAttack)
-                                                      .toList(), -1, this.killerMoves)
-                                                .stream().toList();
+    private int quietMax(final SearchBoard board, int alpha, final int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        this.moveSorter.sort(attackMoves, -1, this.killerMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    alpha = Math.max(alpha, quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
+                if (board.make(move)) {
+                    alpha = Math.max(alpha, quietMin(board, alpha, beta));
                 }
+                board.unmake(move);
                 if (beta <= alpha) {
                     break;
                 }
@@ -216,12 +197,12 @@ public class AlphaBetaPruningWithMoveSorter implements MoveStrategy {
         return alpha;
     }
 
-    private void storeKillerMove(final Move move, final int depth) {
-        if (move.isAttack()) {
+    private void storeKillerMove(final int move, final int depth) {
+        if (EncodedMove.isAttack(move)) {
             return;
         }
 
-        if (!move.equals(this.killerMoves[depth][0])) {
+        if (move != this.killerMoves[depth][0]) {
             this.killerMoves[depth - 1][1] = this.killerMoves[depth][0];
             this.killerMoves[depth - 1][0] = move;
         }
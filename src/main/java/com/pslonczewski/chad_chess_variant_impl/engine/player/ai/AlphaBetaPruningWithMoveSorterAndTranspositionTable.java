@@ -1,6 +1,5 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
-import com.google.common.collect.Ordering;
 import com.pslonczewski.chad_chess_variant_impl.JChess;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardState.NodeType;
@@ -8,92 +7,81 @@ import lombok.extern.log4j.Log4j2;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-depth alpha-beta search with a transposition table.
+ * <p>
+ * Given a {@link ForkJoinPool} the search splits the tree the "young brothers wait" way: at a node at least
+ * {@value #MIN_SPLIT_DEPTH} plies above the horizon the first move is searched alone, and only then are
+ * its siblings searched in parallel, each on its own copy of the position, with the bound found so far.
+ * A sibling that causes a cutoff cancels the siblings still running, and everything below them. The
+ * sibling results are combined in move order, the way the serial search would have met them, so that
+ * the same best move is chosen.
+ * <p>
+ * In root-parallel mode only the root is split: after the first root move has set a bound, every other
+ * root move is searched serially on a virtual thread of its own, starting from the best bound found so far
+ * and sharing the transposition table. The root move is chosen the same way, in move order.
+ */
 @Log4j2
 public class AlphaBetaPruningWithMoveSorterAndTranspositionTable implements MoveStrategy {
 
-    private long boardsEvaluated = 0;
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    private final LongAdder boardsEvaluated = new LongAdder();
     private final BoardEvaluator evaluator = new MyBoardEvaluator();
-    private final MoveSorter moveSorter = MoveSorter.SORT;;
-    private final Map<String, BoardState> rememberedBoards;
-    private Move[][] killerMoves;
+    private final TranspositionTable rememberedBoards;
+    private final MoveHistory moveHistory = new MoveHistory();
     private final int depth;
+    private final ForkJoinPool pool;
+    private final boolean isRootParallel;
 
-    public AlphaBetaPruningWithMoveSorterAndTranspositionTable(final Map<String, BoardState> rememberedBoards,
+    public AlphaBetaPruningWithMoveSorterAndTranspositionTable(final TranspositionTable rememberedBoards,
                                                                final int depth) {
-        this.rememberedBoards = rememberedBoards;
-        this.depth = depth;
-        this.killerMoves = new Move[this.depth][2];
+        this(rememberedBoards, depth, null, false);
     }
 
-    private enum MoveSorter {
-
-        SORT {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves, final int depth, final Move[][] killerMoves) {
-                return Ordering.from(new Comparator<Move>() {
-
-                    @Override
-                    public int compare(Move move1, Move move2) {
-                        if (move1.isAttack() && !move2.isAttack()) {
-                            return -1;
-                        }
-                        if (!move1.isAttack() && move2.isAttack()) {
-                            return 1;
-                        }
-
-                        if (move1.isAttack()) {
-                            int attackingPieceMove1 = move1.getMovedPiece().getPieceValue();
-                            int attackedPieceMove1 = move1.getAttackedPiece().getPieceValue();
-                            int attackingPieceMove2 = move2.getMovedPiece().getPieceValue();
-                            int attackedPieceMove2 = move2.getAttackedPiece().getPieceValue();
-
-                            return (attackedPieceMove2 - attackingPieceMove2)
-                                    - (attackedPieceMove1 - attackingPieceMove1);
-                        }
-
-                        boolean m1Killer = isKiller(move1, depth, killerMoves);
-                        boolean m2Killer = isKiller(move2, depth, killerMoves);
-
-                        if (m1Killer) {
-                            log.info("");
-                        }
-                        if (m2Killer) {
-                            log.info("Killer move found!");
-                        }
-
-                        if (m1Killer && !m2Killer) return -1;
-                        if (!m1Killer && m2Killer) return 1;
-                        return 0;
-                    }
-
-                    private boolean isKiller(final Move move, final int depth, final Move[][] killerMoves) {
-                        return move.equals(killerMoves[depth - 1][0]) || move.equals(killerMoves[depth - 1][1]);
-                    }
-                }).immutableSortedCopy(moves);
-            }
+    /**
+     * @param pool pool to split the search over, or null to search on the calling thread only
+     */
+    public AlphaBetaPruningWithMoveSorterAndTranspositionTable(final TranspositionTable rememberedBoards,
+                                                               final int depth, final ForkJoinPool pool) {
+        this(rememberedBoards, depth, pool, false);
+    }
 
-        };
+    /**
+     * @param isRootParallel whether the root moves after the first are searched on virtual threads
+     */
+    public AlphaBetaPruningWithMoveSorterAndTranspositionTable(final TranspositionTable rememberedBoards,
+                                                               final int depth, final boolean isRootParallel) {
+        this(rememberedBoards, depth, null, isRootParallel);
+    }
 
-        abstract Collection<Move> sort(Collection<Move> moves, final int depth, final Move[][] killerMoves);
+    private AlphaBetaPruningWithMoveSorterAndTranspositionTable(final TranspositionTable rememberedBoards,
+                                                                final int depth, final ForkJoinPool pool,
+                                                                final boolean isRootParallel) {
+        this.rememberedBoards = rememberedBoards;
+        this.depth = depth;
+        this.pool = pool;
+        this.isRootParallel = isRootParallel;
     }
 
     @Override
     public long getNumBoardsEvaluated() {
-        return this.boardsEvaluated;
+        return this.boardsEvaluated.sum();
     }
 
     @Override
     public Move execute(final Board board, final int depth) {
         long startTime = System.currentTimeMillis();
-        Move bestMove = null;
-        int currentValue = 0;
-        int alpha = Integer.MIN_VALUE;
-        int beta = Integer.MAX_VALUE;
 
         // Probably not needed
 //        if (this.rememberedBoards.containsKey(boardHexString)) {
@@ -101,182 +89,476 @@ public class AlphaBetaPruningWithMoveSorterAndTranspositionTable implements Move
 //        }
 
         System.out.println(board.getCurrentPlayer() + " THINKING with depth = " + depth);
+        this.rememberedBoards.newSearch();
+        this.moveHistory.age();
 
-        String topBoardHexString = Long.toHexString(board.getZobristHashCode());
+        final Searcher searcher = new Searcher(new SearchBoard(board), this.moveHistory, 0, null);
+        final boolean isWhite = board.getCurrentPlayer().getAlliance().isWhite();
+        final int bestMove = this.pool == null
+                ? searcher.searchRoot(isWhite, depth)
+                : this.pool.invoke(ForkJoinTask.adapt(() -> searcher.searchRoot(isWhite, depth)));
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, this.killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                String boardHexString = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-                if (this.rememberedBoards.containsKey(boardHexString)
-                        && (depth - 1) <= this.rememberedBoards.get(boardHexString).depth()) {
-                    currentValue = this.rememberedBoards.get(boardHexString).score();
-                    log.info("Board' hash found in remembered board: " + boardHexString);
-                } else {
-                    currentValue = board.getCurrentPlayer().getAlliance().isWhite()
-                            ? min(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta)
-                            : max(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta);
-
-                    this.rememberedBoards.put(boardHexString, new BoardState(depth - 1, currentValue, BoardState.getNodeType(alpha, beta, currentValue)));
-                }
-
-                if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > alpha) {
-                    alpha = currentValue;
-                    bestMove = move;
-                } else if (board.getCurrentPlayer().getAlliance().isBlack() && currentValue < beta) {
-                    beta = currentValue;
-                    bestMove = move;
-                }
-            }
-        }
         long endTime = System.currentTimeMillis() - startTime;
-        System.out.println("The best move was: " + bestMove);
+        System.out.println("The best move was: " + EncodedMove.toString(bestMove));
         System.out.println("Time elapsed: " + endTime / 1000 + " s");
 
-        return bestMove;
+        return bestMove != EncodedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
     }
 
-    private int min(final Board board, final int depth, int alpha, int beta) {
-        String boardHexString = Long.toHexString(board.getZobristHashCode());
-        if (this.rememberedBoards.containsKey(boardHexString)
-            && this.rememberedBoards.get(boardHexString).depth() >= depth) {
-            BoardState boardState = this.rememberedBoards.get(boardHexString);
-            switch (boardState.nodeType()) {
-                case EXACT: return boardState.score();
-                case LOWER: alpha = Math.max(alpha, boardState.score()); break;
-                case UPPER: beta = Math.min(beta, boardState.score()); break;
-            }
-            if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
+    /**
+     * Searches one position, on one thread. The searchers of parallel siblings get their own copy of the
+     * position and stop as soon as a split point above them is cut off. Each gets a {@link MoveHistory#fork()
+     * fork} of the history of the split point, merged back in move order after the join, so that the moves of
+     * a subtree are ordered the same way whatever the timing of the other threads.
+     */
+    private final class Searcher {
+        private final SearchBoard board;
+        private final MoveHistory moveHistory;
+        // Distance from the root of the search to ply 0 of the board
+        private final int rootPly;
+        private final SplitPoint splitPoint;
+        // Whether the last root move score is an exact score from the table rather than from a search
+        private boolean isScoreFromTable;
+
+        private Searcher(final SearchBoard board, final MoveHistory moveHistory, final int rootPly,
+                         final SplitPoint splitPoint) {
+            this.board = board;
+            this.moveHistory = moveHistory;
+            this.rootPly = rootPly;
+            this.splitPoint = splitPoint;
         }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
-            this.boardsEvaluated++;
-            int evaluation = this.evaluator.evaluate(board, depth);
-            this.rememberedBoards.put(boardHexString, new BoardState(depth, evaluation, NodeType.EXACT)); /* TODO Check if depth on end game scenario changes anything!!! */
-            return evaluation;
+        private boolean isAborted() {
+            return this.splitPoint != null && this.splitPoint.isAborted();
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, this.killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
-                    beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(), alpha, beta));
+        private boolean isSplitting(final int depth) {
+            return pool != null && depth >= MIN_SPLIT_DEPTH;
+        }
+
+        private int searchRoot(final boolean isWhite, final int depth) {
+            int bestMove = EncodedMove.NULL_MOVE;
+            int alpha = Integer.MIN_VALUE;
+            int beta = Integer.MAX_VALUE;
+            boolean hasSearchedMove = false;
+
+            final MovePicker movePicker = this.board.getMovePicker(EncodedMove.NULL_MOVE, this.moveHistory,
+                    this.rootPly);
+            for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                if (hasSearchedMove && (isRootParallel || isSplitting(depth))) {
+                    final SplitPoint rootSplitPoint = searchSiblings(isWhite, true, depth, alpha, beta, move,
+                            movePicker);
+                    return rootSplitPoint.bestMove != EncodedMove.NULL_MOVE ? rootSplitPoint.bestMove : bestMove;
+                }
+                final Integer currentValue = searchRootMove(move, isWhite, depth, alpha, beta, true);
+                if (currentValue != null) {
+                    hasSearchedMove = true;
+                    if (isWhite && currentValue > alpha) {
+                        alpha = currentValue;
+                        bestMove = move;
+                    } else if (!isWhite && currentValue < beta) {
+                        beta = currentValue;
+                        bestMove = move;
+                    }
+                }
+            }
+            return bestMove;
+        }
+
+        /**
+         * @param isTableScoreUsed whether a score remembered for the position after the move is taken when it
+         *                         decides the move within the window
+         * @return the score of the root move, or null if it is not legal or the search was aborted
+         */
+        private Integer searchRootMove(final int move, final boolean isWhite, final int depth, final int alpha,
+                                       final int beta, final boolean isTableScoreUsed) {
+            Integer currentValue = null;
+            this.isScoreFromTable = false;
+            if (this.board.make(move)) {
+                final long zobristHashCode = this.board.getZobristHashCode();
+                final BoardState rememberedBoard = rememberedBoards.get(zobristHashCode);
+                if (isTableScoreUsed && rememberedBoard != null && (depth - 1) <= rememberedBoard.depth()
+                        && rememberedBoard.isScoreUsable(alpha, beta)) {
+                    currentValue = rememberedBoard.score();
+                    // A bound decides the move only within this window, which may be narrower than the serial one
+                    this.isScoreFromTable = rememberedBoard.nodeType() == NodeType.EXACT;
                 } else {
-                    int moveScore = max(moveTransition.getTransitionBoard(), depth - 1,
+                    currentValue = isWhite
+                            ? min(depth - 1,
+                            alpha, beta)
+                            : max(depth - 1,
                             alpha, beta);
-                    beta = Math.min(beta, moveScore);
+
+                    if (isAborted()) {
+                        currentValue = null;
+                    } else {
+                        rememberedBoards.put(zobristHashCode, depth - 1, currentValue,
+                                BoardState.getNodeType(alpha, beta, currentValue), EncodedMove.NULL_MOVE);
+                    }
+                }
+            }
+            this.board.unmake(move);
+            return currentValue;
+        }
+
+        private int min(final int depth, int alpha, int beta) {
+            final long zobristHashCode = this.board.getZobristHashCode();
+            final BoardState boardState = rememberedBoards.get(zobristHashCode);
+            if (boardState != null && boardState.depth() >= depth) {
+                switch (boardState.nodeType()) {
+                    case EXACT: return boardState.score();
+                    case LOWER: alpha = Math.max(alpha, boardState.score()); break;
+                    case UPPER: beta = Math.min(beta, boardState.score()); break;
+                }
+                if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
+            }
+
+            if (depth == 0 || this.board.isEndGameScenario()) {
+                boardsEvaluated.increment();
+                int evaluation = evaluator.evaluate(this.board, depth);
+                rememberedBoards.put(zobristHashCode, depth, evaluation,
+                        NodeType.EXACT, EncodedMove.NULL_MOVE); /* TODO Check if depth on end game scenario changes anything!!! */
+                return evaluation;
+            }
+
+            final int originalBeta = beta;
+            int bestMove = EncodedMove.NULL_MOVE;
+            boolean hasSearchedMove = false;
+            final int ttMove = boardState != null ? boardState.bestMove() : EncodedMove.NULL_MOVE;
+            final MovePicker movePicker = this.board.getMovePicker(ttMove, this.moveHistory, this.rootPly);
+            for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                if (hasSearchedMove && isSplitting(depth)) {
+                    final SplitPoint splitPoint = searchSiblings(false, false, depth, alpha, beta, move, movePicker);
+                    if (isAborted()) {
+                        return beta;
+                    }
+                    if (splitPoint.bestMove != EncodedMove.NULL_MOVE) {
+                        beta = splitPoint.bound.get();
+                        bestMove = splitPoint.bestMove;
+                    }
+                    break;
+                }
+                final int previousBeta = beta;
+                if (this.board.make(move)) {
+                    hasSearchedMove = true;
+                    if (depth == 1 && EncodedMove.isAttack(move)) {
+                        beta = Math.min(beta,
+                                quietMax(alpha, beta));
+                    } else {
+                        int moveScore = max(depth - 1,
+                                alpha, beta);
+                        beta = Math.min(beta, moveScore);
+                    }
+                }
+                this.board.unmake(move);
+                if (isAborted()) {
+                    return beta;
+                }
+                if (beta < previousBeta) {
+                    bestMove = move;
                 }
                 if (beta <= alpha) {
-                    this.storeKillerMove(move, depth);
+                    movePicker.storeCutoff(move, depth);
                     break;
                 }
             }
+            rememberedBoards.put(zobristHashCode, depth, beta,
+                    BoardState.getNodeType(alpha, originalBeta, beta), bestMove);
+            return beta;
         }
-        this.rememberedBoards.put(boardHexString, new BoardState(depth, beta, beta <= alpha ? NodeType.UPPER : NodeType.EXACT));
-        return beta;
-    }
 
-    private int max(final Board board, final int depth, int alpha, int beta) {
-        String boardHexString = Long.toHexString(board.getZobristHashCode());
-        if (this.rememberedBoards.containsKey(boardHexString)
-                && this.rememberedBoards.get(boardHexString).depth() >= depth) {
-            BoardState boardState = this.rememberedBoards.get(boardHexString);
-            switch (boardState.nodeType()) {
-                case EXACT: return boardState.score();
-                case LOWER: alpha = Math.max(alpha, boardState.score()); break;
-                case UPPER: beta = Math.min(beta, boardState.score()); break;
+        private int max(final int depth, int alpha, int beta) {
+            final long zobristHashCode = this.board.getZobristHashCode();
+            final BoardState boardState = rememberedBoards.get(zobristHashCode);
+            if (boardState != null && boardState.depth() >= depth) {
+                switch (boardState.nodeType()) {
+                    case EXACT: return boardState.score();
+                    case LOWER: alpha = Math.max(alpha, boardState.score()); break;
+                    case UPPER: beta = Math.min(beta, boardState.score()); break;
+                }
+                if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
             }
-            if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
-        }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
-            this.boardsEvaluated++;
-            int evaluation = this.evaluator.evaluate(board, depth);
-            this.rememberedBoards.put(boardHexString, new BoardState(0, evaluation, NodeType.EXACT));
-            return evaluation;
-        }
+            if (depth == 0 || this.board.isEndGameScenario()) {
+                boardsEvaluated.increment();
+                int evaluation = evaluator.evaluate(this.board, depth);
+                rememberedBoards.put(zobristHashCode, depth, evaluation, NodeType.EXACT, EncodedMove.NULL_MOVE);
+                return evaluation;
+            }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, this.killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
-                    alpha = Math.max(alpha,
-                            quietMin(moveTransition.getTransitionBoard(), alpha, beta));
-                } else {
-                    int moveScore = min(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta);
-                    alpha = Math.max(alpha, moveScore);
+            final int originalAlpha = alpha;
+            int bestMove = EncodedMove.NULL_MOVE;
+            boolean hasSearchedMove = false;
+            final int ttMove = boardState != null ? boardState.bestMove() : EncodedMove.NULL_MOVE;
+            final MovePicker movePicker = this.board.getMovePicker(ttMove, this.moveHistory, this.rootPly);
+            for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                if (hasSearchedMove && isSplitting(depth)) {
+                    final SplitPoint splitPoint = searchSiblings(true, false, depth, alpha, beta, move, movePicker);
+                    if (isAborted()) {
+                        return alpha;
+                    }
+                    if (splitPoint.bestMove != EncodedMove.NULL_MOVE) {
+                        alpha = splitPoint.bound.get();
+                        bestMove = splitPoint.bestMove;
+                    }
+                    break;
+                }
+                final int previousAlpha = alpha;
+                if (this.board.make(move)) {
+                    hasSearchedMove = true;
+                    if (depth == 1 && EncodedMove.isAttack(move)) {
+                        alpha = Math.max(alpha,
+                                quietMin(alpha, beta));
+                    } else {
+                        int moveScore = min(depth - 1,
+                                alpha, beta);
+                        alpha = Math.max(alpha, moveScore);
+                    }
+                }
+                this.board.unmake(move);
+                if (isAborted()) {
+                    return alpha;
+                }
+                if (alpha > previousAlpha) {
+                    bestMove = move;
                 }
                 if (beta <= alpha) {
-                    this.storeKillerMove(move, depth);
+                    movePicker.storeCutoff(move, depth);
                     break;
                 }
             }
+            rememberedBoards.put(zobristHashCode, depth, alpha,
+                    BoardState.getNodeType(originalAlpha, beta, alpha), bestMove);
+            return alpha;
         }
-        this.rememberedBoards.put(boardHexString, new BoardState(depth, alpha, alpha >= beta ? NodeType.LOWER : NodeType.EXACT));
-        return alpha;
-    }
 
-    private int quietMin(final Board board, final int alpha, int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                                                      .stream()
-                                                      .filter(Move::isAttack)
-                                                      .toList(), -1, this.killerMoves)
-                                                .stream().toList();
-        if (attackMoves.isEmpty()) {
-            return this.evaluator.evaluate(board, 0);
-        } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    beta = Math.min(beta,
-                                    quietMax(moveTransition.getTransitionBoard(),
-                                             alpha, beta));
+        private int quietMin(final int alpha, int beta) {
+            final MoveList attackMoves = this.board.generateAttackMoves();
+            MovePicker.sortAttacks(attackMoves);
+            if (attackMoves.isEmpty()) {
+                return evaluator.evaluate(this.board, 0);
+            } else {
+                for (int i = 0; i < attackMoves.size(); i++) {
+                    final int move = attackMoves.get(i);
+                    if (this.board.make(move)) {
+                        beta = Math.min(beta,
+                                        quietMax(alpha, beta));
+                    }
+                    this.board.unmake(move);
                     if (beta <= alpha) {
                         break;
                     }
                 }
             }
+            return beta;
         }
-        return beta;
-    }
 
-    private int quietMax(final Board board, int alpha, final int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                                                      .stream()
-                                                      .filter(Move::isAttack)
-                                                      .toList(), -1, this.killerMoves)
-                                                .stream().toList();
-        if (attackMoves.isEmpty()) {
-            return this.evaluator.evaluate(board, 0);
-        } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    alpha = Math.max(alpha, quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+        private int quietMax(int alpha, final int beta) {
+            final MoveList attackMoves = this.board.generateAttackMoves();
+            MovePicker.sortAttacks(attackMoves);
+            if (attackMoves.isEmpty()) {
+                return evaluator.evaluate(this.board, 0);
+            } else {
+                for (int i = 0; i < attackMoves.size(); i++) {
+                    final int move = attackMoves.get(i);
+                    if (this.board.make(move)) {
+                        alpha = Math.max(alpha, quietMin(alpha, beta));
+                    }
+                    this.board.unmake(move);
+                    if (beta <= alpha) {
+                        break;
+                    }
                 }
-                if (beta <= alpha) {
+            }
+            return alpha;
+        }
+
+        /**
+         * Searches {@code firstSibling} and the moves the picker has left in parallel, then combines their
+         * scores in move order into the split point's bound and best move. The best move stays
+         * {@link EncodedMove#NULL_MOVE} if no sibling improves on {@code alpha} (maximizing) or {@code beta}
+         * (minimizing).
+         * <p>
+         * A sibling searched with a tighter bound than the serial search would have had at its turn, and
+         * failing on it, only gives a bound on its score; it is searched again here, as is a sibling whose
+         * search was cancelled. The best move is then the one the serial search would have chosen.
+         */
+        private SplitPoint searchSiblings(final boolean isMaximizing, final boolean isRoot, final int depth,
+                                          final int alpha, final int beta, final int firstSibling,
+                                          final MovePicker movePicker) {
+            final SplitPoint splitPoint = new SplitPoint(this.splitPoint, isMaximizing ? alpha : beta);
+            for (int move = firstSibling; move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                splitPoint.siblings.add(new SiblingTask(this, splitPoint, move, isMaximizing, isRoot, depth,
+                        alpha, beta));
+            }
+            if (pool == null) {
+                // Root-parallel mode; closing the executor waits for every sibling
+                try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (final SiblingTask sibling : splitPoint.siblings) {
+                        executor.execute(sibling::quietlyInvoke);
+                    }
+                }
+            } else {
+                // Forked last to first, so that this thread takes them back in move order while idle threads
+                // steal the last moves; all of them have copied this position before it changes again
+                for (int i = splitPoint.siblings.size() - 1; i > 0; i--) {
+                    splitPoint.siblings.get(i).fork();
+                }
+                splitPoint.siblings.get(0).invoke();
+                for (final SiblingTask sibling : splitPoint.siblings) {
+                    sibling.quietlyJoin();
+                }
+            }
+
+            int bound = isMaximizing ? alpha : beta;
+            for (final SiblingTask sibling : splitPoint.siblings) {
+                Integer moveScore = sibling.join();
+                final boolean isResearched = moveScore == null
+                        ? !sibling.isIllegal
+                        : !sibling.isScoreFromTable && (isMaximizing
+                                ? moveScore <= sibling.windowBound && sibling.windowBound > bound
+                                : moveScore >= sibling.windowBound && sibling.windowBound < bound);
+                // The cutoffs of a cancelled or repeated search are left out, like the siblings past a cutoff
+                if (moveScore != null && !isResearched) {
+                    this.moveHistory.merge(sibling.moveHistory);
+                }
+                if (isResearched) {
+                    moveScore = searchMove(sibling.move, isMaximizing, isRoot, depth,
+                            isMaximizing ? bound : alpha, isMaximizing ? beta : bound, false);
+                }
+                if (moveScore == null) {
+                    continue;
+                }
+                if (isMaximizing ? moveScore > bound : moveScore < bound) {
+                    bound = moveScore;
+                    splitPoint.bestMove = sibling.move;
+                }
+                if (!isRoot && (isMaximizing ? bound >= beta : bound <= alpha)) {
+                    movePicker.storeCutoff(sibling.move, depth);
                     break;
                 }
             }
+            splitPoint.bound.set(bound);
+            return splitPoint;
+        }
+
+        /**
+         * Searches one move of a split point.
+         *
+         * @return the score of the move, or null if it is not legal or the search was aborted
+         */
+        private Integer searchMove(final int move, final boolean isMaximizing, final boolean isRoot,
+                                   final int depth, final int alpha, final int beta,
+                                   final boolean isTableScoreUsed) {
+            if (isRoot) {
+                return searchRootMove(move, isMaximizing, depth, alpha, beta, isTableScoreUsed);
+            }
+            Integer moveScore = null;
+            if (this.board.make(move)) {
+                moveScore = isMaximizing
+                        ? min(depth - 1, alpha, beta)
+                        : max(depth - 1, alpha, beta);
+            }
+            this.board.unmake(move);
+            return isAborted() ? null : moveScore;
         }
-        return alpha;
     }
 
-    private void storeKillerMove(final Move move, final int depth) {
-        if (move.isAttack()) {
-            return;
+    /**
+     * A node whose moves after the first are searched in parallel. {@code bound} is the best score found
+     * there so far, alpha at a maximizing node and beta at a minimizing one; siblings starting later
+     * search with it.
+     */
+    private static final class SplitPoint {
+        private final SplitPoint parent;
+        private final AtomicInteger bound;
+        private final List<SiblingTask> siblings;
+        private volatile boolean isCutOff;
+        private int bestMove = EncodedMove.NULL_MOVE;
+
+        private SplitPoint(final SplitPoint parent, final int bound) {
+            this.parent = parent;
+            this.bound = new AtomicInteger(bound);
+            this.siblings = new ArrayList<>();
         }
 
-        if (!move.equals(this.killerMoves[depth][0])) {
-            this.killerMoves[depth - 1][1] = this.killerMoves[depth][0];
-            this.killerMoves[depth - 1][0] = move;
+        private boolean isAborted() {
+            for (SplitPoint splitPoint = this; splitPoint != null; splitPoint = splitPoint.parent) {
+                if (splitPoint.isCutOff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Cancels the siblings: those not started yet return at once, the others at their next node.
+         */
+        private void cutOff() {
+            this.isCutOff = true;
         }
     }
 
+    /**
+     * Searches one move of a split point on a copy of its position.
+     *
+     * @return the score of the move, or null if it is not legal or the search was aborted
+     */
+    private final class SiblingTask extends RecursiveTask<Integer> {
+        private final Searcher parent;
+        private final SplitPoint splitPoint;
+        private final int move;
+        private final boolean isMaximizing;
+        private final boolean isRoot;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        // Split point bound the move was searched with, alpha when maximizing and beta when minimizing
+        private int windowBound;
+        private boolean isIllegal;
+        private boolean isScoreFromTable;
+        private MoveHistory moveHistory;
+
+        private SiblingTask(final Searcher parent, final SplitPoint splitPoint, final int move,
+                            final boolean isMaximizing, final boolean isRoot, final int depth, final int alpha,
+                            final int beta) {
+            this.parent = parent;
+            this.splitPoint = splitPoint;
+            this.move = move;
+            this.isMaximizing = isMaximizing;
+            this.isRoot = isRoot;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.splitPoint.isAborted()) {
+                return null;
+            }
+            this.moveHistory = this.parent.moveHistory.fork();
+            final Searcher searcher = new Searcher(new SearchBoard(this.parent.board), this.moveHistory,
+                    this.parent.rootPly + this.parent.board.getPly(), this.splitPoint);
+            this.windowBound = this.splitPoint.bound.get();
+            final Integer moveScore = searcher.searchMove(this.move, this.isMaximizing, this.isRoot, this.depth,
+                    this.isMaximizing ? this.windowBound : this.alpha,
+                    this.isMaximizing ? this.beta : this.windowBound, true);
+            this.isScoreFromTable = searcher.isScoreFromTable;
+            if (moveScore == null) {
+                this.isIllegal = !this.splitPoint.isAborted();
+                return null;
+            }
+
+            final int bound = this.isMaximizing
+                    ? this.splitPoint.bound.accumulateAndGet(moveScore, Math::max)
+                    : this.splitPoint.bound.accumulateAndGet(moveScore, Math::min);
+            if (!this.isRoot && (this.isMaximizing ? bound >= this.beta : bound <= this.alpha)) {
+                this.splitPoint.cutOff();
+            }
+            return moveScore;
+        }
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,39 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+
+/**
+ * Aspiration windows of the iterative deepening searches. From the second iteration on the root is searched
+ * with a window around the score of the previous iteration, as wide as the last change of that score if it
+ * changed by more than {@link #MIN_WIDTH}, and widened on the failing side, twice as far each time, until the
+ * score falls inside. A side wider than {@link #MAX_WIDTH} is left open.
+ */
+final class AspirationWindow {
+
+    static final int MIN_WIDTH = 50;
+    static final int MAX_WIDTH = PieceType.QUEEN.getPieceValue();
+
+    private AspirationWindow() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    /**
+     * The first width of an iteration. The root score of the Chad positions often swings between odd and
+     * even depths, and a window narrower than the swing only fails again and again.
+     */
+    static int getWidth(final int previousScore, final int olderScore) {
+        return (int) Math.max(MIN_WIDTH, Math.min(MAX_WIDTH + 1L, Math.abs((long) previousScore - olderScore)));
+    }
+
+    /**
+     * @param width negative for the lower bound, positive for the upper one
+     * @return the bound, or {@link Integer#MIN_VALUE} / {@link Integer#MAX_VALUE} once the width is over
+     * {@link #MAX_WIDTH}
+     */
+    static int getBound(final int score, final int width) {
+        if (Math.abs(width) > MAX_WIDTH) {
+            return width < 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) score + width));
+    }
+}
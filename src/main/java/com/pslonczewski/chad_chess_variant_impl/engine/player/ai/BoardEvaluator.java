@@ -1,8 +1,11 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
 
 public interface BoardEvaluator {
 
     int evaluate(Board board, int depth);
+
+    int evaluate(SearchBoard board, int depth);
 }
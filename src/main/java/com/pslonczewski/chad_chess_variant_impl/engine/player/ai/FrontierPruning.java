@@ -0,0 +1,106 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+
+/**
+ * Margins of the pruning near the horizon, in points per ply of remaining depth, compared with the static
+ * evaluation of the node by the search's {@link BoardEvaluator}. Scores are from white's point of view, so
+ * for black every comparison is mirrored.
+ * <ul>
+ *     <li>Reverse futility: up to {@link #REVERSE_FUTILITY_DEPTH}, a node whose static evaluation is still
+ *     at least at beta after giving up {@code depth * reverseFutilityMargin} is cut off.</li>
+ *     <li>Razoring: up to {@link #RAZORING_DEPTH}, a node whose static evaluation is below alpha by more than
+ *     {@code depth * razoringMargin} is only searched for attacks, and cut off if they do not reach alpha.</li>
+ *     <li>Futility: up to {@link #FUTILITY_DEPTH}, when the static evaluation plus
+ *     {@code depth * futilityMargin} does not reach alpha, quiet moves that do not give check are skipped
+ *     once one move has been searched.</li>
+ * </ul>
+ * None of them is used in check. A quiet move cannot win material, so the margins are fractions of the value
+ * of a rook, the cheapest piece that can be captured. {@link #getNodePruning} decides which one applies to a
+ * node, for either side.
+ */
+public record FrontierPruning(int futilityMargin, int reverseFutilityMargin, int razoringMargin) {
+
+    public static final FrontierPruning DEFAULT = new FrontierPruning(PieceType.ROOK.getPieceValue() / 2,
+            PieceType.ROOK.getPieceValue() / 2, PieceType.ROOK.getPieceValue());
+
+    public static final int FUTILITY_DEPTH = 2;
+    public static final int REVERSE_FUTILITY_DEPTH = 3;
+    public static final int RAZORING_DEPTH = 2;
+    public static final int MAX_DEPTH = REVERSE_FUTILITY_DEPTH;
+
+    public enum NodePruning {
+        NONE,
+        /** Quiet moves are skipped once one move has been searched. */
+        FUTILITY,
+        /** The node is only searched for attacks, and cut off if they do not reach the bound of the side. */
+        RAZORING,
+        /** The node is cut off at once. */
+        REVERSE_FUTILITY
+    }
+
+    public FrontierPruning {
+        if (futilityMargin < 0 || reverseFutilityMargin < 0 || razoringMargin < 0) {
+            throw new RuntimeException("Pruning margins cannot be negative!");
+        }
+    }
+
+    /**
+     * The pruning of a node not in check, tried in the order reverse futility, razoring and futility. When the
+     * attacks of a razored node do reach the bound, {@link #isFutile} tells whether its quiet moves are skipped.
+     *
+     * @param isWhite whether white is to move in the node
+     */
+    public NodePruning getNodePruning(final int staticEvaluation, final int alpha, final int beta, final int depth,
+                                      final boolean isWhite) {
+        if (isWhite ? isReverseFutileForWhite(staticEvaluation, depth, beta)
+                : isReverseFutileForBlack(staticEvaluation, depth, alpha)) {
+            return NodePruning.REVERSE_FUTILITY;
+        }
+        if (isWhite ? isRazoredForWhite(staticEvaluation, depth, alpha)
+                : isRazoredForBlack(staticEvaluation, depth, beta)) {
+            return NodePruning.RAZORING;
+        }
+        return isFutile(staticEvaluation, alpha, beta, depth, isWhite) ? NodePruning.FUTILITY : NodePruning.NONE;
+    }
+
+    public boolean isFutile(final int staticEvaluation, final int alpha, final int beta, final int depth,
+                            final boolean isWhite) {
+        return isWhite ? isFutileForWhite(staticEvaluation, depth, alpha)
+                : isFutileForBlack(staticEvaluation, depth, beta);
+    }
+
+    /**
+     * @return whether a quiet move of white may be skipped: the static evaluation with the futility margin
+     * does not reach alpha
+     */
+    public boolean isFutileForWhite(final int staticEvaluation, final int depth, final int alpha) {
+        return depth <= FUTILITY_DEPTH && alpha != Integer.MIN_VALUE
+                && (long) staticEvaluation + (long) depth * this.futilityMargin <= alpha;
+    }
+
+    public boolean isFutileForBlack(final int staticEvaluation, final int depth, final int beta) {
+        return depth <= FUTILITY_DEPTH && beta != Integer.MAX_VALUE
+                && (long) staticEvaluation - (long) depth * this.futilityMargin >= beta;
+    }
+
+    public boolean isReverseFutileForWhite(final int staticEvaluation, final int depth, final int beta) {
+        return depth <= REVERSE_FUTILITY_DEPTH && beta != Integer.MAX_VALUE
+                && (long) staticEvaluation - (long) depth * this.reverseFutilityMargin >= beta;
+    }
+
+    public boolean isReverseFutileForBlack(final int staticEvaluation, final int depth, final int alpha) {
+        return depth <= REVERSE_FUTILITY_DEPTH && alpha != Integer.MIN_VALUE
+                && (long) staticEvaluation + (long) depth * this.reverseFutilityMargin <= alpha;
+    }
+
+    public boolean isRazoredForWhite(final int staticEvaluation, final int depth, final int alpha) {
+        return depth <= RAZORING_DEPTH && alpha != Integer.MIN_VALUE
+                && (long) staticEvaluation + (long) depth * this.razoringMargin <= alpha;
+    }
+
+    public boolean isRazoredForBlack(final int staticEvaluation, final int depth, final int beta) {
+        return depth <= RAZORING_DEPTH && beta != Integer.MAX_VALUE
+                && (long) staticEvaluation - (long) depth * this.razoringMargin >= beta;
+    }
+}
@@ -7,38 +7,9 @@ import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
 import java.util.*;
 
 public class IterativeDeepening implements MoveStrategy {
-    private MoveSorter moveSorter = MoveSorter.SORT;
     private BoardEvaluator evaluator = new StandardBoardEvaluator();
     private long boardsEvaluated = 0;
 
-
-    private enum MoveSorter {
-
-        SORT {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves) {
-                return com.google.common.collect.Ordering.from(mvvLva).immutableSortedCopy(moves);
-            }
-        };
-
-        public static Comparator<Move> mvvLva = new Comparator<Move>() {
-            @Override
-            public int compare(final Move move1, final Move move2) {
-                if (!(move1 instanceof MajorAttackMove) && !(move2 instanceof MajorAttackMove)) {
-                    return 0;
-                } else if (!(move1 instanceof MajorAttackMove)) {
-                    return 1;
-                } else if (!(move2 instanceof MajorAttackMove)) {
-                    return -1;
-                }
-                return (move2.getAttackedPiece().getPieceValue() - move2.getMovedPiece().getPieceValue())
-                        - (move1.getAttackedPiece().getPieceValue() - move1.getMovedPiece().getPieceValue());
-            }
-        };
-
-        abstract Collection<Move> sort(Collection<Move> moves);
-    }
-
     @Override
     public long getNumBoardsEvaluated() {
         throw new RuntimeException("Not implemented yet!");
@@ -48,13 +19,15 @@ public class IterativeDeepening implements MoveStrategy {
     public Move execute(Board board, int depth) {
         System.out.println(board.getCurrentPlayer() + " THINKING with depth = " + depth);
 
+        final SearchBoard searchBoard = new SearchBoard(board);
         MoveOrderingBuilder builder = new MoveOrderingBuilder();
         builder.setOrder(board.getCurrentPlayer().getAlliance().isWhite() ? Ordering.DESC : Ordering.ASC);
-        for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
-            builder.addMoveOrderingRecord(move, 0);
+        final MoveList rootMoves = searchBoard.generateMoves();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            builder.addMoveOrderingRecord(rootMoves.get(i), 0);
         }
 
-        Move bestMove = null;
+        int bestMove = EncodedMove.NULL_MOVE;
         int currentDepth = 1;
 
         int alpha = Integer.MIN_VALUE;
@@ -66,13 +39,12 @@ public class IterativeDeepening implements MoveStrategy {
             builder = new MoveOrderingBuilder();
             builder.setOrder(board.getCurrentPlayer().getAlliance().isWhite() ? Ordering.DESC : Ordering.ASC);
             for (final MoveScoreRecord record : records) {
-                final Move move = record.getMove();
-                final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
+                final int move = record.getMove();
+                if (searchBoard.make(move)) {
                     currentValue = board.getCurrentPlayer().getAlliance().isWhite()
-                            ? min(moveTransition.getTransitionBoard(), currentDepth - 1,
+                            ? min(searchBoard, currentDepth - 1,
                                   alpha, beta)
-                            : max(moveTransition.getTransitionBoard(), currentDepth - 1,
+                            : max(searchBoard, currentDepth - 1,
                                   alpha, beta);
                     builder.addMoveOrderingRecord(move, currentValue);
                     if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > alpha) {
@@ -83,103 +55,104 @@ public class IterativeDeepening implements MoveStrategy {
                         bestMove = move;
                     }
                 }
+                searchBoard.unmake(move);
             }
             currentDepth++;
             alpha = Integer.MIN_VALUE;
             beta = Integer.MAX_VALUE;
         }
-        return bestMove;
+        return bestMove != EncodedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
     }
 
-    private int min(final Board board, final int depth, final int alpha, int beta) {
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+    private int min(final SearchBoard board, final int depth, final int alpha, int beta) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             return this.evaluator.evaluate(board, depth);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves())) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, EncodedMove.NULL_MOVE,
+                EncodedMove.NULL_MOVE);
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            if (board.make(move)) {
+                if (depth == 1 && EncodedMove.isAttack(move)) {
                     beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(), alpha, beta));
+                            quietMax(board, alpha, beta));
                 } else {
                     beta = Math.min(beta,
-                            max(moveTransition.getTransitionBoard(), depth - 1,
+                            max(board, depth - 1,
                                     alpha, beta));
                 }
-
-                if (beta <= alpha) {
-                    break;
-                }
+            }
+            board.unmake(move);
+            if (beta <= alpha) {
+                break;
             }
         }
         return beta;
     }
 
-    private int max(final Board board, final int depth, int alpha, final int beta) {
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+    private int max(final SearchBoard board, final int depth, int alpha, final int beta) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             return this.evaluator.evaluate(board, depth);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves())) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, EncodedMove.NULL_MOVE,
+                EncodedMove.NULL_MOVE);
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            if (board.make(move)) {
+                if (depth == 1 && EncodedMove.isAttack(move)) {
                     alpha = Math.max(alpha,
-                            quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+                            quietMin(board, alpha, beta));
                 } else {
                     alpha = Math.max(alpha,
-                            min(moveTransition.getTransitionBoard(), depth - 1,
+                            min(board, depth - 1,
                                     alpha, beta));
                     if (beta <= alpha) {
+                        board.unmake(move);
                         break;
                     }
                 }
             }
+            board.unmake(move);
         }
         return alpha;
     }
 
-    private int quietMin(final Board board, final int alpha, int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList())
-                .stream().toList();
+    private int quietMin(final SearchBoard board, final int alpha, int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        MovePicker.sortAttacks(attackMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
+                if (board.make(move)) {
                     beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(),
+                            quietMax(board,
                                     alpha, beta));
-                    if (beta <= alpha) {
-                        break;
-                    }
+                }
+                board.unmake(move);
+                if (beta <= alpha) {
+                    break;
                 }
             }
         }
         return beta;
     }
 
-    private int quietMax(final Board board, int alpha, final int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList())
-                .stream().toList();
+    private int quietMax(final SearchBoard board, int alpha, final int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        MovePicker.sortAttacks(attackMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    alpha = Math.max(alpha, quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
+                if (board.make(move)) {
+                    alpha = Math.max(alpha, quietMin(board, alpha, beta));
                 }
+                board.unmake(move);
                 if (beta <= alpha) {
                     break;
                 }
@@ -194,15 +167,15 @@ public class IterativeDeepening implements MoveStrategy {
     }
 
     private static class MoveScoreRecord implements Comparable<MoveScoreRecord> {
-        private final Move move;
+        private final int move;
         private final int score;
 
-        public MoveScoreRecord(Move move, int score) {
+        public MoveScoreRecord(int move, int score) {
             this.move = move;
             this.score = score;
         }
 
-        Move getMove() {
+        int getMove() {
             return this.move;
         }
 
@@ -217,7 +190,7 @@ public class IterativeDeepening implements MoveStrategy {
 
         @Override
         public String toString() {
-            return this.move + " : " + this.score;
+            return EncodedMove.toString(this.move) + " : " + this.score;
         }
     }
 
@@ -260,7 +233,7 @@ public class IterativeDeepening implements MoveStrategy {
             this.moveScoreRecords = new ArrayList<>();
         }
 
-        void addMoveOrderingRecord(final Move move,
+        void addMoveOrderingRecord(final int move,
                                    final int score) {
             this.moveScoreRecords.add(new MoveScoreRecord(move, score));
         }
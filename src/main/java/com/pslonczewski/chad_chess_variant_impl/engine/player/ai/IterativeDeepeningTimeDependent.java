@@ -8,47 +8,31 @@ import java.util.*;
 
 @Log4j2
 public class IterativeDeepeningTimeDependent implements MoveStrategy {
-    private MoveSorter moveSorter = MoveSorter.SORT;
     private BoardEvaluator evaluator = new StandardBoardEvaluator();
     private long boardsEvaluated = 0;
     private long timer;
     private Thread timerThread;
     private Thread mainThread = Thread.currentThread();
+    private final boolean isPrincipalVariationSearch;
 
     public IterativeDeepeningTimeDependent(long timer) {
-        this.timer = timer;
+        this(timer, false);
     }
 
-    private enum MoveSorter {
-
-        SORT {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves) {
-                return com.google.common.collect.Ordering.from(mvvLva).immutableSortedCopy(moves);
-            }
-        };
-
-        public static Comparator<Move> mvvLva = new Comparator<Move>() {
-            @Override
-            public int compare(final Move move1, final Move move2) {
-                if (!(move1.isAttack()) && !(move2.isAttack())) {
-                    return 0;
-                } else if (!(move1 instanceof MajorAttackMove)) {
-                    return 1;
-                } else if (!(move2 instanceof MajorAttackMove)) {
-                    return -1;
-                }
-                return (move2.getAttackedPiece().getPieceValue() - move2.getMovedPiece().getPieceValue())
-                        - (move1.getAttackedPiece().getPieceValue() - move1.getMovedPiece().getPieceValue());
-            }
-        };
-
-        abstract Collection<Move> sort(Collection<Move> moves);
+    /**
+     * With principal variation search every move after the first one of a node is only tested against a null
+     * window, and searched again with the full window when the test shows it is better. From the second
+     * iteration on the root is searched with an {@link AspirationWindow} around the score of the previous
+     * iteration.
+     */
+    public IterativeDeepeningTimeDependent(long timer, final boolean isPrincipalVariationSearch) {
+        this.timer = timer;
+        this.isPrincipalVariationSearch = isPrincipalVariationSearch;
     }
 
     @Override
     public long getNumBoardsEvaluated() {
-        throw new RuntimeException("Not implemented yet!");
+        return this.boardsEvaluated;
     }
 
     @Override
@@ -60,189 +44,256 @@ public class IterativeDeepeningTimeDependent implements MoveStrategy {
                 Thread.sleep(Duration.ofSeconds(timer).toMillis());
             } catch (InterruptedException e) {
                 log.info("Timer was not needed");
+                return;
             }
             mainThread.interrupt();
         });
         timerThread.start();
 
+        final SearchBoard searchBoard = new SearchBoard(board);
         MoveOrderingBuilder builder = new MoveOrderingBuilder();
-        for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
-            builder.addMoveOrderingRecord(move, 0);
+        final MoveList rootMoves = searchBoard.generateMoves();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            builder.addMoveOrderingRecord(rootMoves.get(i), 0);
         }
 
-        Move bestMove = null;
+        final boolean isWhite = board.getCurrentPlayer().getAlliance().isWhite();
+        int bestMove = EncodedMove.NULL_MOVE;
         int currentDepth = 1;
-
-        int alpha = Integer.MIN_VALUE;
-        int beta = Integer.MAX_VALUE;
+        int previousScore = 0;
+        int olderScore = 0;
+        boolean hasPreviousScore = false;
 
         while (currentDepth <= depth) {
 
             if (Thread.currentThread().isInterrupted()) {
                 log.info("Method interrupted");
-                return bestMove != null ? bestMove : getDefaultMove(board);
+                return bestMove != EncodedMove.NULL_MOVE
+                        ? Move.MoveFactory.createMove(board, bestMove) : getDefaultMove(board);
             }
 
             int currentValue;
             final List<MoveScoreRecord> records = builder.build();
-            builder = new MoveOrderingBuilder();
-            for (final MoveScoreRecord record : records) {
-                final Move move = record.getMove();
-                final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    currentValue = board.getCurrentPlayer().getAlliance().isWhite()
-                            ? min(moveTransition.getTransitionBoard(), currentDepth - 1,
-                                  alpha, beta)
-                            : max(moveTransition.getTransitionBoard(), currentDepth - 1,
-                                  alpha, beta);
-                    builder.addMoveOrderingRecord(move, currentValue);
-                    if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > alpha) {
-                        alpha = currentValue;
-                        bestMove = move;
-                    } else if (board.getCurrentPlayer().getAlliance().isBlack() && currentValue < beta) {
-                        beta = currentValue;
-                        bestMove = move;
+            final int previousBestMove = bestMove;
+            int aspirationWindow = AspirationWindow.getWidth(previousScore, olderScore);
+            int windowAlpha = Integer.MIN_VALUE;
+            int windowBeta = Integer.MAX_VALUE;
+            if (this.isPrincipalVariationSearch && hasPreviousScore) {
+                windowAlpha = AspirationWindow.getBound(previousScore, -aspirationWindow);
+                windowBeta = AspirationWindow.getBound(previousScore, aspirationWindow);
+            }
+
+            while (true) {
+                int alpha = windowAlpha;
+                int beta = windowBeta;
+                boolean isFirstMove = true;
+                builder = new MoveOrderingBuilder();
+                for (final MoveScoreRecord record : records) {
+                    final int move = record.getMove();
+                    if (searchBoard.make(move)) {
+                        if (this.isPrincipalVariationSearch && !isFirstMove) {
+                            currentValue = isWhite
+                                    ? min(searchBoard, currentDepth - 1, alpha, alpha + 1)
+                                    : max(searchBoard, currentDepth - 1, beta - 1, beta);
+                        } else {
+                            currentValue = isWhite
+                                    ? min(searchBoard, currentDepth - 1, alpha, beta)
+                                    : max(searchBoard, currentDepth - 1, alpha, beta);
+                        }
+                        if (this.isPrincipalVariationSearch && !isFirstMove
+                                && currentValue > alpha && currentValue < beta) {
+                            currentValue = isWhite
+                                    ? min(searchBoard, currentDepth - 1, alpha, beta)
+                                    : max(searchBoard, currentDepth - 1, alpha, beta);
+                        }
+                        isFirstMove = false;
+                        builder.addMoveOrderingRecord(move, currentValue);
+                        if (isWhite && currentValue > alpha) {
+                            alpha = currentValue;
+                            bestMove = move;
+                        } else if (!isWhite && currentValue < beta) {
+                            beta = currentValue;
+                            bestMove = move;
+                        }
                     }
+                    searchBoard.unmake(move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
                 }
+                final int score = isWhite ? alpha : beta;
+                if (score <= windowAlpha && windowAlpha != Integer.MIN_VALUE) {
+                    aspirationWindow *= 2;
+                    windowAlpha = AspirationWindow.getBound(previousScore, -aspirationWindow);
+                } else if (score >= windowBeta && windowBeta != Integer.MAX_VALUE) {
+                    aspirationWindow *= 2;
+                    windowBeta = AspirationWindow.getBound(previousScore, aspirationWindow);
+                } else {
+                    olderScore = hasPreviousScore ? previousScore : score;
+                    previousScore = score;
+                    hasPreviousScore = true;
+                    break;
+                }
+                bestMove = previousBestMove;
             }
             currentDepth++;
 
-            alpha = Integer.MIN_VALUE;
-            beta = Integer.MAX_VALUE;
-
             if (Thread.currentThread().isInterrupted()) {
                 log.info("Method interrupted");
-                return bestMove != null ? bestMove : getDefaultMove(board);
+                return bestMove != EncodedMove.NULL_MOVE
+                        ? Move.MoveFactory.createMove(board, bestMove) : getDefaultMove(board);
             }
         }
         timerThread.interrupt();
-        return bestMove;
+        return bestMove != EncodedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
     }
 
-    private int min(final Board board, final int depth, final int alpha, int beta) {
+    private int min(final SearchBoard board, final int depth, final int alpha, int beta) {
 
         if (Thread.currentThread().isInterrupted()) {
             log.info("Method interrupted");
             return beta;
         }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             return this.evaluator.evaluate(board, depth);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves())) {
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, EncodedMove.NULL_MOVE,
+                EncodedMove.NULL_MOVE);
+        boolean hasSearchedMove = false;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
             if (Thread.currentThread().isInterrupted()) {
                 log.info("Method interrupted");
                 return beta;
             }
 
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
+            if (board.make(move)) {
+                if (depth == 1 && EncodedMove.isAttack(move)) {
                     beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(), alpha, beta));
+                            quietMax(board, alpha, beta));
+                } else if (this.isPrincipalVariationSearch && hasSearchedMove) {
+                    int moveScore = max(board, depth - 1, beta - 1, beta);
+                    if (moveScore > alpha && moveScore < beta) {
+                        moveScore = max(board, depth - 1, alpha, beta);
+                    }
+                    beta = Math.min(beta, moveScore);
                 } else {
                     beta = Math.min(beta,
-                            max(moveTransition.getTransitionBoard(), depth - 1,
+                            max(board, depth - 1,
                                     alpha, beta));
                 }
-
-                if (beta <= alpha) {
-                    break;
-                }
+                hasSearchedMove = true;
+            }
+            board.unmake(move);
+            if (beta <= alpha) {
+                break;
             }
         }
         return beta;
     }
 
-    private int max(final Board board, final int depth, int alpha, final int beta) {
+    private int max(final SearchBoard board, final int depth, int alpha, final int beta) {
 
         if (Thread.currentThread().isInterrupted()) {
             log.info("Method interrupted");
             return alpha;
         }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             return this.evaluator.evaluate(board, depth);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves())) {
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, EncodedMove.NULL_MOVE,
+                EncodedMove.NULL_MOVE);
+        boolean hasSearchedMove = false;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
 
             if (Thread.currentThread().isInterrupted()) {
                 log.info("Method interrupted");
                 return alpha;
             }
 
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
+            if (board.make(move)) {
+                if (depth == 1 && EncodedMove.isAttack(move)) {
                     alpha = Math.max(alpha,
-                            quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+                            quietMin(board, alpha, beta));
                 } else {
-                    alpha = Math.max(alpha,
-                            min(moveTransition.getTransitionBoard(), depth - 1,
-                                    alpha, beta));
+                    if (this.isPrincipalVariationSearch && hasSearchedMove) {
+                        int moveScore = min(board, depth - 1, alpha, alpha + 1);
+                        if (moveScore > alpha && moveScore < beta) {
+                            moveScore = min(board, depth - 1, alpha, beta);
+                        }
+                        alpha = Math.max(alpha, moveScore);
+                    } else {
+                        alpha = Math.max(alpha,
+                                min(board, depth - 1,
+                                        alpha, beta));
+                    }
                     if (beta <= alpha) {
+                        board.unmake(move);
                         break;
                     }
                 }
+                hasSearchedMove = true;
             }
+            board.unmake(move);
         }
         return alpha;
     }
 
-    private int quietMin(final Board board, final int alpha, int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList())
-                .stream().toList();
+    private int quietMin(final SearchBoard board, final int alpha, int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        MovePicker.sortAttacks(attackMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
 
                 if (Thread.currentThread().isInterrupted()) {
                     log.info("Method interrupted");
                     return beta;
                 }
 
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
+                if (board.make(move)) {
                     beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(),
+                            quietMax(board,
                                      alpha, beta));
-                    if (beta <= alpha) {
-                        break;
-                    }
+                }
+                board.unmake(move);
+                if (beta <= alpha) {
+                    break;
                 }
             }
         }
         return beta;
     }
 
-    private int quietMax(final Board board, int alpha, final int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList())
-                .stream().toList();
+    private int quietMax(final SearchBoard board, int alpha, final int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        MovePicker.sortAttacks(attackMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
 
                 if (Thread.currentThread().isInterrupted()) {
                     log.info("Method interrupted");
                     return beta;
                 }
 
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    alpha = Math.max(alpha, quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+                if (board.make(move)) {
+                    alpha = Math.max(alpha, quietMin(board, alpha, beta));
                 }
+                board.unmake(move);
                 if (beta <= alpha) {
                     break;
                 }
@@ -257,15 +308,15 @@ public class IterativeDeepeningTimeDependent implements MoveStrategy {
     }
 
     private static class MoveScoreRecord implements Comparable<MoveScoreRecord> {
-        private final Move move;
+        private final int move;
         private final int score;
 
-        public MoveScoreRecord(Move move, int score) {
+        public MoveScoreRecord(int move, int score) {
             this.move = move;
             this.score = score;
         }
 
-        Move getMove() {
+        int getMove() {
             return this.move;
         }
 
@@ -280,7 +331,7 @@ public class IterativeDeepeningTimeDependent implements MoveStrategy {
 
         @Override
         public String toString() {
-            return this.move + " : " + this.score;
+            return EncodedMove.toString(this.move) + " : " + this.score;
         }
     }
 
@@ -322,7 +373,7 @@ public class IterativeDeepeningTimeDependent implements MoveStrategy {
             this.moveScoreRecords = new ArrayList<>();
         }
 
-        void addMoveOrderingRecord(final Move move,
+        void addMoveOrderingRecord(final int move,
                                    final int score) {
             this.moveScoreRecords.add(new MoveScoreRecord(move, score));
         }
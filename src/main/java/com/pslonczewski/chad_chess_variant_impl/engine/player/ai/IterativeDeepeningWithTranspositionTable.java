@@ -2,284 +2,508 @@ package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
 import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardState.NodeType;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.FrontierPruning.NodePruning;
 import lombok.extern.log4j.Log4j2;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 @Log4j2
 public class IterativeDeepeningWithTranspositionTable implements MoveStrategy {
-    private MoveSorter moveSorter = MoveSorter.SORT;
     private BoardEvaluator evaluator = new MyBoardEvaluator();
-    private long boardsEvaluated = 0;
-    private final Map<String, BoardState> rememberedBoards;
-    private Move[][] killerMoves;
+    private final TranspositionTable rememberedBoards;
     private int depth;
+    private final int threadCount;
+    private final boolean isPrincipalVariationSearch;
+    private final boolean isNullMovePruning;
+    private final boolean isLateMoveReductions;
+    private final FrontierPruning frontierPruning;
+    private final Searcher searcher;
+    private volatile boolean isHelperSearchStopped;
+    private final LongAdder helperBoardsEvaluated = new LongAdder();
+
+    public IterativeDeepeningWithTranspositionTable(TranspositionTable rememberedBoards, final int depth) {
+        this(rememberedBoards, depth, 1);
+    }
 
+    public IterativeDeepeningWithTranspositionTable(TranspositionTable rememberedBoards, final int depth,
+                                                    final int threadCount) {
+        this(rememberedBoards, depth, threadCount, SearchOptions.NONE);
+    }
 
-    public IterativeDeepeningWithTranspositionTable(Map<String, BoardState> rememberedBoards, final int depth) {
+    /**
+     * With more than one thread the search runs as Lazy SMP: {@code threadCount - 1} helper threads search
+     * the same root alongside the calling thread, every other helper starting one depth ahead and all of them
+     * going one depth further than asked, and share their results through the transposition table only.
+     * The move found by the calling thread is played; the helpers are stopped once it is found.
+     * <p>
+     * With principal variation search every move after the first one of a node is only tested against a null
+     * window, and searched again with the full window when the test shows it is better. From the second
+     * iteration on the root is searched with an {@link AspirationWindow} around the score of the previous
+     * iteration.
+     */
+    public IterativeDeepeningWithTranspositionTable(TranspositionTable rememberedBoards, final int depth,
+                                                    final int threadCount, final SearchOptions searchOptions) {
+        if (threadCount < 1) {
+            throw new RuntimeException("Iterative deepening needs at least one thread!");
+        }
         this.rememberedBoards = rememberedBoards;
         this.depth = depth;
-        this.killerMoves = new Move[this.depth][2];
+        this.threadCount = threadCount;
+        this.isPrincipalVariationSearch = searchOptions.isPrincipalVariationSearch();
+        this.isNullMovePruning = searchOptions.isNullMovePruning();
+        this.isLateMoveReductions = searchOptions.isLateMoveReductions();
+        this.frontierPruning = searchOptions.frontierPruning();
+        this.searcher = new Searcher(false);
     }
 
-    private enum MoveSorter {
+    /**
+     * The boards evaluated by the calling thread and by the Lazy SMP helpers, which add theirs once stopped.
+     */
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.searcher.boardsEvaluated + this.helperBoardsEvaluated.sum();
+    }
 
-        SORT {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves, final int depth, final Move[][] killerMoves) {
-                return com.google.common.collect.Ordering.from(new Comparator<Move>() {
+    public long getNumBoardsEvaluatedByCallingThread() {
+        return this.searcher.boardsEvaluated;
+    }
 
-                    @Override
-                    public int compare(Move move1, Move move2) {
-                        if (move1.isAttack() && !move2.isAttack()) {
-                            return -1;
-                        }
-                        if (!move1.isAttack() && move2.isAttack()) {
-                            return 1;
-                        }
+    @Override
+    public Move execute(Board board, int depth) {
+        System.out.println(board.getCurrentPlayer() + " THINKING with depth = " + depth);
+        this.rememberedBoards.newSearch();
+        long startTime = System.currentTimeMillis();
 
-                        if (move1.isAttack()) {
-                            int attackingPieceMove1 = move1.getMovedPiece().getPieceValue();
-                            int attackedPieceMove1 = move1.getAttackedPiece().getPieceValue();
-                            int attackingPieceMove2 = move2.getMovedPiece().getPieceValue();
-                            int attackedPieceMove2 = move2.getAttackedPiece().getPieceValue();
+        this.isHelperSearchStopped = false;
+        final List<Thread> helperThreads = new ArrayList<>();
+        for (int i = 1; i < this.threadCount; i++) {
+            final int firstDepth = 1 + i % 2;
+            helperThreads.add(Thread.ofPlatform().daemon().name("Lazy SMP helper " + i).start(() -> {
+                final Searcher helper = new Searcher(true);
+                try {
+                    helper.search(board, firstDepth, depth + 1);
+                } finally {
+                    this.helperBoardsEvaluated.add(helper.boardsEvaluated);
+                }
+            }));
+        }
 
-                            return (attackedPieceMove2 - attackingPieceMove2)
-                                    - (attackedPieceMove1 - attackingPieceMove1);
-                        }
+        final int bestMove;
+        try {
+            bestMove = this.searcher.search(board, 1, depth);
+        } finally {
+            this.isHelperSearchStopped = true;
+            for (final Thread helperThread : helperThreads) {
+                try {
+                    helperThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        long endTime = System.currentTimeMillis() - startTime;
+        System.out.println("The best move was: " + EncodedMove.toString(bestMove));
+        System.out.println("Time elapsed: " + endTime / 1000 + " s");
+        return bestMove != EncodedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
+    }
 
-                        boolean m1Killer = isKiller(move1, depth, killerMoves);
-                        boolean m2Killer = isKiller(move2, depth, killerMoves);
+    /**
+     * Iterative deepening on one thread, with its own {@link MoveHistory}, aged at every iteration. A helper
+     * searcher gives up as soon as the helpers are stopped, without storing the unfinished results.
+     */
+    private final class Searcher {
+        private long boardsEvaluated = 0;
+        private final MoveHistory moveHistory = new MoveHistory();
+        private final boolean isHelper;
+        private int nullMovePly;
+
+        private Searcher(final boolean isHelper) {
+            this.isHelper = isHelper;
+        }
+
+        private boolean isStopped() {
+            return this.isHelper && isHelperSearchStopped;
+        }
 
-                        if (m1Killer) {
-                            log.info("");
+        private int search(final Board board, final int firstDepth, final int depth) {
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final boolean isWhite = board.getCurrentPlayer().getAlliance().isWhite();
+            MoveOrderingBuilder builder = new MoveOrderingBuilder();
+            final MoveList rootMoves = searchBoard.generateMoves();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                builder.addMoveOrderingRecord(rootMoves.get(i), 0);
+            }
+
+            int bestMove = EncodedMove.NULL_MOVE;
+            int currentDepth = firstDepth;
+            int previousScore = 0;
+            int olderScore = 0;
+            boolean hasPreviousScore = false;
+
+            while (currentDepth <= depth) {
+
+                this.moveHistory.age();
+                int currentValue;
+                final List<MoveScoreRecord> records = builder.build();
+                final int previousBestMove = bestMove;
+                int aspirationWindow = AspirationWindow.getWidth(previousScore, olderScore);
+                int windowAlpha = Integer.MIN_VALUE;
+                int windowBeta = Integer.MAX_VALUE;
+                if (isPrincipalVariationSearch && hasPreviousScore) {
+                    windowAlpha = AspirationWindow.getBound(previousScore, -aspirationWindow);
+                    windowBeta = AspirationWindow.getBound(previousScore, aspirationWindow);
+                }
+
+                while (true) {
+                    int alpha = windowAlpha;
+                    int beta = windowBeta;
+                    boolean isFirstMove = true;
+                    builder = new MoveOrderingBuilder();
+                    for (final MoveScoreRecord record : records) {
+                        final int move = record.getMove();
+                        if (searchBoard.make(move)) {
+                            final long zobristHashCode = searchBoard.getZobristHashCode();
+                            final BoardState rememberedBoard = rememberedBoards.get(zobristHashCode);
+                            if (rememberedBoard != null && (currentDepth - 1) <= rememberedBoard.depth()
+                                    && rememberedBoard.isScoreUsable(alpha, beta)) {
+                                currentValue = rememberedBoard.score();
+                            } else {
+                                int searchAlpha = alpha;
+                                int searchBeta = beta;
+                                if (isPrincipalVariationSearch && !isFirstMove) {
+                                    searchAlpha = isWhite ? alpha : beta - 1;
+                                    searchBeta = isWhite ? alpha + 1 : beta;
+                                }
+                                currentValue = isWhite
+                                        ? min(searchBoard, currentDepth - 1, searchAlpha, searchBeta)
+                                        : max(searchBoard, currentDepth - 1, searchAlpha, searchBeta);
+                                if (currentValue > alpha && currentValue < beta
+                                        && (searchAlpha != alpha || searchBeta != beta) && !isStopped()) {
+                                    searchAlpha = alpha;
+                                    searchBeta = beta;
+                                    currentValue = isWhite
+                                            ? min(searchBoard, currentDepth - 1, alpha, beta)
+                                            : max(searchBoard, currentDepth - 1, alpha, beta);
+                                }
+                                if (isStopped()) {
+                                    return bestMove;
+                                }
+
+                                rememberedBoards.put(zobristHashCode, currentDepth - 1, currentValue,
+                                        BoardState.getNodeType(searchAlpha, searchBeta, currentValue),
+                                        EncodedMove.NULL_MOVE);
+                            }
+                            isFirstMove = false;
+                            builder.addMoveOrderingRecord(move, currentValue);
+                            if (isWhite && currentValue > alpha) {
+                                alpha = currentValue;
+                                bestMove = move;
+                            } else if (!isWhite && currentValue < beta) {
+                                beta = currentValue;
+                                bestMove = move;
+                            }
                         }
-                        if (m2Killer) {
-                            log.info("Killer move found!");
+                        searchBoard.unmake(move);
+                        if (alpha >= beta) {
+                            break;
                         }
-
-                        if (m1Killer && !m2Killer) return -1;
-                        if (!m1Killer && m2Killer) return 1;
-                        return 0;
                     }
 
-                    private boolean isKiller(final Move move, final int depth, final Move[][] killerMoves) {
-                        return move.equals(killerMoves[depth - 1][0]) || move.equals(killerMoves[depth - 1][1]);
+                    final int score = isWhite ? alpha : beta;
+                    if (score <= windowAlpha && windowAlpha != Integer.MIN_VALUE) {
+                        aspirationWindow *= 2;
+                        windowAlpha = AspirationWindow.getBound(previousScore, -aspirationWindow);
+                    } else if (score >= windowBeta && windowBeta != Integer.MAX_VALUE) {
+                        aspirationWindow *= 2;
+                        windowBeta = AspirationWindow.getBound(previousScore, aspirationWindow);
+                    } else {
+                        olderScore = hasPreviousScore ? previousScore : score;
+                        previousScore = score;
+                        hasPreviousScore = true;
+                        break;
                     }
-                }).immutableSortedCopy(moves);
+                    bestMove = previousBestMove;
+                }
+                currentDepth++;
             }
+            return bestMove;
+        }
 
-        };
-
-        abstract Collection<Move> sort(Collection<Move> moves, final int depth, final Move[][] killerMoves);
-    }
-
-    @Override
-    public long getNumBoardsEvaluated() {
-        throw new RuntimeException("Not implemented yet!");
-    }
-
-    @Override
-    public Move execute(Board board, int depth) {
-        System.out.println(board.getCurrentPlayer() + " THINKING with depth = " + depth);
+        private int min(final SearchBoard board, final int depth, int alpha, int beta) {
+            final long zobristHashCode = board.getZobristHashCode();
+            final BoardState boardState = rememberedBoards.get(zobristHashCode);
+            if (boardState != null && boardState.depth() >= depth) {
+                switch (boardState.nodeType()) {
+                    case EXACT: return boardState.score();
+                    case LOWER: alpha = Math.max(alpha, boardState.score()); break;
+                    case UPPER: beta = Math.min(beta, boardState.score()); break;
+                }
+                if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
+            }
 
+            final int originalBeta = beta;
 
-        MoveOrderingBuilder builder = new MoveOrderingBuilder();
-        for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
-            builder.addMoveOrderingRecord(move, 0);
-        }
+            if (depth == 0 || board.isEndGameScenario()) {
+                this.boardsEvaluated++;
+                int evaluation = evaluator.evaluate(board, depth);
+                rememberedBoards.put(zobristHashCode, depth, evaluation,
+                        NodeType.EXACT, EncodedMove.NULL_MOVE); /* TODO Check if depth on end game scenario changes anything!!! */
+                return evaluation;
+            }
 
-        Move bestMove = null;
-        int currentDepth = 1;
+            final boolean isInCheck = board.isInCheck(board.getSideToMove());
+            final NodePruning nodePruning = getNodePruning(board, depth, alpha, beta, isInCheck);
+            if (nodePruning == NodePruning.REVERSE_FUTILITY) {
+                return alpha;
+            }
+            if (nodePruning == NodePruning.RAZORING) {
+                return beta;
+            }
+            final boolean isFutile = nodePruning == NodePruning.FUTILITY;
 
-        int alpha = Integer.MIN_VALUE;
-        int beta = Integer.MAX_VALUE;
-        long startTime = System.currentTimeMillis();
+            if (isNullMoveCutoff(board, depth, alpha, beta)) {
+                return alpha;
+            }
 
-        while (currentDepth <= depth) {
-
-            int currentValue;
-            final List<MoveScoreRecord> records = builder.build();
-            builder = new MoveOrderingBuilder();
-            for (final MoveScoreRecord record : records) {
-                final Move move = record.getMove();
-                final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    String boardHexString = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-                    if (this.rememberedBoards.containsKey(boardHexString)
-                            && (currentDepth - 1) <= this.rememberedBoards.get(boardHexString).depth()) {
-                        currentValue = rememberedBoards.get(boardHexString).score();
-                        log.info("Board' hash found in remembered board: {}", boardHexString);
+            int bestMove = EncodedMove.NULL_MOVE;
+            final int ttMove = boardState != null ? boardState.bestMove() : EncodedMove.NULL_MOVE;
+            final MovePicker movePicker = board.getMovePicker(ttMove, this.moveHistory, 0);
+            int searchedMoveCount = 0;
+            for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                final int previousBeta = beta;
+                final boolean isReducible = isLateMoveReductions
+                        && LateMoveReductions.isReducible(movePicker, move, depth, searchedMoveCount, isInCheck);
+                if (board.make(move)
+                        && !(isFutile && searchedMoveCount > 0 && LateMoveReductions.isQuietMove(board, move))) {
+                    if (depth == 1 && EncodedMove.isAttack(move)) {
+                        beta = Math.min(beta,
+                                quietMax(board, alpha, beta));
                     } else {
-                        currentValue = board.getCurrentPlayer().getAlliance().isWhite()
-                                ? min(moveTransition.getTransitionBoard(), currentDepth - 1,
-                                alpha, beta)
-                                : max(moveTransition.getTransitionBoard(), currentDepth - 1,
-                                alpha, beta);
-
-                        this.rememberedBoards.put(boardHexString,
-                                new BoardState(currentDepth - 1, currentValue,
-                                        BoardState.getNodeType(alpha, beta, currentValue)
-                                ));
-                    }
-                    builder.addMoveOrderingRecord(move, currentValue);
-                    if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > alpha) {
-                        alpha = currentValue;
-                        bestMove = move;
-                    } else if (board.getCurrentPlayer().getAlliance().isBlack() && currentValue < beta) {
-                        beta = currentValue;
-                        bestMove = move;
+                        beta = Math.min(beta,
+                                searchMadeMove(board, depth, alpha, beta, searchedMoveCount, isReducible));
                     }
+                    searchedMoveCount++;
+                }
+                board.unmake(move);
+                if (isStopped()) {
+                    return beta;
+                }
+                if (beta < previousBeta) {
+                    bestMove = move;
+                }
+                if (beta <= alpha) {
+                    movePicker.storeCutoff(move, depth);
+                    break;
                 }
-            }
-//                String topBoardHexString = Long.toHexString(board.getZobristHashCode());
-//                this.rememberedBoards.put(topBoardHexString, new BoardState(currentDepth,
-//                        board.getCurrentPlayer().getAlliance().isWhite()
-//                                ? alpha : beta)); // ?
-            currentDepth++;
-
-            alpha = Integer.MIN_VALUE;
-            beta = Integer.MAX_VALUE;
-        }
-        long endTime = System.currentTimeMillis() - startTime;
-        System.out.println("The best move was: " + bestMove);
-        System.out.println("Time elapsed: " + endTime / 1000 + " s");
-        return bestMove;
-    }
 
-    private int min(final Board board, final int depth, int alpha, int beta) {
-        String boardHexString = Long.toHexString(board.getZobristHashCode());
-        if (this.rememberedBoards.containsKey(boardHexString)
-                && this.rememberedBoards.get(boardHexString).depth() >= depth) {
-            log.info("Boards' hash found in remembered board: {}", boardHexString);
-            BoardState boardState = rememberedBoards.get(boardHexString);
-            switch (boardState.nodeType()) {
-                case EXACT: return boardState.score();
-                case LOWER: alpha = Math.max(alpha, boardState.score()); break;
-                case UPPER: beta = Math.min(beta, boardState.score()); break;
             }
-            if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
-        }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
-            this.boardsEvaluated++;
-            int evaluation = this.evaluator.evaluate(board, depth);
-            this.rememberedBoards.put(boardHexString, new BoardState(depth, evaluation, NodeType.EXACT)); /* TODO Check if depth on end game scenario changes anything!!! */
-            return evaluation;
+            rememberedBoards.put(zobristHashCode, depth, beta,
+                    BoardState.getNodeType(alpha, originalBeta, beta), bestMove);
+            return beta;
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            String zobristHexHashCode = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
-                    beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(), alpha, beta));
-                } else {
-                    int moveScore = max(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta);
-                    beta = Math.min(beta, moveScore);
+        private int max(final SearchBoard board, final int depth, int alpha, int beta) {
+            final long zobristHashCode = board.getZobristHashCode();
+            final BoardState boardState = rememberedBoards.get(zobristHashCode);
+            if (boardState != null && boardState.depth() >= depth) {
+                switch (boardState.nodeType()) {
+                    case EXACT: return boardState.score();
+                    case LOWER: alpha = Math.max(alpha, boardState.score()); break;
+                    case UPPER: beta = Math.min(beta, boardState.score()); break;
                 }
+                if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
+            }
+
+            if (depth == 0 || board.isEndGameScenario()) {
+                this.boardsEvaluated++;
+                int evaluation = evaluator.evaluate(board, depth);
+                rememberedBoards.put(zobristHashCode, depth, evaluation, NodeType.EXACT, EncodedMove.NULL_MOVE);
+                return evaluation;
+            }
+
+            final boolean isInCheck = board.isInCheck(board.getSideToMove());
+            final NodePruning nodePruning = getNodePruning(board, depth, alpha, beta, isInCheck);
+            if (nodePruning == NodePruning.REVERSE_FUTILITY) {
+                return beta;
+            }
+            if (nodePruning == NodePruning.RAZORING) {
+                return alpha;
+            }
+            final boolean isFutile = nodePruning == NodePruning.FUTILITY;
 
+            if (isNullMoveCutoff(board, depth, alpha, beta)) {
+                return beta;
+            }
+
+            final int originalAlpha = alpha;
+            int bestMove = EncodedMove.NULL_MOVE;
+            final int ttMove = boardState != null ? boardState.bestMove() : EncodedMove.NULL_MOVE;
+            final MovePicker movePicker = board.getMovePicker(ttMove, this.moveHistory, 0);
+            int searchedMoveCount = 0;
+            for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                final int previousAlpha = alpha;
+                final boolean isReducible = isLateMoveReductions
+                        && LateMoveReductions.isReducible(movePicker, move, depth, searchedMoveCount, isInCheck);
+                if (board.make(move)
+                        && !(isFutile && searchedMoveCount > 0 && LateMoveReductions.isQuietMove(board, move))) {
+                    if (depth == 1 && EncodedMove.isAttack(move)) {
+                        alpha = Math.max(alpha,
+                                quietMin(board, alpha, beta));
+                    } else {
+                        alpha = Math.max(alpha,
+                                searchMadeMove(board, depth, alpha, beta, searchedMoveCount, isReducible));
+                    }
+                    searchedMoveCount++;
+                }
+                board.unmake(move);
+                if (isStopped()) {
+                    return alpha;
+                }
+                if (alpha > previousAlpha) {
+                    bestMove = move;
+                }
                 if (beta <= alpha) {
-                    this.storeKillerMove(move, depth);
+                    movePicker.storeCutoff(move, depth);
                     break;
                 }
             }
 
+            rememberedBoards.put(zobristHashCode, depth, alpha,
+                    BoardState.getNodeType(originalAlpha, beta, alpha), bestMove);
+            return alpha;
         }
 
-        this.rememberedBoards.put(boardHexString, new BoardState(depth, beta, alpha >= beta ? NodeType.LOWER : NodeType.EXACT));
-        return beta;
-    }
-
-    private int max(final Board board, final int depth, int alpha, int beta) {
-        String boardHexString = Long.toHexString(board.getZobristHashCode());
-        if (this.rememberedBoards.containsKey(boardHexString)
-                && this.rememberedBoards.get(boardHexString).depth() >= depth) {
-            BoardState boardState = rememberedBoards.get(boardHexString);
-            switch (boardState.nodeType()) {
-                case EXACT: return boardState.score();
-                case LOWER: alpha = Math.max(alpha, boardState.score()); break;
-                case UPPER: beta = Math.min(beta, boardState.score()); break;
+        /**
+         * The {@link FrontierPruning} of a node, with the attacks of a razored node already searched: it stays
+         * {@link NodePruning#RAZORING} only when they do not reach the bound of the side to move.
+         */
+        private NodePruning getNodePruning(final SearchBoard board, final int depth, final int alpha, final int beta,
+                                           final boolean isInCheck) {
+            if (frontierPruning == null || depth > FrontierPruning.MAX_DEPTH || isInCheck) {
+                return NodePruning.NONE;
+            }
+            final boolean isWhite = board.getSideToMove().isWhite();
+            final int staticEvaluation = evaluator.evaluate(board, depth);
+            final NodePruning nodePruning = frontierPruning.getNodePruning(staticEvaluation, alpha, beta, depth,
+                    isWhite);
+            if (nodePruning != NodePruning.RAZORING) {
+                return nodePruning;
             }
-            if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
+            if (isWhite ? quietMax(board, alpha, alpha + 1) <= alpha : quietMin(board, beta - 1, beta) >= beta) {
+                return NodePruning.RAZORING;
+            }
+            return frontierPruning.isFutile(staticEvaluation, alpha, beta, depth, isWhite)
+                    ? NodePruning.FUTILITY : NodePruning.NONE;
         }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
-            this.boardsEvaluated++;
-            int evaluation = this.evaluator.evaluate(board, depth);
-            this.rememberedBoards.put(boardHexString, new BoardState(depth, evaluation, NodeType.EXACT));
-            return evaluation;
+        private int minOrMax(final SearchBoard board, final int depth, final int alpha, final int beta) {
+            return board.getSideToMove().isWhite() ? max(board, depth, alpha, beta) : min(board, depth, alpha, beta);
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(),depth, killerMoves)) {
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            String zobristHexHashCode = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
-                    alpha = Math.max(alpha,
-                            quietMin(moveTransition.getTransitionBoard(), alpha, beta));
-                } else {
-                    int moveScore = min(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta);
-                    alpha = Math.max(alpha, moveScore);
+        /**
+         * Whether the side to move, passing the turn, is still at least at beta (at most at alpha for black), see
+         * {@link NullMovePruning}.
+         * Once the search is stopped it answers yes at once, its scores being thrown away.
+         */
+        private boolean isNullMoveCutoff(final SearchBoard board, final int depth, final int alpha, final int beta) {
+            final boolean isWhite = board.getSideToMove().isWhite();
+            final int bound = isWhite ? beta : alpha;
+            if (!isNullMovePruning || bound == (isWhite ? Integer.MAX_VALUE : Integer.MIN_VALUE)
+                    || board.getPly() < this.nullMovePly || !NullMovePruning.isAllowed(board, depth)) {
+                return false;
+            }
+            final int nullAlpha = isWhite ? beta - 1 : alpha;
+            final int reduction = NullMovePruning.getReduction(depth);
+            board.makeNullMove();
+            final int nullMoveScore = minOrMax(board, depth - 1 - reduction, nullAlpha, nullAlpha + 1);
+            board.unmakeNullMove();
+            if (isStopped()) {
+                return true;
+            }
+            if (isWhite ? nullMoveScore < bound : nullMoveScore > bound) {
+                return false;
+            }
+            if (depth < NullMovePruning.VERIFICATION_DEPTH) {
+                return true;
+            }
+            final int previousNullMovePly = this.nullMovePly;
+            this.nullMovePly = NullMovePruning.getVerificationPly(board, depth);
+            final int verificationScore = minOrMax(board, depth - reduction, nullAlpha, nullAlpha + 1);
+            this.nullMovePly = previousNullMovePly;
+            return isWhite ? verificationScore >= bound : verificationScore <= bound;
+        }
+
+        /**
+         * Searches a move just made in a node with these bounds: first reduced when {@link LateMoveReductions}
+         * allow it, against a null window after the first move with principal variation search, and with the
+         * full window when one of those shows it may be better than the bound.
+         *
+         * @return the score of the move, or the bound of the side that made it when the move is not better
+         */
+        private int searchMadeMove(final SearchBoard board, final int depth, final int alpha, final int beta,
+                                   final int searchedMoveCount, final boolean isReducible) {
+            final boolean isWhiteMove = !board.getSideToMove().isWhite();
+            final int bound = isWhiteMove ? alpha : beta;
+            final int nullAlpha = isWhiteMove ? alpha : beta - 1;
+            if (isReducible && LateMoveReductions.isReducedOnceMade(board)) {
+                final int reducedScore = minOrMax(board, LateMoveReductions.getReducedDepth(depth, searchedMoveCount),
+                        nullAlpha, nullAlpha + 1);
+                if ((isWhiteMove ? reducedScore <= bound : reducedScore >= bound) || isStopped()) {
+                    return bound;
                 }
             }
-            if (beta <= alpha) {
-                this.storeKillerMove(move, depth);
-                break;
+            if (isPrincipalVariationSearch && searchedMoveCount > 0) {
+                final int moveScore = minOrMax(board, depth - 1, nullAlpha, nullAlpha + 1);
+                return moveScore > alpha && moveScore < beta && !isStopped()
+                        ? minOrMax(board, depth - 1, alpha, beta) : moveScore;
             }
+            return minOrMax(board, depth - 1, alpha, beta);
         }
-        return alpha;
-    }
 
-    private int quietMin(final Board board, final int alpha, int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList(), -1, this.killerMoves)
-                .stream().toList();
-        if (attackMoves.isEmpty()) {
-            return this.evaluator.evaluate(board, 0);
-        } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(),
-                                     alpha, beta));
+        private int quietMin(final SearchBoard board, final int alpha, int beta) {
+            final MoveList attackMoves = board.generateAttackMoves();
+            MovePicker.sortAttacks(attackMoves);
+            if (attackMoves.isEmpty()) {
+                return evaluator.evaluate(board, 0);
+            } else {
+                for (int i = 0; i < attackMoves.size(); i++) {
+                    final int move = attackMoves.get(i);
+                    if (board.make(move)) {
+                        beta = Math.min(beta,
+                                quietMax(board,
+                                         alpha, beta));
+                    }
+                    board.unmake(move);
                     if (beta <= alpha) {
                         break;
                     }
                 }
             }
+            return beta;
         }
-        return beta;
-    }
 
-    private int quietMax(final Board board, int alpha, final int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList(), -1, this.killerMoves)
-                .stream().toList();
-        if (attackMoves.isEmpty()) {
-            return this.evaluator.evaluate(board, 0);
-        } else {
-            for (Move move : attackMoves) {
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    alpha = Math.max(alpha, quietMin(moveTransition.getTransitionBoard(), alpha, beta));
-                }
-                if (beta <= alpha) {
-                    break;
+        private int quietMax(final SearchBoard board, int alpha, final int beta) {
+            final MoveList attackMoves = board.generateAttackMoves();
+            MovePicker.sortAttacks(attackMoves);
+            if (attackMoves.isEmpty()) {
+                return evaluator.evaluate(board, 0);
+            } else {
+                for (int i = 0; i < attackMoves.size(); i++) {
+                    final int move = attackMoves.get(i);
+                    if (board.make(move)) {
+                        alpha = Math.max(alpha, quietMin(board, alpha, beta));
+                    }
+                    board.unmake(move);
+                    if (beta <= alpha) {
+                        break;
+                    }
                 }
             }
+            return alpha;
         }
-        return alpha;
     }
 
     @Override
@@ -288,15 +512,15 @@ public class IterativeDeepeningWithTranspositionTable implements MoveStrategy {
     }
 
     private static class MoveScoreRecord implements Comparable<MoveScoreRecord> {
-        private final Move move;
+        private final int move;
         private final int score;
 
-        public MoveScoreRecord(Move move, int score) {
+        public MoveScoreRecord(int move, int score) {
             this.move = move;
             this.score = score;
         }
 
-        Move getMove() {
+        int getMove() {
             return this.move;
         }
 
@@ -311,7 +535,7 @@ public class IterativeDeepeningWithTranspositionTable implements MoveStrategy {
 
         @Override
         public String toString() {
-            return this.move + " : " + this.score;
+            return EncodedMove.toString(this.move) + " : " + this.score;
         }
     }
 
@@ -354,7 +578,7 @@ public class IterativeDeepeningWithTranspositionTable implements MoveStrategy {
             this.moveScoreRecords = new ArrayList<>();
         }
 
-        void addMoveOrderingRecord(final Move move,
+        void addMoveOrderingRecord(final int move,
                                    final int score) {
             this.moveScoreRecords.add(new MoveScoreRecord(move, score));
         }
@@ -364,17 +588,6 @@ public class IterativeDeepeningWithTranspositionTable implements MoveStrategy {
         }
     }
 
-    private void storeKillerMove(final Move move, final int depth) {
-        if (move.isAttack()) {
-            return;
-        }
-
-        if (!move.equals(this.killerMoves[depth][0])) {
-            this.killerMoves[depth - 1][1] = this.killerMoves[depth][0];
-            this.killerMoves[depth - 1][0] = move;
-        }
-    }
-
     private Move getDefaultMove(Board board) {
         Collection<Move> legalMoves = board.getCurrentPlayer().getLegalMoves();
         return legalMoves.isEmpty() ? null : legalMoves.stream().findFirst().get();
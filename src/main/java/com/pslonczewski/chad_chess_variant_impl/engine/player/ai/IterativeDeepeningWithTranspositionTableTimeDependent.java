@@ -3,6 +3,7 @@ package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 import com.google.common.collect.Ordering;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardState.NodeType;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.FrontierPruning.NodePruning;
 import lombok.extern.log4j.Log4j2;
 
 import java.time.Duration;
@@ -10,84 +11,46 @@ import java.util.*;
 
 @Log4j2
 public class IterativeDeepeningWithTranspositionTableTimeDependent implements MoveStrategy {
-    private MoveSorter moveSorter = MoveSorter.SORT;
     private BoardEvaluator evaluator = new StandardBoardEvaluator();
     private long boardsEvaluated = 0;
     private long timer;
     private Thread timerThread;
     private Thread mainThread;
-    private final Map<String, BoardState> rememberedBoards;
-    private Move[][] killerMoves;
+    private final TranspositionTable rememberedBoards;
+    private final MoveHistory moveHistory = new MoveHistory();
     private int depth;
+    private final boolean isNullMovePruning;
+    private final boolean isLateMoveReductions;
+    private final FrontierPruning frontierPruning;
+    private int nullMovePly;
 
 
-    public IterativeDeepeningWithTranspositionTableTimeDependent(Map<String, BoardState> rememberedBoards, long timer, final int depth) {
+    public IterativeDeepeningWithTranspositionTableTimeDependent(TranspositionTable rememberedBoards, long timer, final int depth) {
+        this(rememberedBoards, timer, depth, SearchOptions.NONE);
+    }
+
+    /**
+     * The search runs with the full window, so {@link SearchOptions#isPrincipalVariationSearch()} is not used.
+     */
+    public IterativeDeepeningWithTranspositionTableTimeDependent(TranspositionTable rememberedBoards, long timer,
+                                                                 final int depth, final SearchOptions searchOptions) {
         this.timer = timer;
         this.rememberedBoards = rememberedBoards;
         this.depth = depth;
-        this.killerMoves = new Move[this.depth][2];
-    }
-
-    private enum MoveSorter {
-
-        SORT {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves, final int depth, final Move[][] killerMoves) {
-                return com.google.common.collect.Ordering.from(new Comparator<Move>() {
-
-                    @Override
-                    public int compare(Move move1, Move move2) {
-                        if (move1.isAttack() && !move2.isAttack()) {
-                            return -1;
-                        }
-                        if (!move1.isAttack() && move2.isAttack()) {
-                            return 1;
-                        }
-
-                        if (move1.isAttack()) {
-                            int attackingPieceMove1 = move1.getMovedPiece().getPieceValue();
-                            int attackedPieceMove1 = move1.getAttackedPiece().getPieceValue();
-                            int attackingPieceMove2 = move2.getMovedPiece().getPieceValue();
-                            int attackedPieceMove2 = move2.getAttackedPiece().getPieceValue();
-
-                            return (attackedPieceMove2 - attackingPieceMove2)
-                                    - (attackedPieceMove1 - attackingPieceMove1);
-                        }
-
-                        boolean m1Killer = isKiller(move1, depth, killerMoves);
-                        boolean m2Killer = isKiller(move2, depth, killerMoves);
-
-                        if (m1Killer) {
-                            log.info("");
-                        }
-                        if (m2Killer) {
-                            log.info("Killer move found!");
-                        }
-
-                        if (m1Killer && !m2Killer) return -1;
-                        if (!m1Killer && m2Killer) return 1;
-                        return 0;
-                    }
-
-                    private boolean isKiller(final Move move, final int depth, final Move[][] killerMoves) {
-                        return move.equals(killerMoves[depth - 1][0]) || move.equals(killerMoves[depth - 1][1]);
-                    }
-                }).immutableSortedCopy(moves);
-            }
-
-        };
-
-        abstract Collection<Move> sort(Collection<Move> moves, final int depth, final Move[][] killerMoves);
+        this.isNullMovePruning = searchOptions.isNullMovePruning();
+        this.isLateMoveReductions = searchOptions.isLateMoveReductions();
+        this.frontierPruning = searchOptions.frontierPruning();
     }
 
     @Override
     public long getNumBoardsEvaluated() {
-        throw new RuntimeException("Not implemented yet!");
+        return this.boardsEvaluated;
     }
 
     @Override
     public Move execute(Board board, int depth) {
         System.out.println(board.getCurrentPlayer() + " THINKING with depth = " + depth);
+        this.rememberedBoards.newSearch();
 
         this.mainThread = Thread.currentThread();
 
@@ -102,18 +65,21 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
                 Thread.sleep(Duration.ofSeconds(timer).toMillis());
             } catch (InterruptedException e) {
                 log.info("Timer was not needed");
+                return;
             }
             mainThread.interrupt();
         });
         timerThread.start();
 
         try {
+            final SearchBoard searchBoard = new SearchBoard(board);
             MoveOrderingBuilder builder = new MoveOrderingBuilder();
-            for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
-                builder.addMoveOrderingRecord(move, 0);
+            final MoveList rootMoves = searchBoard.generateMoves();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                builder.addMoveOrderingRecord(rootMoves.get(i), 0);
             }
 
-            Move bestMove = null;
+            int bestMove = EncodedMove.NULL_MOVE;
             int currentDepth = 1;
 
             int alpha = Integer.MIN_VALUE;
@@ -121,35 +87,34 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
 
             while (currentDepth <= depth) {
 
+                this.moveHistory.age();
                 if (Thread.currentThread().isInterrupted()) {
                     log.info("Method interrupted");
-                    System.out.println("The best move was " + bestMove);
-                    return bestMove != null ? bestMove : getDefaultMove(board);
+                    System.out.println("The best move was " + EncodedMove.toString(bestMove));
+                    return bestMove != EncodedMove.NULL_MOVE
+                            ? Move.MoveFactory.createMove(board, bestMove) : getDefaultMove(board);
                 }
 
                 int currentValue;
                 final List<MoveScoreRecord> records = builder.build();
                 builder = new MoveOrderingBuilder();
                 for (final MoveScoreRecord record : records) {
-                    final Move move = record.getMove();
-                    final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                    if (moveTransition.getMoveStatus().isDone()) {
-                        String boardHexString = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-                        if (this.rememberedBoards.containsKey(boardHexString)
-                                && (currentDepth - 1) <= this.rememberedBoards.get(boardHexString).depth()) {
-                            currentValue = rememberedBoards.get(boardHexString).score();
-                            log.info("Board' hash found in remembered board: {}", boardHexString);
+                    final int move = record.getMove();
+                    if (searchBoard.make(move)) {
+                        final long zobristHashCode = searchBoard.getZobristHashCode();
+                        final BoardState rememberedBoard = this.rememberedBoards.get(zobristHashCode);
+                        if (rememberedBoard != null && (currentDepth - 1) <= rememberedBoard.depth()
+                                && rememberedBoard.isScoreUsable(alpha, beta)) {
+                            currentValue = rememberedBoard.score();
                         } else {
                             currentValue = board.getCurrentPlayer().getAlliance().isWhite()
-                                    ? min(moveTransition.getTransitionBoard(), currentDepth - 1,
+                                    ? min(searchBoard, currentDepth - 1,
                                     alpha, beta)
-                                    : max(moveTransition.getTransitionBoard(), currentDepth - 1,
+                                    : max(searchBoard, currentDepth - 1,
                                     alpha, beta);
 
-                            this.rememberedBoards.put(boardHexString,
-                                    new BoardState(currentDepth - 1, currentValue,
-                                            BoardState.getNodeType(alpha, beta, currentValue)
-                                    ));
+                            this.rememberedBoards.put(zobristHashCode, currentDepth - 1, currentValue,
+                                    BoardState.getNodeType(alpha, beta, currentValue), EncodedMove.NULL_MOVE);
                         }
                         builder.addMoveOrderingRecord(move, currentValue);
                         if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > alpha) {
@@ -160,6 +125,7 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
                             bestMove = move;
                         }
                     }
+                    searchBoard.unmake(move);
                 }
 //                String topBoardHexString = Long.toHexString(board.getZobristHashCode());
 //                this.rememberedBoards.put(topBoardHexString, new BoardState(currentDepth,
@@ -172,12 +138,13 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
 
                 if (Thread.currentThread().isInterrupted()) {
                     log.info("Method interrupted");
-                    System.out.println("The best move was " + bestMove);
-                    return bestMove != null ? bestMove : getDefaultMove(board);
+                    System.out.println("The best move was " + EncodedMove.toString(bestMove));
+                    return bestMove != EncodedMove.NULL_MOVE
+                            ? Move.MoveFactory.createMove(board, bestMove) : getDefaultMove(board);
                 }
             }
-            System.out.println("The best move was " + bestMove);
-            return bestMove;
+            System.out.println("The best move was " + EncodedMove.toString(bestMove));
+            return bestMove != EncodedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
         } finally {
             if (this.timerThread != null && !this.timerThread.isInterrupted()) {
                 this.timerThread.interrupt();
@@ -185,18 +152,16 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
         }
     }
 
-    private int min(final Board board, final int depth, int alpha, int beta) {
+    private int min(final SearchBoard board, final int depth, int alpha, int beta) {
 
         if (Thread.currentThread().isInterrupted()) {
             log.info("Method interrupted");
             return beta;
         }
 
-        String boardHexString = Long.toHexString(board.getZobristHashCode());
-        if (this.rememberedBoards.containsKey(boardHexString)
-                && this.rememberedBoards.get(boardHexString).depth() >= depth) {
-            log.info("Boards' hash found in remembered board: {}", boardHexString);
-            BoardState boardState = rememberedBoards.get(boardHexString);
+        final long zobristHashCode = board.getZobristHashCode();
+        final BoardState boardState = this.rememberedBoards.get(zobristHashCode);
+        if (boardState != null && boardState.depth() >= depth) {
             switch (boardState.nodeType()) {
                 case EXACT: return boardState.score();
                 case LOWER: alpha = Math.max(alpha, boardState.score()); break;
@@ -204,55 +169,83 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
             }
             if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
         }
+        final int originalBeta = beta;
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             int evaluation = this.evaluator.evaluate(board, depth);
-            this.rememberedBoards.put(boardHexString, new BoardState(depth, evaluation, NodeType.EXACT)); /* TODO Check if depth on end game scenario changes anything!!! */
+            this.rememberedBoards.put(zobristHashCode, depth, evaluation,
+                    NodeType.EXACT, EncodedMove.NULL_MOVE); /* TODO Check if depth on end game scenario changes anything!!! */
             return evaluation;
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(), depth, killerMoves)) {
+        final boolean isInCheck = board.isInCheck(board.getSideToMove());
+        final NodePruning nodePruning = getNodePruning(board, depth, alpha, beta, isInCheck);
+        if (nodePruning == NodePruning.REVERSE_FUTILITY) {
+            return alpha;
+        }
+        if (nodePruning == NodePruning.RAZORING) {
+            return beta;
+        }
+        final boolean isFutile = nodePruning == NodePruning.FUTILITY;
+
+        if (isNullMoveCutoff(board, depth, alpha, beta)) {
+            return alpha;
+        }
+
+        int bestMove = EncodedMove.NULL_MOVE;
+        final int ttMove = boardState != null ? boardState.bestMove() : EncodedMove.NULL_MOVE;
+        final MovePicker movePicker = board.getMovePicker(ttMove, this.moveHistory, 0);
+        int searchedMoveCount = 0;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            final int previousBeta = beta;
             if (Thread.currentThread().isInterrupted()) {
                 log.info("Method interrupted");
                 return beta;
             }
 
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            String zobristHexHashCode = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
+            final boolean isReducible = this.isLateMoveReductions
+                    && LateMoveReductions.isReducible(movePicker, move, depth, searchedMoveCount, isInCheck);
+            if (board.make(move)
+                    && !(isFutile && searchedMoveCount > 0 && LateMoveReductions.isQuietMove(board, move))) {
+                if (depth == 1 && EncodedMove.isAttack(move)) {
                     beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(), alpha, beta));
+                            quietMax(board, alpha, beta));
                 } else {
-                    int moveScore = max(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta);
-                    beta = Math.min(beta, moveScore);
-                }
-
-                if (beta <= alpha) {
-                    this.storeKillerMove(move, depth);
-                    break;
+                    beta = Math.min(beta,
+                            searchMadeMove(board, depth, alpha, beta, searchedMoveCount, isReducible));
                 }
+                searchedMoveCount++;
+            }
+            board.unmake(move);
+            if (beta < previousBeta) {
+                bestMove = move;
+            }
+            if (beta <= alpha) {
+                movePicker.storeCutoff(move, depth);
+                break;
             }
 
         }
 
-        this.rememberedBoards.put(boardHexString, new BoardState(depth, beta, alpha >= beta ? NodeType.LOWER : NodeType.EXACT));
+        if (Thread.currentThread().isInterrupted()) {
+            return beta;
+        }
+        this.rememberedBoards.put(zobristHashCode, depth, beta,
+                BoardState.getNodeType(alpha, originalBeta, beta), bestMove);
         return beta;
     }
 
-    private int max(final Board board, final int depth, int alpha, int beta) {
+    private int max(final SearchBoard board, final int depth, int alpha, int beta) {
 
         if (Thread.currentThread().isInterrupted()) {
             log.info("Method interrupted");
             return alpha;
         }
 
-        String boardHexString = Long.toHexString(board.getZobristHashCode());
-        if (this.rememberedBoards.containsKey(boardHexString)
-                && this.rememberedBoards.get(boardHexString).depth() >= depth) {
-            BoardState boardState = rememberedBoards.get(boardHexString);
+        final long zobristHashCode = board.getZobristHashCode();
+        final BoardState boardState = this.rememberedBoards.get(zobristHashCode);
+        if (boardState != null && boardState.depth() >= depth) {
             switch (boardState.nodeType()) {
                 case EXACT: return boardState.score();
                 case LOWER: alpha = Math.max(alpha, boardState.score()); break;
@@ -261,91 +254,193 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
             if (alpha >= beta) return boardState.nodeType() == NodeType.LOWER ? beta : alpha;
         }
 
-        if (depth == 0 || BoardUtils.isEndGameScenario(board)) {
+        if (depth == 0 || board.isEndGameScenario()) {
             this.boardsEvaluated++;
             int evaluation = this.evaluator.evaluate(board, depth);
-            this.rememberedBoards.put(boardHexString, new BoardState(depth, evaluation, NodeType.EXACT));
+            this.rememberedBoards.put(zobristHashCode, depth, evaluation, NodeType.EXACT, EncodedMove.NULL_MOVE);
             return evaluation;
         }
 
-        for (Move move : this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves(),depth, killerMoves)) {
+        final boolean isInCheck = board.isInCheck(board.getSideToMove());
+        final NodePruning nodePruning = getNodePruning(board, depth, alpha, beta, isInCheck);
+        if (nodePruning == NodePruning.REVERSE_FUTILITY) {
+            return beta;
+        }
+        if (nodePruning == NodePruning.RAZORING) {
+            return alpha;
+        }
+        final boolean isFutile = nodePruning == NodePruning.FUTILITY;
 
+        if (isNullMoveCutoff(board, depth, alpha, beta)) {
+            return beta;
+        }
+
+        final int originalAlpha = alpha;
+        int bestMove = EncodedMove.NULL_MOVE;
+        final int ttMove = boardState != null ? boardState.bestMove() : EncodedMove.NULL_MOVE;
+        final MovePicker movePicker = board.getMovePicker(ttMove, this.moveHistory, 0);
+        int searchedMoveCount = 0;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            final int previousAlpha = alpha;
             if (Thread.currentThread().isInterrupted()) {
                 log.info("Method interrupted");
                 return alpha;
             }
 
-            MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            String zobristHexHashCode = Long.toHexString(moveTransition.getTransitionBoard().getZobristHashCode());
-
-            if (moveTransition.getMoveStatus().isDone()) {
-                if (depth == 1 && move.isAttack()) {
+            final boolean isReducible = this.isLateMoveReductions
+                    && LateMoveReductions.isReducible(movePicker, move, depth, searchedMoveCount, isInCheck);
+            if (board.make(move)
+                    && !(isFutile && searchedMoveCount > 0 && LateMoveReductions.isQuietMove(board, move))) {
+                if (depth == 1 && EncodedMove.isAttack(move)) {
                     alpha = Math.max(alpha,
-                            quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+                            quietMin(board, alpha, beta));
                 } else {
-                    int moveScore = min(moveTransition.getTransitionBoard(), depth - 1,
-                            alpha, beta);
-                    alpha = Math.max(alpha, moveScore);
+                    alpha = Math.max(alpha,
+                            searchMadeMove(board, depth, alpha, beta, searchedMoveCount, isReducible));
                 }
+                searchedMoveCount++;
+            }
+            board.unmake(move);
+            if (alpha > previousAlpha) {
+                bestMove = move;
             }
             if (beta <= alpha) {
-                this.storeKillerMove(move, depth);
+                movePicker.storeCutoff(move, depth);
                 break;
             }
         }
+
+        if (Thread.currentThread().isInterrupted()) {
+            return alpha;
+        }
+        this.rememberedBoards.put(zobristHashCode, depth, alpha,
+                BoardState.getNodeType(originalAlpha, beta, alpha), bestMove);
         return alpha;
     }
 
-    private int quietMin(final Board board, final int alpha, int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList(), -1, this.killerMoves)
-                .stream().toList();
+    /**
+     * The {@link FrontierPruning} of a node, with the attacks of a razored node already searched: it stays
+     * {@link NodePruning#RAZORING} only when they do not reach the bound of the side to move.
+     */
+    private NodePruning getNodePruning(final SearchBoard board, final int depth, final int alpha, final int beta,
+                                       final boolean isInCheck) {
+        if (this.frontierPruning == null || depth > FrontierPruning.MAX_DEPTH || isInCheck) {
+            return NodePruning.NONE;
+        }
+        final boolean isWhite = board.getSideToMove().isWhite();
+        final int staticEvaluation = this.evaluator.evaluate(board, depth);
+        final NodePruning nodePruning = this.frontierPruning.getNodePruning(staticEvaluation, alpha, beta, depth,
+                isWhite);
+        if (nodePruning != NodePruning.RAZORING) {
+            return nodePruning;
+        }
+        if (isWhite ? quietMax(board, alpha, alpha + 1) <= alpha : quietMin(board, beta - 1, beta) >= beta) {
+            return NodePruning.RAZORING;
+        }
+        return this.frontierPruning.isFutile(staticEvaluation, alpha, beta, depth, isWhite)
+                ? NodePruning.FUTILITY : NodePruning.NONE;
+    }
+
+    private int minOrMax(final SearchBoard board, final int depth, final int alpha, final int beta) {
+        return board.getSideToMove().isWhite() ? max(board, depth, alpha, beta) : min(board, depth, alpha, beta);
+    }
+
+    /**
+     * Whether the side to move, passing the turn, is still at least at beta (at most at alpha for black), see
+     * {@link NullMovePruning}.
+     */
+    private boolean isNullMoveCutoff(final SearchBoard board, final int depth, final int alpha, final int beta) {
+        final boolean isWhite = board.getSideToMove().isWhite();
+        final int bound = isWhite ? beta : alpha;
+        if (!this.isNullMovePruning || bound == (isWhite ? Integer.MAX_VALUE : Integer.MIN_VALUE)
+                || board.getPly() < this.nullMovePly || !NullMovePruning.isAllowed(board, depth)) {
+            return false;
+        }
+        final int nullAlpha = isWhite ? beta - 1 : alpha;
+        final int reduction = NullMovePruning.getReduction(depth);
+        board.makeNullMove();
+        final int nullMoveScore = minOrMax(board, depth - 1 - reduction, nullAlpha, nullAlpha + 1);
+        board.unmakeNullMove();
+        if (isWhite ? nullMoveScore < bound : nullMoveScore > bound) {
+            return false;
+        }
+        if (depth < NullMovePruning.VERIFICATION_DEPTH) {
+            return true;
+        }
+        final int previousNullMovePly = this.nullMovePly;
+        this.nullMovePly = NullMovePruning.getVerificationPly(board, depth);
+        final int verificationScore = minOrMax(board, depth - reduction, nullAlpha, nullAlpha + 1);
+        this.nullMovePly = previousNullMovePly;
+        return isWhite ? verificationScore >= bound : verificationScore <= bound;
+    }
+
+    /**
+     * Searches a move just made in a node with these bounds: first reduced when {@link LateMoveReductions}
+     * allow it, and with the full window when that shows it may be better than the bound.
+     *
+     * @return the score of the move, or the bound of the side that made it when the move is not better
+     */
+    private int searchMadeMove(final SearchBoard board, final int depth, final int alpha, final int beta,
+                               final int searchedMoveCount, final boolean isReducible) {
+        final boolean isWhiteMove = !board.getSideToMove().isWhite();
+        final int bound = isWhiteMove ? alpha : beta;
+        final int nullAlpha = isWhiteMove ? alpha : beta - 1;
+        if (isReducible && LateMoveReductions.isReducedOnceMade(board)) {
+            final int reducedScore = minOrMax(board, LateMoveReductions.getReducedDepth(depth, searchedMoveCount),
+                    nullAlpha, nullAlpha + 1);
+            if (isWhiteMove ? reducedScore <= bound : reducedScore >= bound) {
+                return bound;
+            }
+        }
+        return minOrMax(board, depth - 1, alpha, beta);
+    }
+
+    private int quietMin(final SearchBoard board, final int alpha, int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        MovePicker.sortAttacks(attackMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
 
                 if (Thread.currentThread().isInterrupted()) {
                     log.info("Method interrupted");
                     return beta;
                 }
 
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
+                if (board.make(move)) {
                     beta = Math.min(beta,
-                            quietMax(moveTransition.getTransitionBoard(),
+                            quietMax(board,
                                      alpha, beta));
-                    if (beta <= alpha) {
-                        break;
-                    }
+                }
+                board.unmake(move);
+                if (beta <= alpha) {
+                    break;
                 }
             }
         }
         return beta;
     }
 
-    private int quietMax(final Board board, int alpha, final int beta) {
-        List<Move> attackMoves = this.moveSorter.sort(board.getCurrentPlayer().getLegalMoves()
-                        .stream()
-                        .filter(Move::isAttack)
-                        .toList(), -1, this.killerMoves)
-                .stream().toList();
+    private int quietMax(final SearchBoard board, int alpha, final int beta) {
+        final MoveList attackMoves = board.generateAttackMoves();
+        MovePicker.sortAttacks(attackMoves);
         if (attackMoves.isEmpty()) {
             return this.evaluator.evaluate(board, 0);
         } else {
-            for (Move move : attackMoves) {
+            for (int i = 0; i < attackMoves.size(); i++) {
+                final int move = attackMoves.get(i);
 
                 if (Thread.currentThread().isInterrupted()) {
                     log.info("Method interrupted");
                     return beta;
                 }
 
-                MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    alpha = Math.max(alpha, quietMin(moveTransition.getTransitionBoard(), alpha, beta));
+                if (board.make(move)) {
+                    alpha = Math.max(alpha, quietMin(board, alpha, beta));
                 }
+                board.unmake(move);
                 if (beta <= alpha) {
                     break;
                 }
@@ -360,15 +455,15 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
     }
 
     private static class MoveScoreRecord implements Comparable<MoveScoreRecord> {
-        private final Move move;
+        private final int move;
         private final int score;
 
-        public MoveScoreRecord(Move move, int score) {
+        public MoveScoreRecord(int move, int score) {
             this.move = move;
             this.score = score;
         }
 
-        Move getMove() {
+        int getMove() {
             return this.move;
         }
 
@@ -383,7 +478,7 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
 
         @Override
         public String toString() {
-            return this.move + " : " + this.score;
+            return EncodedMove.toString(this.move) + " : " + this.score;
         }
     }
 
@@ -426,7 +521,7 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
             this.moveScoreRecords = new ArrayList<>();
         }
 
-        void addMoveOrderingRecord(final Move move,
+        void addMoveOrderingRecord(final int move,
                                    final int score) {
             this.moveScoreRecords.add(new MoveScoreRecord(move, score));
         }
@@ -436,17 +531,6 @@ public class IterativeDeepeningWithTranspositionTableTimeDependent implements Mo
         }
     }
 
-    private void storeKillerMove(final Move move, final int depth) {
-        if (move.isAttack()) {
-            return;
-        }
-
-        if (!move.equals(this.killerMoves[depth][0])) {
-            this.killerMoves[depth - 1][1] = this.killerMoves[depth][0];
-            this.killerMoves[depth - 1][0] = move;
-        }
-    }
-
     private Move getDefaultMove(Board board) {
         Collection<Move> legalMoves = board.getCurrentPlayer().getLegalMoves();
         return legalMoves.isEmpty() ? null : legalMoves.stream().findFirst().get();
@@ -0,0 +1,75 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.board.EncodedMove;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.MovePicker;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
+
+/**
+ * Rules of late move reductions shared by the iterative deepening searches. With good move ordering the
+ * moves searched late rarely cause a cutoff, so from the {@link #FULL_DEPTH_MOVES}-th move on quiet moves
+ * are first searched with a null window and a depth reduced by {@link #getReduction(int, int)}, growing with
+ * log(depth) x log(moveIndex), and searched again at full depth only when they beat the bound.
+ * The table move, attacks, promotions, killer moves, the countermove and the moves of a side in check are
+ * never reduced, and neither is a move that gives check, see {@link #isReducedOnceMade(SearchBoard)}.
+ */
+public final class LateMoveReductions {
+
+    public static final int FULL_DEPTH_MOVES = 3;
+
+    private static final int MIN_DEPTH = 3;
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_MOVE_INDEX = 256;
+    private static final int[][] REDUCTIONS = createReductions();
+
+    private LateMoveReductions() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    /**
+     * @param moveIndex number of moves already searched in this node
+     * @param isInCheck whether the side to move is in check in this node
+     */
+    public static boolean isReducible(final MovePicker movePicker, final int move, final int depth,
+                                      final int moveIndex, final boolean isInCheck) {
+        return depth >= MIN_DEPTH && moveIndex >= FULL_DEPTH_MOVES && !isInCheck && movePicker.isQuietMove()
+                && !EncodedMove.isPromotion(move);
+    }
+
+    /**
+     * Whether a {@link #isReducible reducible} move, just made on the board, is searched reduced: a move that
+     * gives check is not.
+     */
+    public static boolean isReducedOnceMade(final SearchBoard board) {
+        return !board.isInCheck(board.getSideToMove());
+    }
+
+    /**
+     * Whether a move just made on the board neither captures, promotes nor gives check. Futility pruning
+     * skips such moves too, see {@link FrontierPruning}.
+     */
+    public static boolean isQuietMove(final SearchBoard board, final int move) {
+        return !EncodedMove.isAttack(move) && !EncodedMove.isPromotion(move)
+                && !board.isInCheck(board.getSideToMove());
+    }
+
+    /**
+     * The reduced depth of the child, never below 1, so a reduced move is still searched one ply.
+     */
+    public static int getReducedDepth(final int depth, final int moveIndex) {
+        return Math.max(1, depth - 1 - getReduction(depth, moveIndex));
+    }
+
+    public static int getReduction(final int depth, final int moveIndex) {
+        return REDUCTIONS[Math.min(depth, MAX_DEPTH - 1)][Math.min(moveIndex, MAX_MOVE_INDEX - 1)];
+    }
+
+    private static int[][] createReductions() {
+        final int[][] reductions = new int[MAX_DEPTH][MAX_MOVE_INDEX];
+        for (int depth = 1; depth < MAX_DEPTH; depth++) {
+            for (int moveIndex = 1; moveIndex < MAX_MOVE_INDEX; moveIndex++) {
+                reductions[depth][moveIndex] = (int) (0.5 + Math.log(depth) * Math.log(moveIndex) / 3.0);
+            }
+        }
+        return reductions;
+    }
+}
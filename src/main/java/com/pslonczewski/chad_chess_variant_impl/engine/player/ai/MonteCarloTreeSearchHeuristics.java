@@ -2,9 +2,10 @@ package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
 import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
-import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardUtils;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.EncodedMove;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Move;
-import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveTransition;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveList;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
@@ -13,12 +14,12 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.StreamSupport;
 
 @Log4j2
 public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
     private final Random random = new Random(31);
     private Node root;
+    private SearchBoard searchBoard;
     private Thread mainThread;
     private final long timer;
     private final BoardEvaluator evaluator = new MyBoardEvaluator();;
@@ -34,7 +35,8 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
 
     @Override
     public Move execute(Board board, int depth) {
-        this.root = new Node(board, null, null, this.random);
+        this.searchBoard = new SearchBoard(board);
+        this.root = new Node(this.searchBoard, this.searchBoard.generateMoves(), null, EncodedMove.NULL_MOVE, this.random);
         log.info("Monte carlo tree search THINKING for: {} seconds", this.timer);
         this.mainThread = Thread.currentThread();
 
@@ -54,44 +56,51 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
 
         do {
             Node node = select(this.root);
-            double reward = simulate(node);
+            double reward = simulate();
             backpropagate(node, reward);
+            unwind(node);
         } while (!Thread.currentThread().isInterrupted());
-        return getBestMove();
+        return getBestMove(board);
     }
 
     private Node select(Node node) {
         log.trace("Entering select");
         while (!node.isEndGameScenario()) {
             if (!node.isFullyExpanded()) {
-                Node expanded = node.expand();
+                Node expanded = node.expand(this.searchBoard);
                 if (expanded != null) {
                     return expanded;
                 }
             } else {
                 node = node.selectChild();
+                this.searchBoard.make(node.getMove());
             }
         }
         return node;
     }
 
-    private double simulate(Node node) {
+    private double simulate() {
         log.trace("Entering simulate");
-        Board board = node.getBoard();
-        Alliance rootAlliance = root.getBoard().getCurrentPlayer().getAlliance();
-        while (!BoardUtils.isEndGameScenario(board)) {
-            List<Move> moves = StreamSupport.stream(board.getAllLegalMoves().spliterator(), false)
-                    .toList();
-            Move randomMove;
-            MoveTransition moveTransition;
+        MoveList playedMoves = new MoveList();
+        while (!this.searchBoard.isEndGameScenario()) {
+            MoveList moves = this.searchBoard.generateMoves();
+            int randomMove;
+            boolean legal;
             do {
                 randomMove = moves.get(this.random.nextInt(moves.size()));
-                moveTransition = board.getCurrentPlayer().makeMove(randomMove);
-            } while (!moveTransition.getMoveStatus().isDone());
-            board = moveTransition.getTransitionBoard();
+                legal = this.searchBoard.make(randomMove);
+                if (!legal) {
+                    this.searchBoard.unmake(randomMove);
+                }
+            } while (!legal);
+            playedMoves.add(randomMove);
         }
 
-        return this.evaluator.evaluate(board, 0); // TODO change depth
+        double reward = this.evaluator.evaluate(this.searchBoard, 0); // TODO change depth
+        for (int i = playedMoves.size() - 1; i >= 0; i--) {
+            this.searchBoard.unmake(playedMoves.get(i));
+        }
+        return reward;
     }
 
     private void backpropagate(Node node, double reward) {
@@ -101,9 +110,16 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
         }
     }
 
-    private Move getBestMove() {
+    private void unwind(Node node) {
+        while (node.getParent() != null) {
+            this.searchBoard.unmake(node.getMove());
+            node = node.getParent();
+        }
+    }
+
+    private Move getBestMove(Board board) {
         Node bestChild = null;
-        boolean b = this.root.getBoard().getCurrentPlayer().getAlliance() == Alliance.WHITE;
+        boolean b = this.root.getPlayerAlliance() == Alliance.WHITE;
         double bestScore = b ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
         for (Node child : root.getChildren()) {
             double score = child.getTotalReward() / child.getVisits();
@@ -112,8 +128,8 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
                 bestChild = child;
             }
         }
-        System.out.println("Best move: " + bestChild.getMove());
-        return bestChild != null ? bestChild.getMove() : null;
+        System.out.println("Best move: " + EncodedMove.toString(bestChild.getMove()));
+        return bestChild != null ? Move.MoveFactory.createMove(board, bestChild.getMove()) : null;
     }
 
     @Getter
@@ -121,23 +137,24 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
 
         @Getter(AccessLevel.NONE)
         private static final double EXPLORATION_CONSTANT = Math.sqrt(2.0);
-        private final Board board;
         private final Node parent;
-        private final Move move;
+        private final int move;
         private final List<Node> children = new ArrayList<>();
         @Getter(AccessLevel.NONE)
-        private final List<Move> untriedMoves;
+        private final MoveList untriedMoves;
         private final Alliance playerAlliance;
+        @Getter(AccessLevel.NONE)
+        private final boolean endGameScenario;
         private final Random random;
         private int visits = 0;
         private double totalReward = 0.0;
 
-        public Node(Board board, Node parent, Move move,  Random random) {
-            this.board = board;
+        public Node(SearchBoard board, MoveList legalMoves, Node parent, int move, Random random) {
             this.parent = parent;
             this.move = move;
-            this.untriedMoves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
-            this.playerAlliance = board.getCurrentPlayer().getAlliance();
+            this.untriedMoves = new MoveList(legalMoves);
+            this.playerAlliance = board.getSideToMove();
+            this.endGameScenario = board.isEndGameScenario();
             this.random = random;
         }
 
@@ -146,7 +163,7 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
         }
 
         public boolean isEndGameScenario() {
-            return BoardUtils.isEndGameScenario(this.board);
+            return this.endGameScenario;
         }
 
         public Node selectChild() {
@@ -167,19 +184,17 @@ public class MonteCarloTreeSearchHeuristics implements MoveStrategy{
             return bestChild;
         }
 
-        public Node expand() {
-            Move move;
-            MoveTransition moveTransition;
-            do {
-                if (this.untriedMoves.isEmpty()) {
-                    return null;
+        public Node expand(SearchBoard board) {
+            while (!this.untriedMoves.isEmpty()) {
+                int move = this.untriedMoves.remove(random.nextInt(this.untriedMoves.size()));
+                if (board.make(move)) {
+                    Node child = new Node(board, board.generateMoves(), this, move, this.random);
+                    this.children.add(child);
+                    return child;
                 }
-                move = untriedMoves.remove(random.nextInt(this.untriedMoves.size()));
-                moveTransition = board.getCurrentPlayer().makeMove(move);
-            } while (!moveTransition.getMoveStatus().isDone());
-            Node child = new Node(moveTransition.getTransitionBoard(), this, move, this.random);
-            this.children.add(child);
-            return child;
+                board.unmake(move);
+            }
+            return null;
         }
 
         public void update(double reward) {
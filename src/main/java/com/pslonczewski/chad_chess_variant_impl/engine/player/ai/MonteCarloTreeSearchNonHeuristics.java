@@ -1,9 +1,11 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
-import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardUtils;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.EncodedMove;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Move;
-import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveTransition;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.MoveList;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
@@ -12,13 +14,13 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.StreamSupport;
 
 @Log4j2
 public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
 
     private final Random random = new Random(31);
     private Node root;
+    private SearchBoard searchBoard;
     private Thread mainThread;
     private final long timer;
 
@@ -33,7 +35,8 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
 
     @Override
     public Move execute(Board board, int depth) {
-        this.root = new Node(board, null, null);
+        this.searchBoard = new SearchBoard(board);
+        this.root = new Node(this.searchBoard, this.searchBoard.generateMoves(), null, EncodedMove.NULL_MOVE);
         log.info("Monte carlo tree search THINKING for: {} seconds", this.timer);
         this.mainThread = Thread.currentThread();
 
@@ -53,43 +56,51 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
 
         do {
             Node node = select(this.root);
-            double reward = simulate(node);
+            double reward = simulate();
             backpropagate(node, reward);
+            unwind(node);
         } while (!Thread.currentThread().isInterrupted());
-        return getBestMove();
+        return getBestMove(board);
     }
 
     private Node select(Node node) {
         log.trace("Entering select");
         while (!node.isEndGameScenario()) {
             if (!node.isFullyExpanded()) {
-                Node expanded = node.expand();
+                Node expanded = node.expand(this.searchBoard);
                 if (expanded != null) {
                     return expanded;
                 }
             } else {
                 node = node.selectChild();
+                this.searchBoard.make(node.getMove());
             }
         }
         return node;
     }
 
-    private double simulate(Node node) {
+    private double simulate() {
         log.trace("Entering simulate");
-        Board board = node.getBoard();
-        while (!BoardUtils.isEndGameScenario(board)) {
-            List<Move> moves = StreamSupport.stream(board.getAllLegalMoves().spliterator(), false)
-                                            .toList();
-            Move randomMove;
-            MoveTransition moveTransition;
+        MoveList playedMoves = new MoveList();
+        while (!this.searchBoard.isEndGameScenario()) {
+            MoveList moves = this.searchBoard.generateMoves();
+            int randomMove;
+            boolean legal;
             do {
                 randomMove = moves.get(this.random.nextInt(moves.size()));
-                moveTransition = board.getCurrentPlayer().makeMove(randomMove);
-            } while (!moveTransition.getMoveStatus().isDone());
-            board = moveTransition.getTransitionBoard();
+                legal = this.searchBoard.make(randomMove);
+                if (!legal) {
+                    this.searchBoard.unmake(randomMove);
+                }
+            } while (!legal);
+            playedMoves.add(randomMove);
         }
 
-        return this.root.getBoard().getCurrentPlayer().getAlliance() == board.getCurrentPlayer().getAlliance() ? 0 : 1;
+        double reward = this.root.getPlayerAlliance() == this.searchBoard.getSideToMove() ? 0 : 1;
+        for (int i = playedMoves.size() - 1; i >= 0; i--) {
+            this.searchBoard.unmake(playedMoves.get(i));
+        }
+        return reward;
     }
 
     private void backpropagate(Node node, double reward) {
@@ -99,7 +110,14 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
         }
     }
 
-    private Move getBestMove() {
+    private void unwind(Node node) {
+        while (node.getParent() != null) {
+            this.searchBoard.unmake(node.getMove());
+            node = node.getParent();
+        }
+    }
+
+    private Move getBestMove(Board board) {
         Node bestChild = null;
         double bestScore = -1.0;
         for (Node child : root.getChildren()) {
@@ -109,8 +127,8 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
                 bestChild = child;
             }
         }
-        System.out.println("Best move: " + bestChild.getMove());
-        return bestChild != null ? bestChild.getMove() : null;
+        System.out.println("Best move: " + EncodedMove.toString(bestChild.getMove()));
+        return bestChild != null ? Move.MoveFactory.createMove(board, bestChild.getMove()) : null;
     }
 
     @Getter
@@ -118,20 +136,23 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
 
         @Getter(AccessLevel.NONE)
         private static final double EXPLORATION_CONSTANT = Math.sqrt(2.0);
-        private final Board board;
         private final Node parent;
-        private final Move move;
+        private final int move;
         private final List<Node> children = new ArrayList<>();
         @Getter(AccessLevel.NONE)
-        private final List<Move> untriedMoves;
+        private final MoveList untriedMoves;
+        private final Alliance playerAlliance;
+        @Getter(AccessLevel.NONE)
+        private final boolean endGameScenario;
         private int visits = 0;
         private double totalReward = 0.0;
 
-        public Node(Board board, Node parent, Move move) {
-            this.board = board;
+        public Node(SearchBoard board, MoveList legalMoves, Node parent, int move) {
             this.parent = parent;
             this.move = move;
-            this.untriedMoves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+            this.untriedMoves = new MoveList(legalMoves);
+            this.playerAlliance = board.getSideToMove();
+            this.endGameScenario = board.isEndGameScenario();
         }
 
         public boolean isFullyExpanded() {
@@ -139,7 +160,7 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
         }
 
         public boolean isEndGameScenario() {
-            return BoardUtils.isEndGameScenario(this.board);
+            return this.endGameScenario;
         }
 
         public Node selectChild() {
@@ -159,20 +180,18 @@ public class MonteCarloTreeSearchNonHeuristics implements MoveStrategy {
             return bestChild;
         }
 
-        public Node expand() {
-            Move move;
-            MoveTransition moveTransition;
+        public Node expand(SearchBoard board) {
             Random random = new Random();
-            do {
-                if (this.untriedMoves.isEmpty()) {
-                    return null;
+            while (!this.untriedMoves.isEmpty()) {
+                int move = this.untriedMoves.remove(random.nextInt(this.untriedMoves.size()));
+                if (board.make(move)) {
+                    Node child = new Node(board, board.generateMoves(), this, move);
+                    this.children.add(child);
+                    return child;
                 }
-                move = untriedMoves.remove(random.nextInt(this.untriedMoves.size()));
-                moveTransition = board.getCurrentPlayer().makeMove(move);
-            } while (!moveTransition.getMoveStatus().isDone());
-            Node child = new Node(moveTransition.getTransitionBoard(), this, move);
-            this.children.add(child);
-            return child;
+                board.unmake(move);
+            }
+            return null;
         }
 
         public void update(double reward) {
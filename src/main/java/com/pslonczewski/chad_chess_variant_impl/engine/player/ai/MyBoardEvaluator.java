@@ -1,8 +1,12 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.BitboardPosition;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardUtils;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
 import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
 
 import java.util.ArrayList;
@@ -13,6 +17,7 @@ public final class MyBoardEvaluator implements BoardEvaluator {
     private static final int CHECK_BONUS = 50;
     private static final int CHECK_MATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 100;
+    private static final int[] DEFENDING_DIRECTIONS = { -12, -1, 1, 12 };
 
     @Override
     public int evaluate(final Board board, final int depth) {
@@ -20,6 +25,20 @@ public final class MyBoardEvaluator implements BoardEvaluator {
                 - scorePlayer(board, board.getBlackPlayer(), depth);
     }
 
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        return scorePlayer(board, Alliance.WHITE, depth)
+                - scorePlayer(board, Alliance.BLACK, depth);
+    }
+
+    private int scorePlayer(final SearchBoard board, final Alliance alliance, final int depth) {
+        return pieceValue(board, alliance)
+                + mobility(board, alliance)
+                + check(board, alliance)
+                + checkmate(board, alliance, depth)
+                + defendingKingBonus(board.getPosition(), alliance);
+    }
+
     private int scorePlayer(final Board board, final Player player, final int depth) {
         return pieceValue(player)
                 + mobility(player)
@@ -32,6 +51,10 @@ public final class MyBoardEvaluator implements BoardEvaluator {
         return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
     }
 
+    private static int checkmate(final SearchBoard board, final Alliance alliance, final int depth) {
+        return board.isInCheckMate(alliance.getOpponent()) ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
+    }
+
     private static int depthBonus(final int depth) {
         return depth == 0 ? 1 : DEPTH_BONUS * depth;
     }
@@ -40,10 +63,22 @@ public final class MyBoardEvaluator implements BoardEvaluator {
         return player.getOpponent().isInCheckMate() ? CHECK_BONUS : 0;
     }
 
+    private static int check(final SearchBoard board, final Alliance alliance) {
+        return board.isInCheckMate(alliance.getOpponent()) ? CHECK_BONUS : 0;
+    }
+
     private static int mobility(final Player player) {
         return player.getLegalMoves().size();
     }
 
+    private static int mobility(final SearchBoard board, final Alliance alliance) {
+        return board.countLegalMoves(alliance);
+    }
+
+    private static int pieceValue(final SearchBoard board, final Alliance alliance) {
+        return board.getPosition().getMaterial(alliance);
+    }
+
     private static int pieceValue(final Player player) {
         int pieceValueScore = 0;
         for (final Piece piece : player.getActivePieces()) {
@@ -69,4 +104,19 @@ public final class MyBoardEvaluator implements BoardEvaluator {
         }
         return defendingKingBonus;
     }
+
+    private static int defendingKingBonus(final BitboardPosition position, final Alliance alliance) {
+        int defendingKingBonus = 0;
+        for (int coordinate = position.nextPiecePosition(alliance, 0); coordinate != -1;
+             coordinate = position.nextPiecePosition(alliance, coordinate + 1)) {
+            for (final int direction : DEFENDING_DIRECTIONS) {
+                int fieldPosition = coordinate + direction;
+                if (fieldPosition < 0 || fieldPosition >= BoardUtils.NUM_TILES) continue;
+                if (position.isPieceAt(fieldPosition, alliance, PieceType.KING)) {
+                    defendingKingBonus += 50;
+                }
+            }
+        }
+        return defendingKingBonus;
+    }
 }
@@ -0,0 +1,42 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
+
+/**
+ * Rules of null-move pruning shared by the iterative deepening searches. The side to move passes the turn
+ * and the opponent is searched with a depth reduced by {@link #getReduction(int)}; if the side to move is
+ * still at least at beta (at most at alpha for black) without moving, the node is cut off.
+ * A pass is not tried in check, right after another pass, or with a lone king, where having to move may be
+ * what loses. From {@link #VERIFICATION_DEPTH} on the cutoff is confirmed by a reduced search of the node
+ * itself, with passes forbidden for the next plies, see {@link #getVerificationPly(SearchBoard, int)}.
+ */
+public final class NullMovePruning {
+
+    public static final int VERIFICATION_DEPTH = 6;
+
+    private static final int REDUCTION = 2;
+    private static final int DEEP_REDUCTION = 3;
+    private static final int DEEP_REDUCTION_DEPTH = 7;
+
+    private NullMovePruning() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static boolean isAllowed(final SearchBoard board, final int depth) {
+        final Alliance sideToMove = board.getSideToMove();
+        return depth > getReduction(depth) && !board.isAfterNullMove() && !board.isInCheck(sideToMove)
+                && board.getPosition().getPieceCount(sideToMove) > 1;
+    }
+
+    public static int getReduction(final int depth) {
+        return depth >= DEEP_REDUCTION_DEPTH ? DEEP_REDUCTION : REDUCTION;
+    }
+
+    /**
+     * The first ply at which passes are allowed again after the verification search of a node at this ply.
+     */
+    public static int getVerificationPly(final SearchBoard board, final int depth) {
+        return board.getPly() + 3 * (depth - getReduction(depth)) / 4 + 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
+
+/**
+ * The selective search techniques used by the iterative deepening searchers with a transposition table.
+ * Every option is off in {@link #NONE}; the {@code with} methods turn them on one by one, e.g.
+ * {@code SearchOptions.NONE.withNullMovePruning().withLateMoveReductions()}.
+ *
+ * @param isPrincipalVariationSearch whether moves after the first one are tested against a null window and
+ *                                   the root is searched with an aspiration window
+ * @param isNullMovePruning whether nodes are cut off by passing the turn, see {@link NullMovePruning}
+ * @param isLateMoveReductions whether late quiet moves are searched less deep first,
+ *                             see {@link LateMoveReductions}
+ * @param frontierPruning margins of the futility, reverse futility and razoring pruning near the horizon,
+ *                        or null to search every node near the horizon
+ */
+public record SearchOptions(boolean isPrincipalVariationSearch, boolean isNullMovePruning,
+                            boolean isLateMoveReductions, FrontierPruning frontierPruning) {
+
+    public static final SearchOptions NONE = new SearchOptions(false, false, false, null);
+
+    public SearchOptions withPrincipalVariationSearch() {
+        return new SearchOptions(true, this.isNullMovePruning, this.isLateMoveReductions, this.frontierPruning);
+    }
+
+    public SearchOptions withNullMovePruning() {
+        return new SearchOptions(this.isPrincipalVariationSearch, true, this.isLateMoveReductions,
+                this.frontierPruning);
+    }
+
+    public SearchOptions withLateMoveReductions() {
+        return new SearchOptions(this.isPrincipalVariationSearch, this.isNullMovePruning, true,
+                this.frontierPruning);
+    }
+
+    public SearchOptions withFrontierPruning(final FrontierPruning frontierPruning) {
+        return new SearchOptions(this.isPrincipalVariationSearch, this.isNullMovePruning, this.isLateMoveReductions,
+                frontierPruning);
+    }
+}
@@ -1,6 +1,8 @@
 package com.pslonczewski.chad_chess_variant_impl.engine.player.ai;
 
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.SearchBoard;
 import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
 import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
 
@@ -16,6 +18,20 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
                 - scorePlayer(board, board.getBlackPlayer(), depth);
     }
 
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        return scorePlayer(board, Alliance.WHITE, depth)
+                - scorePlayer(board, Alliance.BLACK, depth);
+    }
+
+    private int scorePlayer(final SearchBoard board, final Alliance alliance, final int depth) {
+
+        return pieceValue(board, alliance)
+                + mobility(board, alliance)
+                + check(board, alliance)
+                + checkmate(board, alliance, depth);
+    }
+
     private int scorePlayer(final Board board, final Player player, final int depth) {
 
         return pieceValue(player)
@@ -28,6 +44,10 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
     }
 
+    private static int checkmate(final SearchBoard board, final Alliance alliance, final int depth) {
+        return board.isInCheckMate(alliance.getOpponent()) ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
+    }
+
     private static int depthBonus(final int depth) {
         return depth == 0 ? 1 : DEPTH_BONUS * depth;
     }
@@ -36,10 +56,18 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return player.getOpponent().isInCheckMate() ? CHECK_BONUS : 0;
     }
 
+    private static int check(final SearchBoard board, final Alliance alliance) {
+        return board.isInCheckMate(alliance.getOpponent()) ? CHECK_BONUS : 0;
+    }
+
     private static int mobility(final Player player) {
         return player.getLegalMoves().size();
     }
 
+    private static int mobility(final SearchBoard board, final Alliance alliance) {
+        return board.countLegalMoves(alliance);
+    }
+
     private static int pieceValue(final Player player) {
         int pieceValueScore = 0;
         for (final Piece piece : player.getActivePieces()) {
@@ -47,4 +75,8 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         }
         return pieceValueScore;
     }
+
+    private static int pieceValue(final SearchBoard board, final Alliance alliance) {
+        return board.getPosition().getMaterial(alliance);
+    }
 }
@@ -15,6 +15,9 @@ public class GameSetup extends JDialog {
     private PlayerType blackPlayerType;
     private final JSpinner searchDepthSpinner;
     private final JSpinner timeSpinner;
+    private final JSpinner threadSpinner;
+    private final JCheckBox principalVariationSearchCheckBox;
+    private final JCheckBox rootParallelCheckBox;
 
     private static final String HUMAN_TEXT = "Człowiek";
     private static final String COMPUTER_TEXT = "Komputer";
@@ -56,12 +59,23 @@ public class GameSetup extends JDialog {
         this.timeSpinner = addLabeledSpinner(myPanel, "Limit czasu",
                                              new SpinnerNumberModel(30, 0, Integer.MAX_VALUE, 1));
 
+        this.threadSpinner = addLabeledSpinner(myPanel, "Liczba wątków", new SpinnerNumberModel(1, 1,
+                Runtime.getRuntime().availableProcessors(), 1));
+
 
         myPanel.add(new JLabel("Algorytmy SI:"));
         JComboBox<AiType> aiTypeComboBox = new JComboBox<>(AiType.values());
         aiTypeComboBox.setSelectedItem(AiType.ALPHA_BETA);
         myPanel.add(aiTypeComboBox);
 
+        // Only used by ITERATIVE_DEEPENING
+        this.principalVariationSearchCheckBox = new JCheckBox("Przeszukiwanie wariantu głównego (PVS)");
+        myPanel.add(this.principalVariationSearchCheckBox);
+
+        // Only used by ALPHA_BETA: root moves on virtual threads instead of splitting the tree over the threads
+        this.rootParallelCheckBox = new JCheckBox("Równoległe przeszukiwanie korzenia (wątki wirtualne)");
+        myPanel.add(this.rootParallelCheckBox);
+
         final JButton cancelButton = new JButton("Anuluj");
         final JButton okButton = new JButton("OK");
 
@@ -100,6 +114,18 @@ public class GameSetup extends JDialog {
         return (int) this.timeSpinner.getValue();
     }
 
+    public int getThreadSpinnerValue() {
+        return (int) this.threadSpinner.getValue();
+    }
+
+    public boolean isPrincipalVariationSearch() {
+        return this.principalVariationSearchCheckBox.isSelected();
+    }
+
+    public boolean isRootParallel() {
+        return this.rootParallelCheckBox.isSelected();
+    }
+
     void promptUser() {
         setVisible(true);
         repaint();
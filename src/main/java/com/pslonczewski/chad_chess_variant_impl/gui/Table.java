@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -61,7 +62,9 @@ public class Table extends Observable {
     private final JPanel rowLabelsPanel;
     private final JPanel columnLabelsPanel;
 
-    protected static final Map<String, BoardState> rememberedBoards = new HashMap<>();
+    protected static final TranspositionTable rememberedBoards = new TranspositionTable();
+    // Pool of the parallel alpha-beta search, sized by the thread spinner
+    private static ForkJoinPool searchPool;
 
     private static final Table INSTANCE = new Table();
 
@@ -321,6 +324,19 @@ public class Table extends Observable {
         notifyObservers(playerType);
     }
 
+    /**
+     * The pool the alpha-beta search is split over, replaced when another thread count is chosen.
+     */
+    private static synchronized ForkJoinPool getSearchPool(final int threadCount) {
+        if (searchPool == null || searchPool.getParallelism() != threadCount) {
+            if (searchPool != null) {
+                searchPool.shutdown();
+            }
+            searchPool = new ForkJoinPool(threadCount);
+        }
+        return searchPool;
+    }
+
     private static class AIThinkTank extends SwingWorker<Move, String> {
 
         private AIThinkTank() {
@@ -333,11 +349,22 @@ public class Table extends Observable {
             int spinnerDepthValue = Table.get().getGameSetup().getSearchDepthSpinnerValue();
             AiType aiType = Table.get().getGameSetup().getSelectedAiType();
             int timeLimit = Table.get().getGameSetup().getTimeSpinnerSpinnerValue();
+            int threadCount = Table.get().getGameSetup().getThreadSpinnerValue();
+            boolean isPrincipalVariationSearch = Table.get().getGameSetup().isPrincipalVariationSearch();
+            boolean isRootParallel = Table.get().getGameSetup().isRootParallel();
 
             final MoveStrategy moveStrategy = switch (aiType) {
                 case MIN_MAX -> new MiniMax();
-                case ALPHA_BETA -> new AlphaBetaPruningWithMoveSorterAndTranspositionTable(rememberedBoards, spinnerDepthValue);
-                case ITERATIVE_DEEPENING -> new IterativeDeepeningWithTranspositionTable(rememberedBoards, spinnerDepthValue);
+                case ALPHA_BETA -> isRootParallel
+                        ? new AlphaBetaPruningWithMoveSorterAndTranspositionTable(rememberedBoards, spinnerDepthValue,
+                                true)
+                        : threadCount > 1
+                        ? new AlphaBetaPruningWithMoveSorterAndTranspositionTable(rememberedBoards, spinnerDepthValue,
+                                getSearchPool(threadCount))
+                        : new AlphaBetaPruningWithMoveSorterAndTranspositionTable(rememberedBoards, spinnerDepthValue);
+                case ITERATIVE_DEEPENING -> new IterativeDeepeningWithTranspositionTable(rememberedBoards, spinnerDepthValue,
+                        threadCount, isPrincipalVariationSearch
+                                ? SearchOptions.NONE.withPrincipalVariationSearch() : SearchOptions.NONE);
                 case MCTS_NON_HEURISTIC -> new MonteCarloTreeSearchNonHeuristics(timeLimit);
                 case MCTS_HEURISTIC -> new MonteCarloTreeSearchHeuristics(timeLimit);
                 default -> new AlphaBetaPruningWithMoveSorterAndTranspositionTable(rememberedBoards, spinnerDepthValue);
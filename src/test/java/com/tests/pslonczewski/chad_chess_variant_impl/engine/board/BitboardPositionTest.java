@@ -0,0 +1,206 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Queen;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the bitboards of {@link BitboardPosition} with a plain tile list kept alongside random games
+ * and through a promotion capture, and the ray scan of
+ * {@link BitboardPosition#isSquareAttacked(int, Alliance)} with the attacks the move generator produces, on
+ * every occupied tile of positions reached by random games and on a check blocked by a piece.
+ */
+class BitboardPositionTest {
+
+    @Test
+    public void positionMatchesTheTiles() {
+        final Random random = new Random(1);
+        int positions = 0;
+
+        for (int game = 0; game < 20; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            final Piece[] tiles = new Piece[BoardUtils.NUM_TILES];
+            for (final Piece piece : board.getAllPieces()) {
+                tiles[piece.getPiecePosition()] = piece;
+            }
+
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                assertPositionMatches(tiles, board.getPosition());
+                positions++;
+
+                final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                Move move;
+                do {
+                    move = moves.remove(random.nextInt(moves.size()));
+                    transition = board.getCurrentPlayer().makeMove(move);
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+
+                final Piece movedPiece = tiles[move.getCurrentCoordinate()];
+                tiles[move.getCurrentCoordinate()] = null;
+                tiles[move.getDestinationCoordinate()] = move instanceof RookPromotion
+                        ? Queen.createQueen(movedPiece.getPieceAlliance(), move.getDestinationCoordinate())
+                        : movedPiece.movePiece(move);
+            }
+        }
+        assertTrue(positions > 500);
+    }
+
+    @Test
+    public void promotionCaptureLeavesOnlyTheQueen() {
+        final Piece[] tiles = new Piece[BoardUtils.NUM_TILES];
+        tiles[99] = King.createKing(Alliance.WHITE, 99);
+        // On the black wall, above the black rook in the black castle
+        tiles[21] = Rook.createRook(Alliance.WHITE, 21);
+        tiles[44] = King.createKing(Alliance.BLACK, 44);
+        tiles[33] = Rook.createRook(Alliance.BLACK, 33);
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : tiles) {
+            if (piece != null) {
+                builder.setPiece(piece);
+            }
+        }
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        assertPositionMatches(tiles, board.getPosition());
+
+        final MoveTransition transition = board.getWhitePlayer().makeMove(Move.MoveFactory.createMove(board, 21, 33));
+        assertTrue(transition.getMoveStatus().isDone());
+        tiles[21] = null;
+        tiles[33] = Queen.createQueen(Alliance.WHITE, 33);
+        assertPositionMatches(tiles, transition.getTransitionBoard().getPosition());
+        assertTrue(transition.getTransitionBoard().getPosition().getPieces(Alliance.BLACK, PieceType.ROOK).isEmpty());
+    }
+
+    @Test
+    public void squareAttacksMatchGeneratedAttacks() {
+        final Random random = new Random(5);
+        int checks = 0;
+
+        for (int game = 0; game < 40; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                for (final Alliance attacker : Alliance.values()) {
+                    final Player player = attacker.isWhite() ? board.getWhitePlayer() : board.getBlackPlayer();
+                    for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+                        if (board.getPosition().isTileOccupiedBy(coordinate, attacker.getOpponent())) {
+                            assertEquals(isDestinationOfAny(coordinate, player.getLegalMoves()),
+                                    board.getPosition().isSquareAttacked(coordinate, attacker),
+                                    coordinate + " attacked by " + attacker + "\n" + board);
+                        }
+                    }
+                    if (player.getOpponent().isInCheck()) {
+                        checks++;
+                    }
+                }
+
+                final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(checks > 0);
+    }
+
+    @Test
+    public void rayScanStopsAtTheFirstPiece() {
+        final Board board = createRookOnTheKingsFileBoard(false);
+        assertTrue(board.getPosition().isSquareAttacked(44, Alliance.WHITE));
+        assertEquals(8, board.getPosition().findAttacker(44, Alliance.WHITE));
+        assertTrue(board.getBlackPlayer().isInCheck());
+
+        final Board blockedBoard = createRookOnTheKingsFileBoard(true);
+        assertFalse(blockedBoard.getPosition().isSquareAttacked(44, Alliance.WHITE));
+        assertEquals(-1, blockedBoard.getPosition().findAttacker(44, Alliance.WHITE));
+        assertFalse(blockedBoard.getBlackPlayer().isInCheck());
+    }
+
+    /**
+     * A white rook down the file of the black king, past the black wall, and a black rook between them if
+     * blocked.
+     */
+    private static Board createRookOnTheKingsFileBoard(final boolean isBlocked) {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 8));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        if (isBlocked) {
+            builder.setPiece(Rook.createRook(Alliance.BLACK, 32));
+        }
+        builder.setMoveMaker(Alliance.BLACK);
+        return builder.build();
+    }
+
+    private static boolean isDestinationOfAny(final int coordinate, final Iterable<Move> moves) {
+        for (final Move move : moves) {
+            if (move.getDestinationCoordinate() == coordinate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertPositionMatches(final Piece[] tiles, final BitboardPosition position) {
+        final int[] material = new int[Alliance.values().length];
+        int pieceCount = 0;
+        for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            final Piece piece = tiles[coordinate];
+            assertEquals(piece, position.getPiece(coordinate), "tile " + coordinate);
+            assertEquals(piece != null, position.isTileOccupied(coordinate));
+            assertEquals(piece != null, position.getOccupancy().isSet(coordinate));
+            for (final Alliance alliance : Alliance.values()) {
+                final boolean isOwnPiece = piece != null && piece.getPieceAlliance() == alliance;
+                assertEquals(isOwnPiece, position.isTileOccupiedBy(coordinate, alliance));
+                assertEquals(isOwnPiece, position.getOccupancy(alliance).isSet(coordinate));
+                for (final PieceType pieceType : PieceType.values()) {
+                    final boolean isPieceOfType = isOwnPiece && piece.getPieceType() == pieceType;
+                    assertEquals(isPieceOfType, position.isPieceAt(coordinate, alliance, pieceType));
+                    assertEquals(isPieceOfType, position.getPieces(alliance, pieceType).isSet(coordinate));
+                }
+            }
+            if (piece != null) {
+                material[piece.getPieceAlliance().ordinal()] += piece.getPieceValue();
+                pieceCount++;
+            }
+        }
+
+        assertEquals(pieceCount, position.getPieceCount());
+        int materialSignature = 0;
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                // The bitboards matched the tiles above
+                final int typeCount = position.getPieces(alliance, pieceType).count();
+                assertEquals(typeCount, position.getPieceCount(alliance, pieceType));
+                materialSignature += typeCount * BitboardPosition.materialSignatureOf(alliance, pieceType);
+            }
+            assertEquals(material[alliance.ordinal()], position.getMaterial(alliance));
+            int allianceCount = 0;
+            for (int coordinate = position.nextPiecePosition(alliance, 0); coordinate != -1;
+                 coordinate = position.nextPiecePosition(alliance, coordinate + 1)) {
+                assertEquals(alliance, tiles[coordinate].getPieceAlliance());
+                allianceCount++;
+            }
+            assertEquals(allianceCount, position.getPieceCount(alliance));
+            final int kingPosition = position.getKingPosition(alliance);
+            assertTrue(tiles[kingPosition].getPieceType().isKing());
+            assertEquals(alliance, tiles[kingPosition].getPieceAlliance());
+        }
+        assertEquals(materialSignature, position.getMaterialSignature());
+    }
+}
@@ -0,0 +1,71 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardBuilderTest {
+
+    @Test
+    public void builderCanBeReusedAfterBuild() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 86));
+        final Board otherBoard = builder.build();
+
+        assertNull(board.getPiece(86));
+        assertEquals(2, board.getAllPieces().size());
+        assertSame(Rook.createRook(Alliance.WHITE, 86), otherBoard.getPiece(86));
+        assertEquals(3, otherBoard.getAllPieces().size());
+    }
+
+    @Test
+    public void executedMovesMatchBoardsBuiltFromScratch() {
+        final Random random = new Random(13);
+        final Board[] startBoards = { Board.createStandardBoard(), Board.createProblem1Board(),
+                Board.createProblem2Board(), Board.createProblem3Board() };
+
+        for (int game = 0; game < 20; game++) {
+            Board board = startBoards[game % startBoards.length];
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                final List<Board> movedBoards = new ArrayList<>();
+                for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+                    final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+                    if (transition.getMoveStatus().isDone()) {
+                        movedBoards.add(transition.getTransitionBoard());
+                    }
+                }
+                if (movedBoards.isEmpty()) {
+                    break;
+                }
+                final Board movedBoard = movedBoards.get(random.nextInt(movedBoards.size()));
+
+                final Board.Builder builder = new Board.Builder();
+                for (final Piece piece : movedBoard.getAllPieces()) {
+                    builder.setPiece(piece);
+                }
+                builder.setMoveMaker(movedBoard.getCurrentPlayer().getAlliance());
+                final Board rebuiltBoard = builder.build();
+
+                assertEquals(rebuiltBoard.toString(), movedBoard.toString());
+                assertEquals(rebuiltBoard.getZobristHashCode(), movedBoard.getZobristHashCode());
+                assertEquals(board.getCurrentPlayer().getOpponent().getAlliance(),
+                        movedBoard.getCurrentPlayer().getAlliance());
+                board = movedBoard;
+            }
+        }
+    }
+}
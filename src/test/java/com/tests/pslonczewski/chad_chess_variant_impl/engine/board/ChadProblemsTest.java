@@ -1,27 +1,32 @@
 package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
 
-import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
 import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
-import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
-import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
 import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.*;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 public class ChadProblemsTest {
 
+    // Each line: the expected move and the answer played after it.
+    private static final String[][] PROBLEM_1_LINE = { { "d7", "h7", "i8", "h8" }, { "h7", "h8", "i9", "j9" },
+            { "g3", "g9", "j10", "i10" }, { "g9", "h9", "i10", "i9" }, { "h8", "i8", "j9", "j10" }, { "i8", "k10" } };
+    private static final String[][] PROBLEM_2_LINE = { { "c8", "h8", "i9", "h8" }, { "c7", "h7", "h8", "i9" },
+            { "g4", "g10", "h10", "g10" }, { "h7", "h9", "i9", "j10" }, { "h12", "h10", "i8", "i10" }, { "h9", "i9" } };
+    private static final String[][] PROBLEM_3_LINE = { { "h3", "h7", "h8", "h7" }, { "c8", "h8", "i9", "h8" },
+            { "j3", "j10", "h9", "i9" }, { "j10", "j6", "i5", "i7" }, { "d6", "d8", "h8", "h9" },
+            { "e5", "e9", "h9", "h10" }, { "d8", "d10" } };
+
     @Test
     public void testProblem1() {
         SoftAssertions softly = new SoftAssertions();
 
-        Board board = problem1Board();
+        Board board = Board.createProblem1Board();
 
-        Map<String, BoardState> testmap = new HashMap<>();
+        TranspositionTable testmap = new TranspositionTable();
 
         int moveStrategyNumber = 4;
         int depth = 6;
@@ -120,9 +125,9 @@ public class ChadProblemsTest {
     @Test
     public void testProblem2() {
         SoftAssertions softly = new SoftAssertions();
-        Board board = problem2Board();
+        Board board = Board.createProblem2Board();
 
-        Map<String, BoardState> testmap = new HashMap<>();
+        TranspositionTable testmap = new TranspositionTable();
 
         int moveStrategyNumber = 4;
         int depth = 2;
@@ -215,9 +220,9 @@ public class ChadProblemsTest {
     @Test
     public void testProblem3() {
         SoftAssertions softly = new SoftAssertions();
-        Board board = problem3Board();
+        Board board = Board.createProblem3Board();
 
-        Map<String, BoardState> testmap = new HashMap<>();
+        TranspositionTable testmap = new TranspositionTable();
 
         int moveStrategyNumber = 2;
         int depth = 6;
@@ -321,7 +326,71 @@ public class ChadProblemsTest {
         softly.assertAll();
     }
 
-    private MoveStrategy moveStrategyChooser(int moveStrategyNumber, final Map<String, BoardState> transpositionTable,
+    /**
+     * Benchmark of the pruning near the horizon, run with {@code -Dchad.benchmark=true}. Every position of the
+     * three problems is searched with and without {@link FrontierPruning}, on top of the other pruning, and
+     * the boards evaluated and expected moves found are reported. {@code chad.benchmark.depth} sets the depth
+     * and {@code chad.benchmark.margins} the futility, reverse futility and razoring margins, comma separated.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "chad.benchmark", matches = "true")
+    public void benchmarkFrontierPruning() {
+        final int depth = Integer.getInteger("chad.benchmark.depth", 5);
+        final String margins = System.getProperty("chad.benchmark.margins");
+        final FrontierPruning frontierPruning;
+        if (margins == null) {
+            frontierPruning = FrontierPruning.DEFAULT;
+        } else {
+            final String[] values = margins.split(",");
+            frontierPruning = new FrontierPruning(Integer.parseInt(values[0].trim()),
+                    Integer.parseInt(values[1].trim()), Integer.parseInt(values[2].trim()));
+        }
+
+        final Board[] boards = { Board.createProblem1Board(), Board.createProblem2Board(),
+                Board.createProblem3Board() };
+        final String[][][] lines = { PROBLEM_1_LINE, PROBLEM_2_LINE, PROBLEM_3_LINE };
+        final long[] boardsEvaluated = new long[2];
+        final long[] nanoTimes = new long[2];
+        final int[] solved = new int[2];
+        int positions = 0;
+
+        for (int problem = 0; problem < boards.length; problem++) {
+            Board board = boards[problem];
+            for (final String[] line : lines[problem]) {
+                final Move bestMove = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(line[0]),
+                        BoardUtils.getCoordinateAtPosition(line[1]));
+                for (int i = 0; i < 2; i++) {
+                    final MoveStrategy ms = new IterativeDeepeningWithTranspositionTable(new TranspositionTable(),
+                            depth, 1, new SearchOptions(true, true, true, i == 0 ? null : frontierPruning));
+                    final long startTime = System.nanoTime();
+                    final Move aiMove = ms.execute(board, depth);
+                    nanoTimes[i] += System.nanoTime() - startTime;
+                    boardsEvaluated[i] += ms.getNumBoardsEvaluated();
+                    if (bestMove.equals(aiMove)) {
+                        solved[i]++;
+                    }
+                }
+                positions++;
+
+                board = board.getCurrentPlayer().makeMove(bestMove).getTransitionBoard();
+                if (line.length > 2) {
+                    board = board.getCurrentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                            BoardUtils.getCoordinateAtPosition(line[2]), BoardUtils.getCoordinateAtPosition(line[3])))
+                            .getTransitionBoard();
+                }
+            }
+        }
+
+        System.out.printf("Depth %d, %s%n", depth, frontierPruning);
+        System.out.printf("Without frontier pruning: %d boards evaluated, %d/%d solved, %.1f s%n",
+                boardsEvaluated[0], solved[0], positions, nanoTimes[0] / 1e9);
+        System.out.printf("With frontier pruning:    %d boards evaluated, %d/%d solved, %.1f s%n",
+                boardsEvaluated[1], solved[1], positions, nanoTimes[1] / 1e9);
+        System.out.printf("Node reduction: %.1f%%%n", 100.0 * (boardsEvaluated[0] - boardsEvaluated[1])
+                / Math.max(1, boardsEvaluated[0]));
+    }
+
+    private MoveStrategy moveStrategyChooser(int moveStrategyNumber, final TranspositionTable transpositionTable,
                                              final int depth, final int timer, final Board board) {
         return switch (moveStrategyNumber) {
             case 0 -> new MiniMax();
@@ -333,81 +402,6 @@ public class ChadProblemsTest {
         };
     }
 
-    private Board problem1Board() {
-        Board.Builder builder = new Board.Builder();
-
-        builder.setPiece(new Rook(Alliance.BLACK, 26));
-        builder.setPiece(new Rook(Alliance.BLACK, 28));
-        builder.setPiece(new Rook(Alliance.BLACK, 33));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.BLACK, 57));
-        builder.setPiece(new Rook(Alliance.WHITE, 63));
-        builder.setPiece(new Rook(Alliance.WHITE, 86));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new King(Alliance.WHITE, 98));
-        builder.setPiece(new Rook(Alliance.WHITE, 100));
-        builder.setPiece(new Rook(Alliance.BLACK, 105));
-        builder.setPiece(new Rook(Alliance.WHITE, 110));
-        builder.setPiece(new Rook(Alliance.WHITE, 114));
-        builder.setPiece(new Rook(Alliance.WHITE, 115));
-
-        builder.setMoveMaker(Alliance.WHITE);
-
-        return builder.build();
-    }
-
-    private Board problem2Board() {
-        Board.Builder builder = new Board.Builder();
-
-        builder.setPiece(new Rook(Alliance.WHITE, 7));
-        builder.setPiece(new Rook(Alliance.BLACK, 8));
-        builder.setPiece(new Rook(Alliance.BLACK, 31));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.WHITE, 50));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.WHITE, 62));
-        builder.setPiece(new Rook(Alliance.BLACK, 77));
-        builder.setPiece(new Rook(Alliance.WHITE, 87));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new Rook(Alliance.BLACK, 93));
-        builder.setPiece(new Rook(Alliance.WHITE, 102));
-        builder.setPiece(new King(Alliance.WHITE, 111));
-        builder.setPiece(new Rook(Alliance.WHITE, 112));
-        builder.setPiece(new Rook(Alliance.BLACK, 114));
-        builder.setPiece(new Rook(Alliance.WHITE, 123));
-        builder.setPiece(new Rook(Alliance.BLACK, 129));
-
-        builder.setMoveMaker(Alliance.WHITE);
-
-        return builder.build();
-    }
-
-    private Board problem3Board() {
-        Board.Builder builder = new Board.Builder();
-
-        builder.setPiece(new Rook(Alliance.BLACK, 26));
-        builder.setPiece(new Rook(Alliance.BLACK, 32));
-        builder.setPiece(new Rook(Alliance.BLACK, 43));
-        builder.setPiece(new King(Alliance.BLACK, 44));
-        builder.setPiece(new Rook(Alliance.WHITE, 50));
-        builder.setPiece(new Rook(Alliance.BLACK, 55));
-        builder.setPiece(new Rook(Alliance.BLACK, 56));
-        builder.setPiece(new Rook(Alliance.WHITE, 75));
-        builder.setPiece(new Rook(Alliance.WHITE, 88));
-        builder.setPiece(new Rook(Alliance.BLACK, 92));
-        builder.setPiece(new King(Alliance.WHITE, 99));
-        builder.setPiece(new Rook(Alliance.WHITE, 100));
-        builder.setPiece(new Rook(Alliance.WHITE, 115));
-        builder.setPiece(new Rook(Alliance.WHITE, 117));
-
-        builder.setMoveMaker(Alliance.WHITE);
-
-        return builder.build();
-    }
-
     @Test
     public void countBranchingFactor() {
         Board board;
@@ -0,0 +1,114 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trips every move of both players between {@link Move} and {@link EncodedMove}, on positions reached
+ * by random games and on a position with plain and capturing rook promotions.
+ */
+class EncodedMoveTest {
+
+    @Test
+    public void movesSurviveEncodingAndDecoding() {
+        final Random random = new Random(7);
+        int promotions = 0;
+
+        for (int game = 0; game < 20; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                for (final Player player : List.of(board.getWhitePlayer(), board.getBlackPlayer())) {
+                    assertRoundTrips(board, player);
+                    for (final Move move : player.getLegalMoves()) {
+                        if (move.isPromotion()) {
+                            promotions++;
+                        }
+                    }
+                }
+
+                final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(promotions > 0);
+    }
+
+    @Test
+    public void promotionsSurviveEncodingAndDecoding() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, above an empty and an occupied tile of the black castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 19));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        final Move promotion = Move.MoveFactory.createMove(board, 19, 31);
+        assertInstanceOf(RookPromotion.class, promotion);
+        assertFalse(promotion.isAttack());
+        final int encodedPromotion = EncodedMove.fromMove(promotion);
+        assertTrue(EncodedMove.isPromotion(encodedPromotion));
+        assertFalse(EncodedMove.isAttack(encodedPromotion));
+        assertNull(EncodedMove.getAttackedPieceType(encodedPromotion));
+
+        final Move promotionCapture = Move.MoveFactory.createMove(board, 21, 33);
+        assertInstanceOf(RookPromotion.class, promotionCapture);
+        assertTrue(promotionCapture.isAttack());
+        final int encodedCapture = EncodedMove.fromMove(promotionCapture);
+        assertTrue(EncodedMove.isPromotion(encodedCapture));
+        assertTrue(EncodedMove.isAttack(encodedCapture));
+        assertEquals(PieceType.ROOK, EncodedMove.getMovedPieceType(encodedCapture));
+        assertEquals(PieceType.ROOK, EncodedMove.getAttackedPieceType(encodedCapture));
+        assertEquals(Alliance.WHITE, EncodedMove.getMovedPieceAlliance(encodedCapture));
+        assertEquals(board.getPiece(33), EncodedMove.toMove(board, encodedCapture).getAttackedPiece());
+
+        assertRoundTrips(board, board.getWhitePlayer());
+        assertRoundTrips(board, board.getBlackPlayer());
+    }
+
+    private static void assertRoundTrips(final Board board, final Player player) {
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final MoveList generatedMoves = new MoveList();
+        searchBoard.generateMoves(player.getAlliance(), generatedMoves);
+        assertEquals(player.getLegalMoves().size(), generatedMoves.size());
+
+        int i = 0;
+        for (final Move move : player.getLegalMoves()) {
+            final int encodedMove = EncodedMove.fromMove(move);
+            // The search generates the same moves, in the same order
+            assertEquals(encodedMove, generatedMoves.get(i++));
+            assertEquals(move.getCurrentCoordinate(), EncodedMove.getCurrentCoordinate(encodedMove));
+            assertEquals(move.getDestinationCoordinate(), EncodedMove.getDestinationCoordinate(encodedMove));
+            assertEquals(move.getMovedPiece().getPieceType(), EncodedMove.getMovedPieceType(encodedMove));
+            assertEquals(player.getAlliance(), EncodedMove.getMovedPieceAlliance(encodedMove));
+            assertEquals(move.isAttack(), EncodedMove.isAttack(encodedMove));
+            assertEquals(move.isAttack() ? move.getAttackedPiece().getPieceType() : null,
+                    EncodedMove.getAttackedPieceType(encodedMove));
+            assertEquals(move.isPromotion(), EncodedMove.isPromotion(encodedMove));
+
+            final Move decodedMove = EncodedMove.toMove(board, encodedMove);
+            assertEquals(move, decodedMove);
+            assertEquals(move.getClass(), decodedMove.getClass());
+            assertEquals(move.getAttackedPiece(), decodedMove.getAttackedPiece());
+            assertEquals(encodedMove, EncodedMove.fromMove(decodedMove));
+            assertSame(move, Move.MoveFactory.createMove(board, encodedMove));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.FrontierPruning;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.FrontierPruning.NodePruning;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTable;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTableTimeDependent;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.SearchOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontierPruningTest {
+
+    @Test
+    public void prunedSearchPlaysLegalMovesWithFewerEvaluations() {
+        long fullSearchEvaluations = 0;
+        long prunedSearchEvaluations = 0;
+        for (final Board board : TestBoards.ALL) {
+            final IterativeDeepeningWithTranspositionTable fullSearch = new IterativeDeepeningWithTranspositionTable(
+                    new TranspositionTable(), 4, 1, SearchOptions.NONE);
+            final IterativeDeepeningWithTranspositionTable prunedSearch = new IterativeDeepeningWithTranspositionTable(
+                    new TranspositionTable(), 4, 1, SearchOptions.NONE.withFrontierPruning(FrontierPruning.DEFAULT));
+            fullSearch.execute(board, 4);
+            final Move move = prunedSearch.execute(board, 4);
+
+            assertNotNull(move);
+            assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+            assertTrue(prunedSearch.getNumBoardsEvaluated() <= fullSearch.getNumBoardsEvaluated());
+            fullSearchEvaluations += fullSearch.getNumBoardsEvaluated();
+            prunedSearchEvaluations += prunedSearch.getNumBoardsEvaluated();
+        }
+        assertTrue(prunedSearchEvaluations < fullSearchEvaluations);
+    }
+
+    /**
+     * Two rooks behind, white is far below any bound near the horizon, so that only its attacks are searched
+     * there.
+     */
+    @Test
+    public void prunedSearchKeepsTheWinningCapture() {
+        final Board board = TestBoards.createPromotionCaptureBoard(141, 143);
+        final IterativeDeepeningWithTranspositionTable fullSearch = new IterativeDeepeningWithTranspositionTable(
+                new TranspositionTable(), 4, 1, SearchOptions.NONE);
+        final IterativeDeepeningWithTranspositionTable prunedSearch = new IterativeDeepeningWithTranspositionTable(
+                new TranspositionTable(), 4, 1, SearchOptions.NONE.withFrontierPruning(FrontierPruning.DEFAULT));
+        final Move capture = board.getWhitePlayer().getLegalMove(21, 33);
+
+        assertEquals(capture, fullSearch.execute(board, 4));
+        assertEquals(capture, prunedSearch.execute(board, 4));
+        assertTrue(prunedSearch.getNumBoardsEvaluated() < fullSearch.getNumBoardsEvaluated());
+    }
+
+    @Test
+    public void futilityComparesTheMarginPerPlyWithTheBound() {
+        final FrontierPruning frontierPruning = new FrontierPruning(100, 150, 300);
+
+        assertTrue(frontierPruning.isFutileForWhite(0, 1, 100));
+        assertFalse(frontierPruning.isFutileForWhite(0, 1, 99));
+        assertTrue(frontierPruning.isFutileForWhite(0, 2, 200));
+        assertFalse(frontierPruning.isFutileForWhite(0, FrontierPruning.FUTILITY_DEPTH + 1, 1000));
+        assertFalse(frontierPruning.isFutileForWhite(Integer.MIN_VALUE, 1, Integer.MIN_VALUE));
+        assertTrue(frontierPruning.isFutileForBlack(0, 1, -100));
+        assertFalse(frontierPruning.isFutileForBlack(0, 1, -99));
+        assertFalse(frontierPruning.isFutileForBlack(Integer.MAX_VALUE, 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void reverseFutilityComparesTheMarginPerPlyWithTheBound() {
+        final FrontierPruning frontierPruning = new FrontierPruning(100, 150, 300);
+
+        assertTrue(frontierPruning.isReverseFutileForWhite(300, 2, 0));
+        assertFalse(frontierPruning.isReverseFutileForWhite(300, 2, 1));
+        assertFalse(frontierPruning.isReverseFutileForWhite(1000,
+                FrontierPruning.REVERSE_FUTILITY_DEPTH + 1, 0));
+        assertFalse(frontierPruning.isReverseFutileForWhite(Integer.MAX_VALUE, 1, Integer.MAX_VALUE));
+        assertTrue(frontierPruning.isReverseFutileForBlack(-300, 2, 0));
+        assertFalse(frontierPruning.isReverseFutileForBlack(-300, 2, -1));
+        assertFalse(frontierPruning.isReverseFutileForBlack(Integer.MIN_VALUE, 1, Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void razoringComparesTheMarginPerPlyWithTheBound() {
+        final FrontierPruning frontierPruning = new FrontierPruning(100, 150, 300);
+
+        assertTrue(frontierPruning.isRazoredForWhite(0, 2, 600));
+        assertFalse(frontierPruning.isRazoredForWhite(0, 2, 599));
+        assertFalse(frontierPruning.isRazoredForWhite(0, FrontierPruning.RAZORING_DEPTH + 1, 1000));
+        assertTrue(frontierPruning.isRazoredForBlack(0, 2, -600));
+        assertFalse(frontierPruning.isRazoredForBlack(0, 2, -599));
+        assertFalse(frontierPruning.isRazoredForBlack(Integer.MAX_VALUE, 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void nodePruningMirrorsTheBoundsForBlack() {
+        final FrontierPruning frontierPruning = new FrontierPruning(100, 150, 300);
+
+        assertEquals(NodePruning.REVERSE_FUTILITY, frontierPruning.getNodePruning(300, -1000, 0, 2, true));
+        assertEquals(NodePruning.RAZORING, frontierPruning.getNodePruning(0, 600, 1000, 2, true));
+        assertTrue(frontierPruning.isFutile(0, 600, 1000, 2, true));
+        assertEquals(NodePruning.FUTILITY, frontierPruning.getNodePruning(0, 200, 1000, 2, true));
+        assertEquals(NodePruning.NONE, frontierPruning.getNodePruning(0, 199, 1000, 2, true));
+        assertEquals(NodePruning.NONE, frontierPruning.getNodePruning(0, 1000, 2000,
+                FrontierPruning.REVERSE_FUTILITY_DEPTH, true));
+
+        assertEquals(NodePruning.REVERSE_FUTILITY, frontierPruning.getNodePruning(-300, 0, 1000, 2, false));
+        assertEquals(NodePruning.RAZORING, frontierPruning.getNodePruning(0, -1000, -600, 2, false));
+        assertTrue(frontierPruning.isFutile(0, -1000, -600, 2, false));
+        assertEquals(NodePruning.FUTILITY, frontierPruning.getNodePruning(0, -1000, -200, 2, false));
+        assertEquals(NodePruning.NONE, frontierPruning.getNodePruning(0, -1000, -199, 2, false));
+        // A node cut off for white is one where black can only hope for its attacks
+        assertEquals(NodePruning.FUTILITY, frontierPruning.getNodePruning(300, -1000, 0, 2, false));
+    }
+
+    @Test
+    public void timeDependentPrunedSearchPlaysLegalMoves() {
+        for (final Board board : TestBoards.ALL) {
+            final Move move = new IterativeDeepeningWithTranspositionTableTimeDependent(new TranspositionTable(), 60,
+                    4, new SearchOptions(false, true, true, new FrontierPruning(100, 100, 200))).execute(board, 4);
+
+            assertNotNull(move);
+            assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+        }
+    }
+
+    @Test
+    public void marginsCannotBeNegative() {
+        assertThrows(RuntimeException.class, () -> new FrontierPruning(-1, 0, 0));
+    }
+}
@@ -0,0 +1,155 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTable;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTableTimeDependent;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.LateMoveReductions;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.SearchOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LateMoveReductionsTest {
+
+    @Test
+    public void onlyLateQuietMovesAreReducible() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, next to a black rook inside the castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 30));
+        // On the black wall, above two empty castle tiles and a black rook
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 62));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 57));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 0));
+        builder.setMoveMaker(Alliance.BLACK);
+        final SearchBoard board = new SearchBoard(builder.build());
+        final int lastMove = EncodedMove.encode(0, 12, Rook.createRook(Alliance.BLACK, 0), null, false);
+        assertTrue(board.make(lastMove));
+
+        final MoveList quietMoves = new MoveList();
+        board.generateMoves(Alliance.WHITE, quietMoves, false, true);
+        final int[] refutations = new int[3];
+        for (int i = 0, j = 0; j < refutations.length; i++) {
+            if (!EncodedMove.isPromotion(quietMoves.get(i))) {
+                refutations[j++] = quietMoves.get(i);
+            }
+        }
+        final MoveHistory moveHistory = new MoveHistory();
+        moveHistory.storeCutoff(Alliance.WHITE, refutations[0], 1, 3, EncodedMove.NULL_MOVE);
+        moveHistory.storeCutoff(Alliance.WHITE, refutations[1], 1, 3, EncodedMove.NULL_MOVE);
+        moveHistory.storeCutoff(Alliance.WHITE, refutations[2], 2, 3, lastMove);
+        assertEquals(refutations[2], moveHistory.getCounterMove(Alliance.WHITE, lastMove));
+
+        final int late = LateMoveReductions.FULL_DEPTH_MOVES;
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, moveHistory, 0);
+        int attacks = 0;
+        int promotions = 0;
+        int refutationCount = 0;
+        int reducibleMoves = 0;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            final boolean isReducible = LateMoveReductions.isReducible(movePicker, move, 5, late, false);
+            if (EncodedMove.isAttack(move)) {
+                assertFalse(isReducible);
+                attacks++;
+            } else if (EncodedMove.isPromotion(move)) {
+                assertFalse(isReducible);
+                promotions++;
+            } else if (move == refutations[0] || move == refutations[1] || move == refutations[2]) {
+                assertFalse(isReducible);
+                refutationCount++;
+            } else {
+                assertTrue(isReducible);
+                assertFalse(LateMoveReductions.isReducible(movePicker, move, 5, late - 1, false));
+                assertFalse(LateMoveReductions.isReducible(movePicker, move, 2, late, false));
+                reducibleMoves++;
+            }
+        }
+        assertEquals(2, attacks);
+        assertEquals(2, promotions);
+        assertEquals(3, refutationCount);
+        assertTrue(reducibleMoves > 0);
+    }
+
+    @Test
+    public void checkEvasionsAreNotReducible() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 62));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        // Same column as the white king, nothing in between
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 15));
+        builder.setMoveMaker(Alliance.WHITE);
+        final SearchBoard board = new SearchBoard(builder.build());
+        final boolean isInCheck = board.isInCheck(Alliance.WHITE);
+        assertTrue(isInCheck);
+
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, new MoveHistory(), 0);
+        int quietMoves = 0;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            assertFalse(LateMoveReductions.isReducible(movePicker, move, 5, LateMoveReductions.FULL_DEPTH_MOVES,
+                    isInCheck));
+            if (movePicker.isQuietMove()) {
+                quietMoves++;
+            }
+        }
+        assertTrue(quietMoves > 0);
+    }
+
+    @Test
+    public void movesGivingCheckAreNotReduced() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 62));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        builder.setMoveMaker(Alliance.WHITE);
+        final SearchBoard board = new SearchBoard(builder.build());
+        final Rook rook = Rook.createRook(Alliance.WHITE, 62);
+
+        // To the column of the black king, with only an empty castle tile in between
+        final int checkingMove = EncodedMove.encode(62, 68, rook, null, false);
+        assertTrue(board.make(checkingMove));
+        assertTrue(board.isInCheck(Alliance.BLACK));
+        assertFalse(LateMoveReductions.isReducedOnceMade(board));
+        board.unmake(checkingMove);
+
+        final int quietMove = EncodedMove.encode(62, 63, rook, null, false);
+        assertTrue(board.make(quietMove));
+        assertTrue(LateMoveReductions.isReducedOnceMade(board));
+    }
+
+    @Test
+    public void reducedSearchPlaysLegalMovesWithFewerEvaluations() {
+        for (final Board board : TestBoards.ALL) {
+            final IterativeDeepeningWithTranspositionTable fullDepthSearch =
+                    new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 5, 1,
+                            SearchOptions.NONE.withPrincipalVariationSearch());
+            final IterativeDeepeningWithTranspositionTable reducedSearch =
+                    new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 5, 1,
+                            SearchOptions.NONE.withPrincipalVariationSearch().withLateMoveReductions());
+            fullDepthSearch.execute(board, 5);
+            final Move move = reducedSearch.execute(board, 5);
+
+            assertNotNull(move);
+            assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+            assertTrue(reducedSearch.getNumBoardsEvaluated() < fullDepthSearch.getNumBoardsEvaluated());
+        }
+    }
+
+    @Test
+    public void timeDependentReducedSearchPlaysLegalMoves() {
+        for (final Board board : TestBoards.ALL) {
+            final Move move = new IterativeDeepeningWithTranspositionTableTimeDependent(new TranspositionTable(), 60,
+                    5, SearchOptions.NONE.withNullMovePruning().withLateMoveReductions()).execute(board, 5);
+
+            assertNotNull(move);
+            assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+        }
+    }
+}
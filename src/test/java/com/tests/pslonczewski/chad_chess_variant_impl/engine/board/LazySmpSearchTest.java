@@ -0,0 +1,65 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazySmpSearchTest {
+
+    @Test
+    public void helpersFindALegalMoveAndStop() {
+        final TranspositionTable table = new TranspositionTable(16);
+        for (final Board board : TestBoards.ALL) {
+            final Move move = new IterativeDeepeningWithTranspositionTable(table, 3, 3).execute(board, 3);
+
+            assertNotNull(move);
+            assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+            assertTrue(Thread.getAllStackTraces().keySet().stream()
+                    .noneMatch(thread -> thread.getName().startsWith("Lazy SMP helper")));
+        }
+    }
+
+    @Test
+    public void helpersFindTheWinningCapture() {
+        final Board board = TestBoards.createPromotionCaptureBoard();
+        final Move move = new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 3)
+                .execute(board, 4);
+
+        assertEquals(board.getWhitePlayer().getLegalMove(21, 33), move);
+    }
+
+    /**
+     * The helpers share their results with the calling thread through the transposition table only, so the
+     * calling thread reaching the depth after evaluating fewer boards shows both the sharing and the shorter
+     * time to depth, whatever the number of cores the test runs on. A single position can go either way with
+     * the scheduling of the threads, so the boards are summed over all of them.
+     */
+    @Test
+    public void helpersShareTheTableAndShortenTheTimeToDepth() {
+        long serialBoardsEvaluated = 0;
+        long callingThreadBoardsEvaluated = 0;
+        for (final Board board : TestBoards.ALL) {
+            final IterativeDeepeningWithTranspositionTable serialSearch =
+                    new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 1);
+            final IterativeDeepeningWithTranspositionTable lazySmpSearch =
+                    new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 3);
+            serialSearch.execute(board, 4);
+            lazySmpSearch.execute(board, 4);
+
+            assertEquals(serialSearch.getNumBoardsEvaluated(), serialSearch.getNumBoardsEvaluatedByCallingThread());
+            assertTrue(lazySmpSearch.getNumBoardsEvaluated() > lazySmpSearch.getNumBoardsEvaluatedByCallingThread());
+            serialBoardsEvaluated += serialSearch.getNumBoardsEvaluated();
+            callingThreadBoardsEvaluated += lazySmpSearch.getNumBoardsEvaluatedByCallingThread();
+        }
+        assertTrue(callingThreadBoardsEvaluated < serialBoardsEvaluated,
+                callingThreadBoardsEvaluated + " >= " + serialBoardsEvaluated);
+    }
+
+    @Test
+    public void needsAThread() {
+        assertThrows(RuntimeException.class,
+                () -> new IterativeDeepeningWithTranspositionTable(new TranspositionTable(4), 3, 0));
+    }
+}
@@ -0,0 +1,133 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the legal moves found from checkers and pins with the moves that survive being made on the
+ * board, on positions reached by random games from the start positions and on a constructed pin and
+ * double check.
+ */
+class LegalMoveGeneratorTest {
+
+    @Test
+    public void sameMovesAsMakingThem() {
+        final Random random = new Random(23);
+        int checks = 0;
+
+        for (int game = 0; game < 60; game++) {
+            final SearchBoard board = new SearchBoard(TestBoards.ALL.get(game % TestBoards.ALL.size()));
+            for (int ply = 0; ply < 80 && !board.isEndGameScenario(); ply++) {
+                final MoveList legalMoves = assertSameMovesAsMakingThem(board);
+                if (board.isInCheck(board.getSideToMove())) {
+                    checks++;
+                }
+
+                final int move = legalMoves.get(random.nextInt(legalMoves.size()));
+                assertTrue(board.make(move));
+            }
+        }
+        assertTrue(checks > 0);
+    }
+
+    @Test
+    public void playerEscapeMovesMatchMakingThem() {
+        final Random random = new Random(29);
+        int endings = 0;
+
+        for (int game = 0; game < 60; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 200; ply++) {
+                final Player player = board.getCurrentPlayer();
+                final List<Board> movedBoards = new ArrayList<>();
+                for (final Move move : player.getLegalMoves()) {
+                    final MoveTransition transition = player.makeMove(move);
+                    if (transition.getMoveStatus().isDone()) {
+                        movedBoards.add(transition.getTransitionBoard());
+                    }
+                }
+
+                assertEquals(player.isInCheck() && movedBoards.isEmpty(), player.isInCheckMate(), board.toString());
+                assertEquals(!player.isInCheck() && movedBoards.isEmpty(), player.isInStaleMate(), board.toString());
+                if (movedBoards.isEmpty()) {
+                    endings++;
+                    break;
+                }
+                board = movedBoards.get(random.nextInt(movedBoards.size()));
+            }
+        }
+        assertTrue(endings > 0);
+    }
+
+    @Test
+    public void pinnedRookStaysOnItsFile() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // Between the white king and the black rook at the top of the same file
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 75));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 3));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setMoveMaker(Alliance.WHITE);
+        final SearchBoard board = new SearchBoard(builder.build());
+
+        final MoveList legalMoves = assertSameMovesAsMakingThem(board);
+        int rookMoves = 0;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (EncodedMove.getCurrentCoordinate(legalMoves.get(i)) == 75) {
+                assertEquals(3, EncodedMove.getDestinationCoordinate(legalMoves.get(i))
+                        % BoardUtils.NUM_TILES_PER_ROW);
+                rookMoves++;
+            }
+        }
+        // Up the file to the black rook, and down into the castle
+        assertEquals(6, rookMoves);
+    }
+
+    @Test
+    public void onlyTheKingMovesOutOfADoubleCheck() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // Down the file and along the rank of the black king
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 8));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 36));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 140));
+        builder.setMoveMaker(Alliance.BLACK);
+        final SearchBoard board = new SearchBoard(builder.build());
+        assertTrue(board.isInCheck(Alliance.BLACK));
+
+        final MoveList legalMoves = assertSameMovesAsMakingThem(board);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            assertEquals(44, EncodedMove.getCurrentCoordinate(legalMoves.get(i)));
+        }
+        // The corners of the castle, off both lines
+        assertEquals(4, legalMoves.size());
+    }
+
+    private static MoveList assertSameMovesAsMakingThem(final SearchBoard board) {
+        final MoveList madeMoves = new MoveList();
+        final MoveList moves = board.generateMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (board.make(move)) {
+                madeMoves.add(move);
+            }
+            board.unmake(move);
+        }
+
+        final MoveList legalMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), legalMoves);
+        assertArrayEquals(madeMoves.toArray(), legalMoves.toArray(), board.toString());
+        return legalMoves;
+    }
+}
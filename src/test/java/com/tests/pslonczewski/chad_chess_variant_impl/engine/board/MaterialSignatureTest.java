@@ -0,0 +1,91 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the piece counts, material and material signature kept by the position against the pieces on
+ * it, while random games are made and unmade on a search board.
+ */
+class MaterialSignatureTest {
+
+    @Test
+    public void countsFollowMakeAndUnmake() {
+        final Random random = new Random(5);
+        final Board[] startBoards = { Board.createStandardBoard(), Board.createProblem1Board(),
+                Board.createProblem2Board(), Board.createProblem3Board() };
+
+        for (int game = 0; game < 40; game++) {
+            final SearchBoard board = new SearchBoard(startBoards[game % startBoards.length]);
+            for (int ply = 0; ply < 80 && !board.isEndGameScenario(); ply++) {
+                assertCountsMatchPieces(board.getPosition());
+
+                final MoveList moves = new MoveList();
+                board.generateLegalMoves(board.getSideToMove(), moves);
+                final int move = moves.get(random.nextInt(moves.size()));
+                assertTrue(board.make(move));
+                assertCountsMatchPieces(board.getPosition());
+                board.unmake(move);
+                assertCountsMatchPieces(board.getPosition());
+                assertTrue(board.make(move));
+            }
+        }
+    }
+
+    @Test
+    public void twoKingsAreADraw() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        assertTrue(board.isADraw());
+        assertEquals(BitboardPosition.materialSignatureOf(Alliance.WHITE, PieceType.KING)
+                + BitboardPosition.materialSignatureOf(Alliance.BLACK, PieceType.KING), board.getMaterialSignature());
+
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        final Board otherBoard = builder.build();
+        assertFalse(otherBoard.isADraw());
+        assertEquals(PieceType.KING.getPieceValue() + PieceType.ROOK.getPieceValue(),
+                otherBoard.getMaterial(Alliance.BLACK));
+        assertNotEquals(board.getMaterialSignature(), otherBoard.getMaterialSignature());
+    }
+
+    private static void assertCountsMatchPieces(final BitboardPosition position) {
+        final int[] material = new int[Alliance.values().length];
+        final int[] counts = new int[Alliance.values().length];
+        int pieceCount = 0;
+        int materialSignature = 0;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = position.getPiece(i);
+            if (piece != null) {
+                material[piece.getPieceAlliance().ordinal()] += piece.getPieceValue();
+                counts[piece.getPieceAlliance().ordinal()]++;
+                pieceCount++;
+                materialSignature += BitboardPosition.materialSignatureOf(piece.getPieceAlliance(),
+                        piece.getPieceType());
+            }
+        }
+
+        assertEquals(pieceCount, position.getPieceCount());
+        assertEquals(materialSignature, position.getMaterialSignature());
+        for (final Alliance alliance : Alliance.values()) {
+            assertEquals(material[alliance.ordinal()], position.getMaterial(alliance));
+            assertEquals(counts[alliance.ordinal()], position.getPieceCount(alliance));
+            for (final PieceType pieceType : PieceType.values()) {
+                assertEquals(position.getPieces(alliance, pieceType).count(),
+                        position.getPieceCount(alliance, pieceType));
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveHistoryTest {
+
+    @Test
+    public void killerMovesAreKeptPerPly() {
+        final int[] quietMoves = quietMoves(new SearchBoard(Board.createStandardBoard()));
+        final MoveHistory moveHistory = new MoveHistory();
+
+        moveHistory.storeCutoff(Alliance.WHITE, quietMoves[0], 3, 2, EncodedMove.NULL_MOVE);
+        moveHistory.storeCutoff(Alliance.WHITE, quietMoves[1], 3, 2, EncodedMove.NULL_MOVE);
+        moveHistory.storeCutoff(Alliance.WHITE, quietMoves[1], 3, 2, EncodedMove.NULL_MOVE);
+
+        assertEquals(quietMoves[1], moveHistory.getFirstKiller(3));
+        assertEquals(quietMoves[0], moveHistory.getSecondKiller(3));
+        assertEquals(EncodedMove.NULL_MOVE, moveHistory.getFirstKiller(2));
+        assertEquals(EncodedMove.NULL_MOVE, moveHistory.getFirstKiller(MoveHistory.MAX_PLY));
+    }
+
+    @Test
+    public void historyScoresGrowWithDepthAndAge() {
+        final int[] quietMoves = quietMoves(new SearchBoard(Board.createStandardBoard()));
+        final MoveHistory moveHistory = new MoveHistory();
+
+        moveHistory.storeCutoff(Alliance.WHITE, quietMoves[0], 0, 4, EncodedMove.NULL_MOVE);
+        moveHistory.storeCutoff(Alliance.WHITE, quietMoves[0], 5, 2, EncodedMove.NULL_MOVE);
+        moveHistory.storeFailure(Alliance.WHITE, quietMoves[1], 3);
+        assertEquals(20, moveHistory.getHistoryScore(Alliance.WHITE, quietMoves[0]));
+        assertEquals(-9, moveHistory.getHistoryScore(Alliance.WHITE, quietMoves[1]));
+        assertEquals(0, moveHistory.getHistoryScore(Alliance.BLACK, quietMoves[0]));
+
+        moveHistory.age();
+        assertEquals(10, moveHistory.getHistoryScore(Alliance.WHITE, quietMoves[0]));
+    }
+
+    @Test
+    public void counterMoveAnswersTheLastMoveOfTheOpponent() {
+        final SearchBoard board = new SearchBoard(Board.createStandardBoard());
+        final int lastMove = quietMoves(board)[0];
+        assertTrue(board.make(lastMove));
+        assertEquals(lastMove, board.getLastMove());
+        final int counterMove = quietMoves(board)[0];
+        final MoveHistory moveHistory = new MoveHistory();
+
+        moveHistory.storeCutoff(board.getSideToMove(), counterMove, 1, 3, lastMove);
+
+        assertEquals(counterMove, moveHistory.getCounterMove(board.getSideToMove(), lastMove));
+        assertEquals(EncodedMove.NULL_MOVE, moveHistory.getCounterMove(board.getSideToMove().getOpponent(), lastMove));
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, moveHistory, 0);
+        int move = movePicker.nextMove();
+        while (EncodedMove.isAttack(move)) {
+            move = movePicker.nextMove();
+        }
+        assertEquals(counterMove, move);
+        assertFalse(movePicker.isQuietMove());
+    }
+
+    @Test
+    public void quietMovesArePickedByHistoryScore() {
+        final Random random = new Random(5);
+        final SearchBoard board = new SearchBoard(Board.createProblem2Board());
+        final MoveHistory moveHistory = new MoveHistory();
+        for (final int move : quietMoves(board)) {
+            moveHistory.storeCutoff(board.getSideToMove(), move, MoveHistory.MAX_PLY, random.nextInt(6),
+                    EncodedMove.NULL_MOVE);
+        }
+
+        final MovePicker movePicker = board.getMovePicker(EncodedMove.NULL_MOVE, moveHistory, 0);
+        int previousScore = Integer.MAX_VALUE;
+        int quietMoveCount = 0;
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            if (movePicker.isQuietMove()) {
+                final int score = moveHistory.getHistoryScore(board.getSideToMove(), move);
+                assertTrue(score <= previousScore);
+                previousScore = score;
+                quietMoveCount++;
+            }
+        }
+        assertEquals(quietMoves(board).length, quietMoveCount);
+    }
+
+    @Test
+    public void forksKeepTheirChangesUntilMerged() {
+        final Random random = new Random(7);
+        final int[] quietMoves = quietMoves(new SearchBoard(Board.createProblem2Board()));
+        final MoveHistory moveHistory = new MoveHistory();
+        final MoveHistory unchangedHistory = new MoveHistory();
+        final MoveHistory directHistory = new MoveHistory();
+        final long seed = random.nextLong();
+        storeRandomCutoffs(seed, quietMoves, moveHistory, unchangedHistory, directHistory);
+
+        final MoveHistory fork = moveHistory.fork();
+        assertSameHistory(unchangedHistory, fork, quietMoves);
+        storeRandomCutoffs(seed + 1, quietMoves, fork, directHistory);
+        final MoveHistory nestedFork = fork.fork();
+        storeRandomCutoffs(seed + 2, quietMoves, nestedFork, directHistory);
+        assertSameHistory(unchangedHistory, moveHistory, quietMoves);
+
+        fork.merge(nestedFork);
+        moveHistory.merge(fork);
+        assertSameHistory(directHistory, moveHistory, quietMoves);
+        assertThrows(RuntimeException.class, () -> moveHistory.merge(nestedFork));
+        assertThrows(RuntimeException.class, fork::age);
+    }
+
+    /**
+     * Stores the same random cutoffs and failures, at a few plies, into each of the histories.
+     */
+    private static void storeRandomCutoffs(final long seed, final int[] quietMoves, final MoveHistory... histories) {
+        for (final MoveHistory moveHistory : histories) {
+            final Random random = new Random(seed);
+            for (int i = 0; i < 200; i++) {
+                final Alliance alliance = random.nextBoolean() ? Alliance.WHITE : Alliance.BLACK;
+                final int move = quietMoves[random.nextInt(quietMoves.length)];
+                if (random.nextInt(3) == 0) {
+                    moveHistory.storeFailure(alliance, move, random.nextInt(6));
+                } else {
+                    moveHistory.storeCutoff(alliance, move, random.nextInt(8), random.nextInt(6),
+                            quietMoves[random.nextInt(quietMoves.length)]);
+                }
+            }
+        }
+    }
+
+    private static void assertSameHistory(final MoveHistory expected, final MoveHistory actual,
+                                          final int[] quietMoves) {
+        for (int ply = 0; ply < 8; ply++) {
+            assertEquals(expected.getFirstKiller(ply), actual.getFirstKiller(ply), "ply " + ply);
+            assertEquals(expected.getSecondKiller(ply), actual.getSecondKiller(ply), "ply " + ply);
+        }
+        for (final Alliance alliance : Alliance.values()) {
+            for (final int move : quietMoves) {
+                assertEquals(expected.getHistoryScore(alliance, move), actual.getHistoryScore(alliance, move));
+                assertEquals(expected.getCounterMove(alliance, move), actual.getCounterMove(alliance, move));
+            }
+        }
+    }
+
+    private static int[] quietMoves(final SearchBoard board) {
+        final MoveList moves = new MoveList();
+        board.generateMoves(board.getSideToMove(), moves, false, true);
+        return moves.toArray();
+    }
+}
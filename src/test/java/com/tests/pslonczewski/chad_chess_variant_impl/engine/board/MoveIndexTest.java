@@ -0,0 +1,169 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the lookups of {@link MoveIndex} with a plain map of the same moves, on every pair of tiles of
+ * positions reached by random games, and on moves chosen to hash to the same slot, so that lookups have to
+ * probe past the slots of other moves.
+ */
+class MoveIndexTest {
+
+    @Test
+    public void everyPairOfTilesMatchesTheMoveList() {
+        final Random random = new Random(11);
+        int positions = 0;
+
+        for (int game = 0; game < 20; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 40 && !BoardUtils.isEndGameScenario(board); ply++) {
+                for (final Player player : List.of(board.getWhitePlayer(), board.getBlackPlayer())) {
+                    assertIndexMatches(new ArrayList<>(player.getLegalMoves()));
+                }
+                positions++;
+
+                final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(positions > 100);
+    }
+
+    @Test
+    public void smallIndexesMatchTheirMoves() {
+        final List<Move> moves = new ArrayList<>(Board.createProblem2Board().getCurrentPlayer().getLegalMoves());
+        // Up to 8 moves share the smallest table of 16 slots
+        for (int size = 0; size <= 8; size++) {
+            assertIndexMatches(moves.subList(0, size));
+        }
+    }
+
+    @Test
+    public void movesWithTheSameHomeSlotAreProbedFor() {
+        final Board board = Board.createStandardBoard();
+        final List<Move> collidingMoves = new ArrayList<>();
+        final List<int[]> collidingMisses = new ArrayList<>();
+        for (int currentCoordinate = 0; currentCoordinate < BoardUtils.NUM_TILES; currentCoordinate++) {
+            for (int destinationCoordinate = 0; destinationCoordinate < BoardUtils.NUM_TILES;
+                 destinationCoordinate++) {
+                if (currentCoordinate == destinationCoordinate
+                        || getSmallestTableSlot(currentCoordinate, destinationCoordinate) != 0) {
+                    continue;
+                }
+                if (collidingMoves.size() < 8) {
+                    collidingMoves.add(new MajorMove(board, Rook.createRook(Alliance.WHITE, currentCoordinate),
+                            destinationCoordinate));
+                } else if (collidingMisses.size() < 8) {
+                    collidingMisses.add(new int[] { currentCoordinate, destinationCoordinate });
+                }
+            }
+        }
+
+        assertIndexMatches(collidingMoves);
+        final MoveIndex moveIndex = new MoveIndex(collidingMoves);
+        for (final int[] miss : collidingMisses) {
+            assertNull(moveIndex.get(miss[0], miss[1]));
+        }
+    }
+
+    @Test
+    public void missesReturnNull() {
+        final Board board = Board.createStandardBoard();
+        final MoveIndex moveIndex = new MoveIndex(board.getWhitePlayer().getLegalMoves());
+
+        for (final Move move : board.getBlackPlayer().getLegalMoves()) {
+            assertNull(moveIndex.get(move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+            assertFalse(moveIndex.contains(move));
+        }
+        assertNull(new MoveIndex(List.of()).get(0, 1));
+        assertNull(moveIndex.get(BoardUtils.NUM_TILES - 1, BoardUtils.NUM_TILES - 1));
+    }
+
+    @Test
+    public void promotionAndPlainMoveDoNotStandForEachOther() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, above two empty tiles of the black castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 57));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        final Move promotion = board.getWhitePlayer().getLegalMove(21, 33);
+        assertInstanceOf(RookPromotion.class, promotion);
+        final Move plainMove = new MajorMove(board, board.getPiece(21), 33);
+        // Same tiles and piece, so only the kind of move tells them apart
+        assertEquals(plainMove.getMovedPiece(), promotion.getMovedPiece());
+        assertFalse(plainMove.equals(promotion));
+        assertFalse(promotion.equals(plainMove));
+
+        final MoveIndex promotionIndex = new MoveIndex(List.of(promotion));
+        assertTrue(promotionIndex.contains(promotion));
+        assertFalse(promotionIndex.contains(plainMove));
+        assertFalse(board.getWhitePlayer().isMoveLegal(plainMove));
+
+        final MoveIndex plainMoveIndex = new MoveIndex(List.of(plainMove));
+        assertTrue(plainMoveIndex.contains(plainMove));
+        assertFalse(plainMoveIndex.contains(promotion));
+    }
+
+    @Test
+    public void promotionCaptureIsFoundByItsTiles() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, above the black rook in the black castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Player player = builder.build().getWhitePlayer();
+
+        final Move promotionCapture = player.getLegalMove(21, 33);
+        assertInstanceOf(RookPromotion.class, promotionCapture);
+        assertTrue(promotionCapture.isAttack());
+        assertTrue(player.isMoveLegal(promotionCapture));
+        assertIndexMatches(new ArrayList<>(player.getLegalMoves()));
+    }
+
+    /**
+     * The slot a move hashes to in the smallest table of 16 slots, by the same hash as {@link MoveIndex}.
+     */
+    private static int getSmallestTableSlot(final int currentCoordinate, final int destinationCoordinate) {
+        final int key = currentCoordinate * BoardUtils.NUM_TILES + destinationCoordinate + 1;
+        return (key * 0x9E3779B1 >>> 16) & 15;
+    }
+
+    private static void assertIndexMatches(final List<Move> moves) {
+        final Map<Integer, Move> movesByTiles = new HashMap<>();
+        for (final Move move : moves) {
+            assertNull(movesByTiles.put(move.getCurrentCoordinate() * BoardUtils.NUM_TILES
+                    + move.getDestinationCoordinate(), move));
+        }
+
+        final MoveIndex moveIndex = new MoveIndex(moves);
+        for (int currentCoordinate = 0; currentCoordinate < BoardUtils.NUM_TILES; currentCoordinate++) {
+            for (int destinationCoordinate = 0; destinationCoordinate < BoardUtils.NUM_TILES;
+                 destinationCoordinate++) {
+                assertSame(movesByTiles.get(currentCoordinate * BoardUtils.NUM_TILES + destinationCoordinate),
+                        moveIndex.get(currentCoordinate, destinationCoordinate));
+            }
+        }
+        for (final Move move : moves) {
+            assertTrue(moveIndex.contains(move));
+        }
+    }
+}
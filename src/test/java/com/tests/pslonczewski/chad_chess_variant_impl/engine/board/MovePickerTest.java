@@ -0,0 +1,102 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the staged picker hands out exactly the generated moves, each once, with the table move
+ * first and attacks before quiet moves, on positions reached by random games from the start positions and
+ * on a position with a single attack.
+ */
+class MovePickerTest {
+
+    @Test
+    public void picksEveryGeneratedMoveOnce() {
+        final Random random = new Random(17);
+        int positions = 0;
+
+        for (int game = 0; game < 40; game++) {
+            final SearchBoard board = new SearchBoard(TestBoards.ALL.get(game % TestBoards.ALL.size()));
+            for (int ply = 0; ply < 60 && !board.isEndGameScenario(); ply++) {
+                final int[] generated = board.generateMoves().toArray();
+                final int ttMove = generated[random.nextInt(generated.length)];
+                final int killer = generated[random.nextInt(generated.length)];
+                // a move of the opponent can never be picked
+                final int otherSideMove = firstMoveOfOpponent(board);
+
+                final MovePicker movePicker = board.getMovePicker(ttMove, killer, otherSideMove);
+                final int[] picked = new int[generated.length];
+                int size = 0;
+                boolean quietMovesStarted = false;
+                for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+                    assertTrue(size < picked.length, "more moves picked than generated");
+                    if (size == 0) {
+                        assertEquals(ttMove, move);
+                    } else if (EncodedMove.isAttack(move)) {
+                        assertFalse(quietMovesStarted, "attack after a quiet move");
+                    } else {
+                        quietMovesStarted = true;
+                    }
+                    assertEquals(move != ttMove && move != killer && !EncodedMove.isAttack(move),
+                            movePicker.isQuietMove());
+                    picked[size++] = move;
+                }
+
+                Arrays.sort(generated);
+                Arrays.sort(picked);
+                assertArrayEquals(generated, Arrays.copyOf(picked, size));
+                positions++;
+
+                int move;
+                do {
+                    move = generated[random.nextInt(generated.length)];
+                    if (board.make(move)) {
+                        break;
+                    }
+                    board.unmake(move);
+                } while (true);
+            }
+        }
+        assertTrue(positions > 1000);
+    }
+
+    @Test
+    public void onlyAttackIsPickedRightAfterTheTableMove() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, above the black rook in the black castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        final int promotionCapture = EncodedMove.fromMove(Move.MoveFactory.createMove(board, 21, 33));
+        final int ttMove = EncodedMove.fromMove(Move.MoveFactory.createMove(board, 99, 98));
+
+        final MovePicker movePicker = new SearchBoard(board).getMovePicker(ttMove, EncodedMove.NULL_MOVE,
+                EncodedMove.NULL_MOVE);
+        assertEquals(ttMove, movePicker.nextMove());
+        assertFalse(movePicker.isQuietMove());
+        assertEquals(promotionCapture, movePicker.nextMove());
+        assertFalse(movePicker.isQuietMove());
+        for (int move = movePicker.nextMove(); move != EncodedMove.NULL_MOVE; move = movePicker.nextMove()) {
+            assertFalse(EncodedMove.isAttack(move));
+            assertNotEquals(ttMove, move);
+            assertTrue(movePicker.isQuietMove());
+        }
+    }
+
+    private static int firstMoveOfOpponent(final SearchBoard board) {
+        final MoveList moves = new MoveList();
+        board.generateMoves(board.getSideToMove().getOpponent(), moves);
+        return moves.isEmpty() ? EncodedMove.NULL_MOVE : moves.get(0);
+    }
+}
@@ -0,0 +1,132 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the table-driven generators of Rook, Queen and King with the offset-stepping generator
+ * they replaced, on the start positions and on positions reached by random games from them.
+ */
+class MoveTablesTest {
+
+    private static final int[] ROOK_OFFSETS = { -12, -1, 1, 12 };
+    private static final int[] QUEEN_OFFSETS = { -13, -12, -11, -1, 1, 11, 12, 13 };
+    private static final int[] KING_OFFSETS = { -25, -23, -14, -13, -12, -11, -10, -1, 1, 10, 11, 12, 13, 14, 23, 25 };
+
+    @Test
+    public void raysStopAtTheEdgeOfTheBoard() {
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 }, MoveTables.ROOK_RAYS[0][2]);
+        assertEquals(0, MoveTables.ROOK_RAYS[0][0].length);
+        assertEquals(0, MoveTables.ROOK_RAYS[0][1].length);
+        assertEquals(0, MoveTables.ROOK_RAYS[11][2].length);
+        assertEquals(0, MoveTables.QUEEN_RAYS[12][0].length);
+        assertArrayEquals(new int[] { 130, 117, 104, 91, 78, 65, 52, 39, 26, 13, 0 }, MoveTables.QUEEN_RAYS[143][0]);
+        assertArrayEquals(new int[] { 86, 87, 88, 98, 100, 110, 111, 112 }, MoveTables.KING_TARGETS[99]);
+    }
+
+    @Test
+    public void sameMovesAsOffsetStepping() {
+        final Random random = new Random(31);
+        int positions = 0;
+
+        for (int game = 0; game < 40; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                for (final Piece piece : board.getAllPieces()) {
+                    assertEquals(offsetSteppingMoves(board, piece), describe(piece.calculateLegalMoves(board)),
+                            piece + " on " + piece.getPiecePosition() + "\n" + board);
+                }
+                positions++;
+
+                final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(positions > 1000);
+    }
+
+    private static List<String> describe(final Iterable<Move> moves) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final Move move : moves) {
+            descriptions.add(describe(move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                    move.isAttack(), move.isPromotion()));
+        }
+        return descriptions;
+    }
+
+    private static String describe(final int from, final int to, final boolean attack, final boolean promotion) {
+        return from + (attack ? "x" : "-") + to + (promotion ? "Q" : "");
+    }
+
+    private static List<String> offsetSteppingMoves(final Board board, final Piece piece) {
+        final List<String> moves = new ArrayList<>();
+        final int from = piece.getPiecePosition();
+        final Alliance alliance = piece.getPieceAlliance();
+
+        if (piece.getPieceType().isKing()) {
+            for (final int offset : KING_OFFSETS) {
+                final int to = from + offset;
+                if (isColumnExclusion(from, offset) || !BoardUtils.isMoveWithinBoardBounds(to)
+                        || !(BoardUtils.WHITE_CASTLE[to] || BoardUtils.BLACK_CASTLE[to])) {
+                    continue;
+                }
+                final Piece target = board.getPiece(to);
+                if (target == null) {
+                    moves.add(describe(from, to, false, false));
+                } else if (target.getPieceAlliance() != alliance) {
+                    moves.add(describe(from, to, true, false));
+                }
+            }
+            return moves;
+        }
+
+        final boolean rook = piece.getPieceType() == Piece.PieceType.ROOK;
+        for (final int offset : rook ? ROOK_OFFSETS : QUEEN_OFFSETS) {
+            int to = from;
+            while (true) {
+                if (isColumnExclusion(to, offset)) {
+                    break;
+                }
+                to += offset;
+                if (!BoardUtils.isMoveWithinBoardBounds(to)) {
+                    break;
+                }
+                final Piece target = board.getPiece(to);
+                if (target == null) {
+                    moves.add(describe(from, to, false, rook && alliance.isPromotionTile(to)));
+                    continue;
+                }
+                final Alliance targetAlliance = target.getPieceAlliance();
+                if (targetAlliance != alliance) {
+                    if (target.getPieceType().isKing()) {
+                        moves.add(describe(from, to, true, false));
+                    } else if (targetAlliance.isWallTile(from) && targetAlliance.isCastleTile(to)) {
+                        moves.add(describe(from, to, true, rook));
+                    } else if (alliance.isCastleTile(from) && alliance.isWallTile(to)) {
+                        moves.add(describe(from, to, true, false));
+                    }
+                }
+                break;
+            }
+        }
+        return moves;
+    }
+
+    private static boolean isColumnExclusion(final int coordinate, final int offset) {
+        final int column = coordinate % BoardUtils.NUM_TILES_PER_ROW;
+        final int columnShift = Math.floorMod(offset + 6, BoardUtils.NUM_TILES_PER_ROW) - 6;
+        return (column == 0 && columnShift < 0) || (column == BoardUtils.NUM_TILES_PER_ROW - 1 && columnShift > 0);
+    }
+}
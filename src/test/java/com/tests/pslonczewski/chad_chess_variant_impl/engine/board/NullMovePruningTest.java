@@ -0,0 +1,162 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTable;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTableTimeDependent;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.NullMovePruning;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.SearchOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NullMovePruningTest {
+
+    @Test
+    public void nullMoveOnlyPassesTheTurn() {
+        for (final Board board : TestBoards.ALL) {
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final Alliance sideToMove = searchBoard.getSideToMove();
+            final long zobristHashCode = searchBoard.getZobristHashCode();
+
+            searchBoard.makeNullMove();
+            assertEquals(sideToMove.getOpponent(), searchBoard.getSideToMove());
+            assertEquals(zobristHashCode ^ BoardUtils.ZOBRIST_BLACK_TO_MOVE, searchBoard.getZobristHashCode());
+            assertEquals(BoardUtils.calculateZobristHashCode(searchBoard.getPosition(), searchBoard.getSideToMove()),
+                    searchBoard.getZobristHashCode());
+            assertTrue(searchBoard.isAfterNullMove());
+
+            searchBoard.unmakeNullMove();
+            assertEquals(sideToMove, searchBoard.getSideToMove());
+            assertEquals(zobristHashCode, searchBoard.getZobristHashCode());
+            assertFalse(searchBoard.isAfterNullMove());
+        }
+    }
+
+    @Test
+    public void passIsAllowedAboveTheReductionOnly() {
+        final SearchBoard board = new SearchBoard(Board.createStandardBoard());
+
+        assertTrue(NullMovePruning.isAllowed(board, NullMovePruning.getReduction(3) + 1));
+        assertFalse(NullMovePruning.isAllowed(board, NullMovePruning.getReduction(2)));
+    }
+
+    @Test
+    public void noPassInCheck() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 110));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        // Same column as the white king, nothing in between
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 15));
+        builder.setMoveMaker(Alliance.WHITE);
+        final SearchBoard board = new SearchBoard(builder.build());
+
+        assertTrue(board.isInCheck(Alliance.WHITE));
+        assertFalse(NullMovePruning.isAllowed(board, 4));
+    }
+
+    @Test
+    public void noPassWithALoneKing() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        assertFalse(NullMovePruning.isAllowed(new SearchBoard(board), 4));
+        builder.setMoveMaker(Alliance.BLACK);
+        assertTrue(NullMovePruning.isAllowed(new SearchBoard(builder.build()), 4));
+    }
+
+    @Test
+    public void noPassRightAfterAPass() {
+        final SearchBoard board = new SearchBoard(Board.createProblem1Board());
+        assertTrue(NullMovePruning.isAllowed(board, 4));
+
+        board.makeNullMove();
+        assertFalse(NullMovePruning.isAllowed(board, 4));
+        board.unmakeNullMove();
+        assertTrue(NullMovePruning.isAllowed(board, 4));
+    }
+
+    @Test
+    public void verificationForbidsPassesWithinItsReducedSearch() {
+        final SearchBoard board = new SearchBoard(Board.createStandardBoard());
+        assertEquals(4, NullMovePruning.getVerificationPly(board, NullMovePruning.VERIFICATION_DEPTH));
+
+        final MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        assertTrue(board.make(moves.get(0)));
+        int previousVerificationPly = board.getPly();
+        for (int depth = NullMovePruning.VERIFICATION_DEPTH; depth < 20; depth++) {
+            final int verificationPly = NullMovePruning.getVerificationPly(board, depth);
+            // Neither the verified node nor its children may pass, and passes come back before the reduced search ends
+            assertTrue(verificationPly > board.getPly() + 1);
+            assertTrue(verificationPly <= board.getPly() + depth - NullMovePruning.getReduction(depth));
+            assertTrue(verificationPly >= previousVerificationPly);
+            previousVerificationPly = verificationPly;
+        }
+    }
+
+    @Test
+    public void verifiedSearchPlaysLegalMoves() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 86));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 88));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 31));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        final int depth = NullMovePruning.VERIFICATION_DEPTH;
+
+        final IterativeDeepeningWithTranspositionTable fullSearch =
+                new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), depth, 1, SearchOptions.NONE);
+        final IterativeDeepeningWithTranspositionTable verifiedSearch =
+                new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), depth, 1,
+                        SearchOptions.NONE.withNullMovePruning());
+        fullSearch.execute(board, depth);
+        final Move move = verifiedSearch.execute(board, depth);
+
+        assertNotNull(move);
+        assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+        assertTrue(verifiedSearch.getNumBoardsEvaluated() < fullSearch.getNumBoardsEvaluated());
+    }
+
+    @Test
+    public void passesCutOffNodesOfTheSameSearch() {
+        for (final Board board : TestBoards.ALL) {
+            for (final SearchOptions searchOptions : new SearchOptions[] { SearchOptions.NONE,
+                    SearchOptions.NONE.withPrincipalVariationSearch() }) {
+                final IterativeDeepeningWithTranspositionTable search =
+                        new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 1, searchOptions);
+                final IterativeDeepeningWithTranspositionTable nullMoveSearch =
+                        new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 1,
+                                searchOptions.withNullMovePruning());
+                search.execute(board, 4);
+                final Move move = nullMoveSearch.execute(board, 4);
+
+                assertNotNull(move);
+                assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+                assertTrue(nullMoveSearch.getNumBoardsEvaluated() < search.getNumBoardsEvaluated(),
+                        searchOptions + "\n" + board);
+            }
+        }
+    }
+
+    @Test
+    public void timeDependentSearchWithNullMovesPlaysLegalMoves() {
+        for (final Board board : TestBoards.ALL) {
+            final Move move = new IterativeDeepeningWithTranspositionTableTimeDependent(new TranspositionTable(), 60,
+                    4, SearchOptions.NONE.withNullMovePruning()).execute(board, 4);
+
+            assertNotNull(move);
+            assertTrue(board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.AlphaBetaPruningWithMoveSorterAndTranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tree-splitting and root-parallel searches have to choose the move the serial search chooses,
+ * whatever the timing of their threads.
+ */
+class ParallelAlphaBetaTest {
+
+    @Test
+    public void sameMoveAsSerialSearch() {
+        for (final int threadCount : new int[] { 2, 3, 4, 8 }) {
+            final ForkJoinPool pool = new ForkJoinPool(threadCount);
+            try {
+                for (int depth = 3; depth <= 4; depth++) {
+                    for (final Board board : TestBoards.ALL) {
+                        final Move serialMove = new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                                new TranspositionTable(), depth).execute(board, depth);
+                        final Move parallelMove = new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                                new TranspositionTable(), depth, pool).execute(board, depth);
+                        assertEquals(serialMove, parallelMove,
+                                threadCount + " threads, depth " + depth + "\n" + board);
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void splitSearchFindsTheWinningCapture() {
+        final Board board = TestBoards.createPromotionCaptureBoard();
+        final Move capture = board.getWhitePlayer().getLegalMove(21, 33);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(capture, new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                    new TranspositionTable(), 4, pool).execute(board, 4));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(capture, new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                new TranspositionTable(), 4, true).execute(board, 4));
+    }
+
+    /**
+     * Siblings order their moves by a fork of the history taken when the split began, so the tree differs
+     * from the serial one, but not from one run to the next.
+     */
+    @Test
+    public void oneThreadSearchesTheSameTreeEveryTime() {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            for (final Board board : TestBoards.ALL) {
+                final Move serialMove = new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                        new TranspositionTable(), 4).execute(board, 4);
+                final AlphaBetaPruningWithMoveSorterAndTranspositionTable parallelSearch =
+                        new AlphaBetaPruningWithMoveSorterAndTranspositionTable(new TranspositionTable(), 4, pool);
+                final AlphaBetaPruningWithMoveSorterAndTranspositionTable repeatedSearch =
+                        new AlphaBetaPruningWithMoveSorterAndTranspositionTable(new TranspositionTable(), 4, pool);
+                assertEquals(serialMove, parallelSearch.execute(board, 4));
+                assertEquals(serialMove, repeatedSearch.execute(board, 4));
+                assertEquals(parallelSearch.getNumBoardsEvaluated(), repeatedSearch.getNumBoardsEvaluated());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void rootParallelSameMoveAsSerialSearch() {
+        for (int depth = 2; depth <= 4; depth++) {
+            for (final Board board : TestBoards.ALL) {
+                final Move serialMove = new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                        new TranspositionTable(), depth).execute(board, depth);
+                final Move rootParallelMove = new AlphaBetaPruningWithMoveSorterAndTranspositionTable(
+                        new TranspositionTable(), depth, true).execute(board, depth);
+                assertEquals(serialMove, rootParallelMove, "depth " + depth + "\n" + board);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reference leaf counts of the legal move tree for the four start positions, and for a position with
+ * promotions and a promotion capture at the root. A change to move generation or to making moves that
+ * alters any of them is a bug.
+ */
+class PerftTest {
+
+    // Per board, the counts at depth 1, 2, 3 and 4
+    private static final long[][] NODES = {
+            { 54, 2844, 187228, 12107364 },
+            { 79, 6082, 486769, 38301540 },
+            { 93, 9736, 917799, 95236671 },
+            { 90, 4970, 437099, 27084339 }
+    };
+
+    // The counts at depth 1, 2 and 3 of the promotion position
+    private static final long[] PROMOTION_NODES = { 21, 548, 13524 };
+
+    @Test
+    public void makeMoveCounts() {
+        for (int i = 0; i < TestBoards.ALL.size(); i++) {
+            for (int depth = 1; depth <= 2; depth++) {
+                assertEquals(NODES[i][depth - 1], Perft.countWithMakeMove(TestBoards.ALL.get(i), depth), "board " + i);
+            }
+        }
+        assertEquals(NODES[0][2], Perft.countWithMakeMove(TestBoards.ALL.get(0), 3));
+    }
+
+    @Test
+    public void searchBoardCounts() {
+        final Perft perft = new Perft(false, 0);
+        final Perft bulkPerft = new Perft(true, 0);
+        for (int i = 0; i < TestBoards.ALL.size(); i++) {
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(NODES[i][depth - 1], perft.count(TestBoards.ALL.get(i), depth), "board " + i);
+                assertEquals(NODES[i][depth - 1], bulkPerft.count(TestBoards.ALL.get(i), depth), "board " + i);
+            }
+        }
+        assertEquals(NODES[0][3], bulkPerft.count(TestBoards.ALL.get(0), 4));
+        assertEquals(NODES[3][3], bulkPerft.count(TestBoards.ALL.get(3), 4));
+    }
+
+    @Test
+    public void parallelCountsWithTable() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Perft perft = new Perft(true, 16);
+            for (int i = 0; i < TestBoards.ALL.size(); i++) {
+                assertEquals(NODES[i][2], perft.countParallel(TestBoards.ALL.get(i), 3, pool), "board " + i);
+            }
+            assertEquals(NODES[0][3], perft.countParallel(TestBoards.ALL.get(0), 4, pool));
+            assertEquals(NODES[0][3], perft.count(TestBoards.ALL.get(0), 4));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void divideMatchesMakeMove() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (final Board board : TestBoards.ALL) {
+                final Map<Move, Long> nodesPerMove = new Perft(true, 0).divide(board, 2, pool);
+                assertEquals(Perft.divideWithMakeMove(board, 2), nodesPerMove);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void promotionPositionCounts() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, above the black rook in the black castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        final Perft perft = new Perft(false, 0);
+        final Perft bulkPerft = new Perft(true, 0);
+        for (int depth = 1; depth <= 3; depth++) {
+            assertEquals(PROMOTION_NODES[depth - 1], Perft.countWithMakeMove(board, depth));
+            assertEquals(PROMOTION_NODES[depth - 1], perft.count(board, depth));
+            assertEquals(PROMOTION_NODES[depth - 1], bulkPerft.count(board, depth));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Queen;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceInterningTest {
+
+    @Test
+    public void samePieceAndTileInstances() {
+        final Rook rook = Rook.createRook(Alliance.WHITE, 86);
+        assertSame(rook, Rook.createRook(Alliance.WHITE, 86));
+        assertSame(rook, Piece.createPiece(Piece.PieceType.ROOK, Alliance.WHITE, 86));
+        assertSame(rook, rook.movePiece(87).movePiece(86));
+        assertNotEquals(rook, Rook.createRook(Alliance.BLACK, 86));
+        assertSame(Queen.createQueen(Alliance.WHITE, 86), rook.getPromotionPiece());
+        assertSame(Tile.createTile(86, rook), Tile.createTile(86, rook));
+        assertSame(rook, Tile.createTile(86, rook).getPiece());
+    }
+
+    @Test
+    public void boardsShareTiles() {
+        final Board board = Board.createStandardBoard();
+        final Board otherBoard = Board.createStandardBoard();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            assertSame(board.getTile(i), otherBoard.getTile(i));
+        }
+
+        for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+            final Board movedBoard = move.execute();
+            final Piece movedPiece = movedBoard.getTile(move.getDestinationCoordinate()).getPiece();
+            assertSame(move.getMovedPiece().movePiece(move), movedPiece);
+            assertSame(board.getTile(44), movedBoard.getTile(44));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a {@link Board} builds its players only when asked for them, that players and their moves
+ * are built once per board, and that the memoized check status matches the opponent's moves.
+ */
+class PlayerTest {
+
+    @Test
+    public void boardsAreUsableWithoutTheirPlayers() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 70));
+        builder.setMoveMaker(Alliance.WHITE);
+        // Without a white king, building the white player fails
+        final Board board = builder.build();
+
+        assertEquals(2, board.getPieceCount());
+        assertEquals(BoardUtils.calculateZobristHashCode(board.getPosition(), Alliance.WHITE),
+                board.getZobristHashCode());
+        assertTrue(board.getTile(70).isTileOccupied());
+        assertFalse(board.toString().isEmpty());
+        assertEquals(1, board.getWhitePieces().size());
+        assertEquals(Alliance.BLACK, board.getBlackPlayer().getAlliance());
+        assertThrows(RuntimeException.class, board::getWhitePlayer);
+    }
+
+    @Test
+    public void playersAndMovesAreBuiltOncePerBoard() {
+        for (final Board board : TestBoards.ALL) {
+            final Player whitePlayer = board.getWhitePlayer();
+            final Player blackPlayer = board.getBlackPlayer();
+            assertSame(whitePlayer, board.getWhitePlayer());
+            assertSame(blackPlayer, board.getBlackPlayer());
+            assertSame(blackPlayer, whitePlayer.getOpponent());
+            assertSame(whitePlayer, blackPlayer.getOpponent());
+            assertSame(board.getCurrentPlayer().getAlliance().isWhite() ? whitePlayer : blackPlayer,
+                    board.getCurrentPlayer());
+            assertSame(whitePlayer.getLegalMoves(), whitePlayer.getLegalMoves());
+            assertSame(board.getWhitePieces(), board.getWhitePieces());
+            assertSame(board.getAllPieces(), board.getAllPieces());
+            assertEquals(board.getPieceCount(), board.getAllPieces().size());
+            assertEquals(board.getPosition().getPieceCount(Alliance.WHITE), board.getWhitePieces().size());
+            assertEquals(board.getPosition().getPieceCount(Alliance.BLACK), board.getBlackPieces().size());
+        }
+    }
+
+    @Test
+    public void checkStatusMatchesTheOpponentsMoves() {
+        final Random random = new Random(4);
+        int checks = 0;
+
+        for (int game = 0; game < 20; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                for (final Player player : List.of(board.getWhitePlayer(), board.getBlackPlayer())) {
+                    final boolean isInCheck = isDestinationOfAny(player.getPlayerKing().getPiecePosition(),
+                            player.getOpponent().getLegalMoves());
+                    assertEquals(isInCheck, player.isInCheck(), board.toString());
+                    assertEquals(isInCheck, player.isInCheck());
+                    if (isInCheck) {
+                        checks++;
+                    }
+                }
+
+                final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(checks > 0);
+    }
+
+    private static boolean isDestinationOfAny(final int coordinate, final Iterable<Move> moves) {
+        for (final Move move : moves) {
+            if (move.getDestinationCoordinate() == coordinate) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
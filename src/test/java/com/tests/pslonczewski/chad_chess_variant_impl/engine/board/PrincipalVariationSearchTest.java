@@ -0,0 +1,50 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningTimeDependent;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.IterativeDeepeningWithTranspositionTable;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.ai.SearchOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Null-window probes and aspiration windows only skip work: the principal variation search has to choose
+ * the move of the full-window search, without evaluating more boards.
+ */
+class PrincipalVariationSearchTest {
+
+    @Test
+    public void sameMoveAsFullWindowSearch() {
+        for (final Board board : TestBoards.ALL) {
+            final IterativeDeepeningWithTranspositionTable fullWindowSearch =
+                    new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 1, SearchOptions.NONE);
+            final IterativeDeepeningWithTranspositionTable principalVariationSearch =
+                    new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 1,
+                            SearchOptions.NONE.withPrincipalVariationSearch());
+
+            assertEquals(fullWindowSearch.execute(board, 4), principalVariationSearch.execute(board, 4),
+                    board.toString());
+            assertTrue(principalVariationSearch.getNumBoardsEvaluated() <= fullWindowSearch.getNumBoardsEvaluated());
+        }
+    }
+
+    @Test
+    public void nullWindowsKeepTheWinningCapture() {
+        final Board board = TestBoards.createPromotionCaptureBoard();
+        final Move move = new IterativeDeepeningWithTranspositionTable(new TranspositionTable(), 4, 1,
+                SearchOptions.NONE.withPrincipalVariationSearch()).execute(board, 4);
+
+        assertEquals(board.getWhitePlayer().getLegalMove(21, 33), move);
+    }
+
+    @Test
+    public void timeDependentSearchSameMoveAsFullWindowSearch() {
+        for (final Board board : TestBoards.ALL) {
+            final Move fullWindowMove = new IterativeDeepeningTimeDependent(60, false).execute(board, 3);
+            final Move principalVariationMove = new IterativeDeepeningTimeDependent(60, true).execute(board, 3);
+
+            assertEquals(fullWindowMove, principalVariationMove, board.toString());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece.PieceType;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import com.pslonczewski.chad_chess_variant_impl.engine.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Makes and takes back every generated move, and every reply to it, on positions reached by random games,
+ * and through a promotion capture, and compares the {@link SearchBoard} with the boards
+ * {@link Move#execute()} builds for the same moves. Checkmates and stalemates are compared with making
+ * every generated move, on random games played out and on a constructed mate and stalemate.
+ */
+class SearchBoardTest {
+
+    @Test
+    public void makeMatchesExecuteAndUnmakeRestoresThePosition() {
+        final Random random = new Random(2);
+        int madeMoves = 0;
+
+        for (int game = 0; game < 8; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 30 && !BoardUtils.isEndGameScenario(board); ply++) {
+                final SearchBoard searchBoard = new SearchBoard(board);
+                final SearchBoard before = new SearchBoard(searchBoard);
+                final MoveList moves = searchBoard.generateMoves();
+                for (int i = 0; i < moves.size(); i++) {
+                    final int move = moves.get(i);
+                    final Move decodedMove = Move.MoveFactory.createMove(board, move);
+                    final boolean isLegal = searchBoard.make(move);
+                    assertEquals(board.getCurrentPlayer().makeMove(decodedMove).getMoveStatus().isDone(), isLegal);
+                    assertSamePosition(new SearchBoard(decodedMove.execute()), searchBoard);
+
+                    final SearchBoard afterMove = new SearchBoard(searchBoard);
+                    final MoveList replies = searchBoard.generateMoves();
+                    for (int j = 0; j < replies.size(); j++) {
+                        searchBoard.make(replies.get(j));
+                        searchBoard.unmake(replies.get(j));
+                        assertSamePosition(afterMove, searchBoard);
+                    }
+
+                    searchBoard.unmake(move);
+                    assertSamePosition(before, searchBoard);
+                    madeMoves++;
+                }
+
+                searchBoard.makeNullMove();
+                assertEquals(before.getSideToMove().getOpponent(), searchBoard.getSideToMove());
+                assertNotEquals(before.getZobristHashCode(), searchBoard.getZobristHashCode());
+                searchBoard.unmakeNullMove();
+                assertSamePosition(before, searchBoard);
+
+                final List<Move> legalMoves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(
+                            legalMoves.remove(random.nextInt(legalMoves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(madeMoves > 10000);
+    }
+
+    @Test
+    public void promotionCaptureIsTakenBack() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        // On the black wall, above the black rook in the black castle
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        final Move promotionCapture = Move.MoveFactory.createMove(board, 21, 33);
+        final int move = EncodedMove.fromMove(promotionCapture);
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final SearchBoard before = new SearchBoard(searchBoard);
+        assertTrue(searchBoard.make(move));
+        assertSamePosition(new SearchBoard(promotionCapture.execute()), searchBoard);
+        assertTrue(searchBoard.getPosition().isPieceAt(33, Alliance.WHITE, PieceType.QUEEN));
+        searchBoard.unmake(move);
+        assertSamePosition(before, searchBoard);
+        assertTrue(searchBoard.getPosition().isPieceAt(33, Alliance.BLACK, PieceType.ROOK));
+        assertTrue(searchBoard.getPosition().isPieceAt(21, Alliance.WHITE, PieceType.ROOK));
+    }
+
+    @Test
+    public void mateAndStaleMateMatchMakingEveryMove() {
+        final Random random = new Random(5);
+        final MoveList moves = new MoveList();
+        int mates = 0;
+
+        for (int game = 0; game < 60; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 200; ply++) {
+                final SearchBoard searchBoard = new SearchBoard(board);
+                for (final Alliance alliance : Alliance.values()) {
+                    final boolean isInCheckMate = searchBoard.isInCheckMate(alliance);
+                    final boolean isInStaleMate = searchBoard.isInStaleMate(alliance);
+
+                    boolean hasEscapeMoves = false;
+                    moves.clear();
+                    searchBoard.generateMoves(alliance, moves);
+                    for (int i = 0; i < moves.size(); i++) {
+                        hasEscapeMoves |= searchBoard.make(moves.get(i));
+                        searchBoard.unmake(moves.get(i));
+                    }
+
+                    final boolean isInCheck = searchBoard.isInCheck(alliance);
+                    assertEquals(isInCheck && !hasEscapeMoves, isInCheckMate);
+                    assertEquals(!isInCheck && !hasEscapeMoves, isInStaleMate);
+                    // Cached for the position, and still valid after moves were made and taken back
+                    assertEquals(isInCheckMate, searchBoard.isInCheckMate(alliance));
+                    assertEquals(isInStaleMate, searchBoard.isInStaleMate(alliance));
+                }
+
+                final Player player = board.getCurrentPlayer();
+                assertEquals(player.isInCheckMate(), searchBoard.isInCheckMate(player.getAlliance()));
+                assertEquals(player.isInStaleMate(), searchBoard.isInStaleMate(player.getAlliance()));
+                assertEquals(BoardUtils.isEndGameScenario(board), searchBoard.isEndGameScenario());
+                if (searchBoard.isEndGameScenario()) {
+                    if (searchBoard.isInCheckMate(player.getAlliance())) {
+                        mates++;
+                    }
+                    break;
+                }
+
+                final List<Move> legalMoves = new ArrayList<>(player.getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = player.makeMove(legalMoves.remove(random.nextInt(legalMoves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(mates > 0);
+    }
+
+    @Test
+    public void constructedMateAndStaleMate() {
+        // The black king is shut in its castle by the rooks on its three files
+        final SearchBoard mate = new SearchBoard(createLoneBlackKingBoard(7, 8, 9));
+        assertTrue(mate.isInCheckMate(Alliance.BLACK));
+        assertFalse(mate.isInStaleMate(Alliance.BLACK));
+        assertTrue(mate.isEndGameScenario());
+        assertFalse(mate.isInCheckMate(Alliance.WHITE));
+
+        // Every tile of the castle but the king's own is attacked
+        final SearchBoard staleMate = new SearchBoard(createLoneBlackKingBoard(7, 9, 24, 48));
+        assertFalse(staleMate.isInCheckMate(Alliance.BLACK));
+        assertTrue(staleMate.isInStaleMate(Alliance.BLACK));
+        assertTrue(staleMate.isEndGameScenario());
+
+        // Without the rook on its file, the king escapes to it
+        final SearchBoard escape = new SearchBoard(createLoneBlackKingBoard(7, 9, 24));
+        assertFalse(escape.isInCheckMate(Alliance.BLACK));
+        assertFalse(escape.isInStaleMate(Alliance.BLACK));
+        assertFalse(escape.isEndGameScenario());
+    }
+
+    private static Board createLoneBlackKingBoard(final int... whiteRookCoordinates) {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        for (final int coordinate : whiteRookCoordinates) {
+            builder.setPiece(Rook.createRook(Alliance.WHITE, coordinate));
+        }
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setMoveMaker(Alliance.BLACK);
+        return builder.build();
+    }
+
+    private static void assertSamePosition(final SearchBoard expected, final SearchBoard actual) {
+        final BitboardPosition expectedPosition = expected.getPosition();
+        final BitboardPosition actualPosition = actual.getPosition();
+        for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            assertEquals(expectedPosition.getPiece(coordinate), actualPosition.getPiece(coordinate));
+        }
+        assertEquals(expectedPosition.getOccupancy(), actualPosition.getOccupancy());
+        assertEquals(expected.getSideToMove(), actual.getSideToMove());
+        assertEquals(expected.getZobristHashCode(), actual.getZobristHashCode());
+        assertEquals(expectedPosition.getPieceCount(), actualPosition.getPieceCount());
+        assertEquals(expectedPosition.getMaterialSignature(), actualPosition.getMaterialSignature());
+        for (final Alliance alliance : Alliance.values()) {
+            assertEquals(expectedPosition.getMaterial(alliance), actualPosition.getMaterial(alliance));
+            assertEquals(expected.isInCheck(alliance), actual.isInCheck(alliance));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.Board;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+
+import java.util.List;
+
+/**
+ * The positions the engine tests run on: the start position followed by the three Chad problems, and a
+ * position with a single winning move for the searches to find.
+ */
+final class TestBoards {
+
+    static final List<Board> ALL = List.of(Board.createStandardBoard(), Board.createProblem1Board(),
+            Board.createProblem2Board(), Board.createProblem3Board());
+
+    /**
+     * White to move wins the black rook in the black castle by a promotion capture from the black wall, out
+     * of reach of the black king, before that rook captures the white one on its wall.
+     *
+     * @param blackRookCoordinates further black rooks, to put white behind on material
+     */
+    static Board createPromotionCaptureBoard(final int... blackRookCoordinates) {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 21));
+        builder.setPiece(King.createKing(Alliance.BLACK, 56));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        for (final int coordinate : blackRookCoordinates) {
+            builder.setPiece(Rook.createRook(Alliance.BLACK, coordinate));
+        }
+        builder.setMoveMaker(Alliance.WHITE);
+        return builder.build();
+    }
+
+    private TestBoards() {
+        throw new RuntimeException("Not instantiable!");
+    }
+}
@@ -0,0 +1,201 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.BoardState.NodeType;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    // Keys with the same low bits share a bucket in a table of 2^4 buckets
+    private static final long KEY = 0x123456789ABCDEF3L;
+    private static final long SAME_BUCKET_KEY = 0x0FEDCBA987654323L;
+    private static final long OTHER_SAME_BUCKET_KEY = 0x7777777777777773L;
+
+    @Test
+    public void storesEveryField() {
+        final TranspositionTable table = new TranspositionTable(4);
+        final int move = EncodedMove.fromMove(
+                Board.createStandardBoard().getCurrentPlayer().getLegalMoves().iterator().next());
+
+        assertNull(table.get(KEY));
+        table.put(KEY, 255, Integer.MIN_VALUE, NodeType.UPPER, move);
+        assertEquals(new BoardState(255, Integer.MIN_VALUE, NodeType.UPPER, move), table.get(KEY));
+        table.put(KEY, 0, -12345, NodeType.NONE, EncodedMove.NULL_MOVE);
+        assertEquals(new BoardState(0, -12345, NodeType.NONE), table.get(KEY));
+        table.put(KEY, new BoardState(3, Integer.MAX_VALUE, NodeType.EXACT));
+        assertEquals(new BoardState(3, Integer.MAX_VALUE, NodeType.EXACT), table.get(KEY));
+        assertNull(table.get(KEY ^ 1L << 40));
+
+        table.clear();
+        assertNull(table.get(KEY));
+    }
+
+    @Test
+    public void keepsDeeperEntryUntilNextSearch() {
+        final TranspositionTable table = new TranspositionTable(4);
+        table.put(KEY, 6, 1, NodeType.EXACT, EncodedMove.NULL_MOVE);
+        table.put(SAME_BUCKET_KEY, 2, 2, NodeType.EXACT, EncodedMove.NULL_MOVE);
+        table.put(OTHER_SAME_BUCKET_KEY, 3, 3, NodeType.EXACT, EncodedMove.NULL_MOVE);
+
+        // The shallower entries compete for the always-replace entry
+        assertEquals(1, table.get(KEY).score());
+        assertNull(table.get(SAME_BUCKET_KEY));
+        assertEquals(3, table.get(OTHER_SAME_BUCKET_KEY).score());
+
+        table.newSearch();
+        table.put(SAME_BUCKET_KEY, 1, 2, NodeType.EXACT, EncodedMove.NULL_MOVE);
+        assertNull(table.get(KEY));
+        assertEquals(2, table.get(SAME_BUCKET_KEY).score());
+    }
+
+    @Test
+    public void positionsSharingABucketNeverReadEachOthersEntries() {
+        // Boards differing in the tile of one rook, until three of them hash to the same bucket
+        final Map<Integer, List<Long>> hashesByBucket = new HashMap<>();
+        List<Long> hashes = List.of();
+        for (int coordinate = 0; hashes.size() < 3; coordinate++) {
+            if (coordinate == 44 || coordinate == 99) {
+                continue;
+            }
+            final Board.Builder builder = new Board.Builder();
+            builder.setPiece(King.createKing(Alliance.WHITE, 99));
+            builder.setPiece(King.createKing(Alliance.BLACK, 44));
+            builder.setPiece(Rook.createRook(Alliance.WHITE, coordinate));
+            builder.setMoveMaker(Alliance.WHITE);
+            final long hash = builder.build().getZobristHashCode();
+            hashes = hashesByBucket.computeIfAbsent((int) hash & 15, bucket -> new ArrayList<>());
+            hashes.add(hash);
+        }
+
+        final TranspositionTable table = new TranspositionTable(4);
+        table.put(hashes.get(0), 6, 1, NodeType.EXACT, EncodedMove.NULL_MOVE);
+        table.put(hashes.get(1), 2, 2, NodeType.EXACT, EncodedMove.NULL_MOVE);
+        assertEquals(1, table.get(hashes.get(0)).score());
+        assertEquals(2, table.get(hashes.get(1)).score());
+        table.put(hashes.get(2), 3, 3, NodeType.EXACT, EncodedMove.NULL_MOVE);
+        assertEquals(1, table.get(hashes.get(0)).score());
+        assertNull(table.get(hashes.get(1)));
+        assertEquals(3, table.get(hashes.get(2)).score());
+    }
+
+    @Test
+    public void concurrentWritersNeverMixEntries() throws InterruptedException {
+        final TranspositionTable table = new TranspositionTable(6);
+        final AtomicBoolean isMixed = new AtomicBoolean();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    final long key = (random.nextInt(1 << 10) + 1) * 0x9E3779B97F4A7C15L;
+                    final BoardState boardState = table.get(key);
+                    if (boardState != null && boardState.score() != (int) (key >>> 32)) {
+                        isMixed.set(true);
+                    }
+                    table.put(key, (int) (key & 0xFF), (int) (key >>> 32), NodeType.EXACT, EncodedMove.NULL_MOVE);
+                }
+            }));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(isMixed.get());
+    }
+
+    @Test
+    public void sizeBitsOutOfRangeAreRejected() {
+        for (final int sizeBits : new int[] { -1, TranspositionTable.MAX_HEAP_SIZE_BITS + 1, 31, 32 }) {
+            final RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> new TranspositionTable(sizeBits));
+            assertTrue(exception.getMessage().contains("size bits out of range: " + sizeBits), exception::getMessage);
+        }
+        for (final int sizeBits : new int[] { -1, TranspositionTable.MAX_OFF_HEAP_SIZE_BITS + 1, 31 }) {
+            assertThrows(RuntimeException.class, () -> TranspositionTable.createOffHeap(sizeBits));
+        }
+        assertNull(new TranspositionTable(0).get(KEY));
+    }
+
+    @Test
+    public void offHeapTableMatchesHeapTable() {
+        final TranspositionTable heapTable = new TranspositionTable(8);
+        final TranspositionTable offHeapTable = TranspositionTable.createOffHeap(8);
+        final Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            final long key = random.nextLong();
+            if (i % 1000 == 0) {
+                heapTable.newSearch();
+                offHeapTable.newSearch();
+            }
+            if (random.nextBoolean()) {
+                final int depth = random.nextInt(20);
+                heapTable.put(key, depth, i, NodeType.LOWER, EncodedMove.NULL_MOVE);
+                offHeapTable.put(key, depth, i, NodeType.LOWER, EncodedMove.NULL_MOVE);
+            }
+            assertEquals(heapTable.get(key), offHeapTable.get(key));
+        }
+    }
+
+    @Test
+    public void mappedTableSurvivesReopening() throws IOException {
+        final Path file = Files.createTempFile("transposition-table", ".bin");
+        try {
+            try (final TranspositionTable table = TranspositionTable.openMapped(file, 4)) {
+                assertNull(table.get(KEY));
+                table.newSearch();
+                table.put(KEY, 6, 1, NodeType.EXACT, EncodedMove.NULL_MOVE);
+            }
+            try (final TranspositionTable table = TranspositionTable.openMapped(file, 4)) {
+                assertEquals(new BoardState(6, 1, NodeType.EXACT), table.get(KEY));
+                // Still the search that wrote the entry, so a shallower result does not replace it
+                table.put(SAME_BUCKET_KEY, 2, 2, NodeType.EXACT, EncodedMove.NULL_MOVE);
+                assertEquals(1, table.get(KEY).score());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void mappedTableForOtherSizeOrKeysStartsEmpty() throws IOException {
+        final Path file = Files.createTempFile("transposition-table", ".bin");
+        try {
+            try (final TranspositionTable table = TranspositionTable.openMapped(file, 4)) {
+                table.put(KEY, 6, 1, NodeType.EXACT, EncodedMove.NULL_MOVE);
+            }
+            try (final TranspositionTable table = TranspositionTable.openMapped(file, 5)) {
+                assertNull(table.get(KEY));
+                table.put(KEY, 6, 1, NodeType.EXACT, EncodedMove.NULL_MOVE);
+            }
+
+            // Zobrist seed of the header
+            try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+                randomAccessFile.seek(16);
+                randomAccessFile.writeLong(BoardUtils.ZOBRIST_SEED + 1);
+            }
+            try (final TranspositionTable table = TranspositionTable.openMapped(file, 5)) {
+                assertNull(table.get(KEY));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.tests.pslonczewski.chad_chess_variant_impl.engine.board;
+
+import com.pslonczewski.chad_chess_variant_impl.engine.Alliance;
+import com.pslonczewski.chad_chess_variant_impl.engine.board.*;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.King;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Piece;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Queen;
+import com.pslonczewski.chad_chess_variant_impl.engine.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the hashes that {@link Move#execute()} and {@link SearchBoard#make(int)} keep up to date move by
+ * move with {@link BoardUtils#calculateZobristHashCode}, explicitly rather than through the assertions that
+ * only run with {@code -ea}, and checks that positions differing in a single piece or in the side to move
+ * hash apart.
+ */
+class ZobristHashTest {
+
+    @Test
+    public void incrementalHashesMatchTheFullHash() {
+        final Random random = new Random(3);
+        int positions = 0;
+
+        for (int game = 0; game < 12; game++) {
+            Board board = TestBoards.ALL.get(game % TestBoards.ALL.size());
+            for (int ply = 0; ply < 60 && !BoardUtils.isEndGameScenario(board); ply++) {
+                assertEquals(BoardUtils.calculateZobristHashCode(board.getPosition(),
+                        board.getCurrentPlayer().getAlliance()), board.getZobristHashCode());
+
+                final SearchBoard searchBoard = new SearchBoard(board);
+                final MoveList moves = searchBoard.generateMoves();
+                for (int i = 0; i < moves.size(); i++) {
+                    final int move = moves.get(i);
+                    searchBoard.make(move);
+                    assertEquals(BoardUtils.calculateZobristHashCode(searchBoard.getPosition(),
+                            searchBoard.getSideToMove()), searchBoard.getZobristHashCode());
+                    final Board movedBoard = EncodedMove.toMove(board, move).execute();
+                    assertEquals(BoardUtils.calculateZobristHashCode(movedBoard.getPosition(),
+                            movedBoard.getCurrentPlayer().getAlliance()), movedBoard.getZobristHashCode());
+                    assertEquals(movedBoard.getZobristHashCode(), searchBoard.getZobristHashCode());
+                    searchBoard.unmake(move);
+                }
+                positions++;
+
+                final List<Move> legalMoves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+                MoveTransition transition;
+                do {
+                    transition = board.getCurrentPlayer().makeMove(
+                            legalMoves.remove(random.nextInt(legalMoves.size())));
+                } while (!transition.getMoveStatus().isDone());
+                board = transition.getTransitionBoard();
+            }
+        }
+        assertTrue(positions > 300);
+    }
+
+    @Test
+    public void transposedMovesReachTheSameHash() {
+        final Board board = Board.createStandardBoard();
+        final List<Move> whiteMoves = new ArrayList<>(board.getWhitePlayer().getLegalMoves());
+        final Move blackMove = board.getBlackPlayer().getLegalMoves().iterator().next();
+        int transpositions = 0;
+
+        for (final Move firstMove : whiteMoves) {
+            for (final Move secondMove : whiteMoves) {
+                if (firstMove.getMovedPiece().equals(secondMove.getMovedPiece())) {
+                    continue;
+                }
+                final Board firstOrder = play(board, firstMove, blackMove, secondMove);
+                final Board secondOrder = play(board, secondMove, blackMove, firstMove);
+                if (firstOrder == null || secondOrder == null) {
+                    continue;
+                }
+                assertEquals(firstOrder.toString().equals(secondOrder.toString()),
+                        firstOrder.getZobristHashCode() == secondOrder.getZobristHashCode());
+                if (firstOrder.toString().equals(secondOrder.toString())) {
+                    transpositions++;
+                }
+            }
+        }
+        assertTrue(transpositions > 100);
+    }
+
+    @Test
+    public void positionsDifferingInOnePropertyHashApart() {
+        final Rook whiteRook = Rook.createRook(Alliance.WHITE, 21);
+        final List<Board> boards = List.of(
+                createBoard(Alliance.WHITE, whiteRook),
+                createBoard(Alliance.BLACK, whiteRook),
+                createBoard(Alliance.WHITE, Rook.createRook(Alliance.WHITE, 20)),
+                createBoard(Alliance.WHITE, Rook.createRook(Alliance.BLACK, 21)),
+                createBoard(Alliance.WHITE, Queen.createQueen(Alliance.WHITE, 21)));
+
+        final Set<Long> hashes = new HashSet<>();
+        for (final Board board : boards) {
+            assertEquals(BoardUtils.calculateZobristHashCode(board.getPosition(),
+                    board.getCurrentPlayer().getAlliance()), board.getZobristHashCode());
+            assertTrue(hashes.add(board.getZobristHashCode()), board.toString());
+        }
+
+        // The promotion capture takes the black rook off and puts a queen in place of the white one
+        final Board board = createBoard(Alliance.WHITE, whiteRook);
+        final Board movedBoard = board.getWhitePlayer().makeMove(Move.MoveFactory.createMove(board, 21, 33))
+                .getTransitionBoard();
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Queen.createQueen(Alliance.WHITE, 33));
+        builder.setMoveMaker(Alliance.BLACK);
+        assertEquals(builder.build().getZobristHashCode(), movedBoard.getZobristHashCode());
+    }
+
+    /**
+     * The two kings and a black rook in the black castle, below the given piece.
+     */
+    private static Board createBoard(final Alliance moveMaker, final Piece piece) {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(King.createKing(Alliance.WHITE, 99));
+        builder.setPiece(King.createKing(Alliance.BLACK, 44));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 33));
+        builder.setPiece(piece);
+        builder.setMoveMaker(moveMaker);
+        return builder.build();
+    }
+
+    /**
+     * @return the board after the moves, looked up by their tiles on each board in turn, or null if one of
+     * them cannot be played there
+     */
+    private static Board play(Board board, final Move... moves) {
+        for (final Move move : moves) {
+            final Move legalMove = Move.MoveFactory.createMove(board, move.getCurrentCoordinate(),
+                    move.getDestinationCoordinate());
+            if (legalMove == Move.NULL_MOVE) {
+                return null;
+            }
+            final MoveTransition transition = board.getCurrentPlayer().makeMove(legalMove);
+            if (!transition.getMoveStatus().isDone()) {
+                return null;
+            }
+            board = transition.getTransitionBoard();
+        }
+        return board;
+    }
+}